@@ -0,0 +1,52 @@
+package edu.berkeley.ground.benchmarks;
+
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.exceptions.GroundException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the containers that every insert and select passes to the database clients, including the type
+ * check done in the constructor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DbDataContainerBenchmark {
+    private String value = "Nodes.bench";
+    private Integer number = 42;
+
+    @Benchmark
+    public DbDataContainer string() throws GroundException {
+        return new DbDataContainer("id", Type.STRING, this.value);
+    }
+
+    @Benchmark
+    public DbDataContainer integer() throws GroundException {
+        return new DbDataContainer("value", Type.INTEGER, this.number);
+    }
+
+    @Benchmark
+    public DbDataContainer nullValue() throws GroundException {
+        return new DbDataContainer("reference", Type.STRING, null);
+    }
+
+    // the insertion list of a rich version with its tag rows, as built by the version factories
+    @Benchmark
+    public List<DbDataContainer> insertionRow() throws GroundException {
+        List<DbDataContainer> insertions = new ArrayList<>(4);
+        insertions.add(new DbDataContainer("richversion_id", Type.STRING, this.value));
+        insertions.add(new DbDataContainer("key", Type.STRING, "tag"));
+        insertions.add(new DbDataContainer("value", Type.STRING, this.value));
+        insertions.add(new DbDataContainer("type", Type.STRING, "string"));
+
+        return insertions;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.berkeley.ground.benchmarks;
+
+import edu.berkeley.ground.api.models.Node;
+import edu.berkeley.ground.api.models.NodeFactory;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.db.PostgresClient;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.PostgresFactories;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and retrieves node versions through the factories, against a local Postgres database set up the same way as
+ * for the resource tests:
+ *
+ *   cd ground-core/scripts/postgres && python2.7 postgres_setup.py test test
+ *
+ * The connection settings can be changed with -p, e.g. -p dbHost=otherhost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+    @Param({"localhost"})
+    public String dbHost;
+
+    @Param({"5432"})
+    public int dbPort;
+
+    @Param({"test"})
+    public String dbName;
+
+    @Param({"test"})
+    public String dbUser;
+
+    @Param({""})
+    public String dbPassword;
+
+    private PostgresClient dbClient;
+    private NodeFactory nodeFactory;
+    private NodeVersionFactory nodeVersionFactory;
+
+    private String nodeId;
+    private String nodeVersionId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GroundException {
+        this.dbClient = new PostgresClient(this.dbHost, this.dbPort, this.dbName, this.dbUser, this.dbPassword);
+
+        PostgresFactories factoryGenerator = new PostgresFactories(this.dbClient);
+        this.nodeFactory = factoryGenerator.getNodeFactory();
+        this.nodeVersionFactory = factoryGenerator.getNodeVersionFactory();
+
+        Node node = this.nodeFactory.create("bench" + UUID.randomUUID());
+        this.nodeVersionId = this.nodeVersionFactory.create(Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), node.getId(), Optional.empty()).getId();
+    }
+
+    // a fresh node for every iteration, so that creates do not slow down as the version history grows
+    @Setup(Level.Iteration)
+    public void createNode() throws GroundException {
+        this.nodeId = this.nodeFactory.create("bench" + UUID.randomUUID()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws GroundException {
+        this.dbClient.close();
+    }
+
+    @Benchmark
+    public NodeVersion createNodeVersion() throws GroundException {
+        return this.nodeVersionFactory.create(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                this.nodeId, Optional.empty());
+    }
+
+    @Benchmark
+    public NodeVersion retrieveNodeVersion() throws GroundException {
+        return this.nodeVersionFactory.retrieveFromDatabase(this.nodeVersionId);
+    }
+
+    @Benchmark
+    public List<String> transitiveClosure() throws GroundException {
+        return this.nodeVersionFactory.getTransitiveClosure(this.nodeVersionId);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.berkeley.ground.benchmarks;
+
+import edu.berkeley.ground.util.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of IdGenerator.generateId from one thread and from eight threads sharing the generator. The generator
+ * should scale with the number of threads, since it takes no locks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    @Param({"Nodes.test"})
+    public String baseId;
+
+    @Benchmark
+    @Threads(1)
+    public String generateId() {
+        return IdGenerator.generateId(this.baseId);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateIdContended() {
+        return IdGenerator.generateId(this.baseId);
+    }
+}
@@ -0,0 +1,92 @@
+package edu.berkeley.ground.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.berkeley.ground.api.models.GraphVersion;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.versions.Type;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of node and graph versions with tagCount tags each, using the object mapper that
+ * Dropwizard configures for the resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+    private static final ObjectMapper MAPPER = Jackson.newObjectMapper();
+
+    @Param({"10", "1000"})
+    public int tagCount;
+
+    private NodeVersion nodeVersion;
+    private GraphVersion graphVersion;
+    private String nodeVersionJson;
+    private String graphVersionJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Tag> tags = new HashMap<>();
+        Map<String, String> parameters = new HashMap<>();
+
+        for (int index = 0; index < this.tagCount; index++) {
+            String key = "tag" + index;
+
+            if (index % 2 == 0) {
+                tags.put(key, new Tag("abcd", key, Optional.of("value" + index), Optional.of(Type.STRING)));
+            } else {
+                tags.put(key, new Tag("abcd", key, Optional.of(index), Optional.of(Type.INTEGER)));
+            }
+
+            parameters.put("parameter" + index, "value" + index);
+        }
+
+        this.nodeVersion = NodeVersionFactory.construct("abcd", Optional.of(tags), Optional.empty(),
+                Optional.of("http://www.ground-context.org"), Optional.of(parameters), "Nodes.bench");
+
+        List<String> edgeVersionIds = new ArrayList<>();
+        for (int index = 0; index < this.tagCount; index++) {
+            edgeVersionIds.add("edgeVersion" + index);
+        }
+
+        Map<String, Object> graphVersion = new LinkedHashMap<>();
+        graphVersion.put("id", "efgh");
+        graphVersion.put("tags", tags);
+        graphVersion.put("graphId", "Graphs.bench");
+        graphVersion.put("edgeVersionIds", edgeVersionIds);
+
+        this.graphVersion = MAPPER.convertValue(graphVersion, GraphVersion.class);
+
+        this.nodeVersionJson = MAPPER.writeValueAsString(this.nodeVersion);
+        this.graphVersionJson = MAPPER.writeValueAsString(this.graphVersion);
+    }
+
+    @Benchmark
+    public String serializeNodeVersion() throws Exception {
+        return MAPPER.writeValueAsString(this.nodeVersion);
+    }
+
+    @Benchmark
+    public NodeVersion deserializeNodeVersion() throws Exception {
+        return MAPPER.readValue(this.nodeVersionJson, NodeVersion.class);
+    }
+
+    @Benchmark
+    public String serializeGraphVersion() throws Exception {
+        return MAPPER.writeValueAsString(this.graphVersion);
+    }
+
+    @Benchmark
+    public GraphVersion deserializeGraphVersion() throws Exception {
+        return MAPPER.readValue(this.graphVersionJson, GraphVersion.class);
+    }
+}
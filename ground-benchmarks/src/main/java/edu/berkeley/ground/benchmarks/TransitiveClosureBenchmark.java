@@ -0,0 +1,46 @@
+package edu.berkeley.ground.benchmarks;
+
+import edu.berkeley.ground.util.CompactGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transitive closures over the in-memory adjacency graph kept by the Cassandra backend, for a long chain of node
+ * versions and for a wide binary tree with the same number of vertices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransitiveClosureBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private CompactGraph chain;
+    private CompactGraph tree;
+
+    @Setup
+    public void setUp() {
+        this.chain = new CompactGraph();
+        this.tree = new CompactGraph();
+
+        for (int index = 1; index < this.size; index++) {
+            this.chain.addEdge("v" + (index - 1), "v" + index);
+            this.tree.addEdge("v" + ((index - 1) / 2), "v" + index);
+        }
+    }
+
+    @Benchmark
+    public List<String> chain() {
+        return this.chain.reachable("v0");
+    }
+
+    @Benchmark
+    public List<String> tree() {
+        return this.tree.reachable("v0");
+    }
+}
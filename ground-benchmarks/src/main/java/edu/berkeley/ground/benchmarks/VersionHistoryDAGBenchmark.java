@@ -0,0 +1,66 @@
+package edu.berkeley.ground.benchmarks;
+
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.versions.VersionHistoryDAG;
+import edu.berkeley.ground.api.versions.VersionSuccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaf lookups and membership checks on the version history of an item with a linear history of size versions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionHistoryDAGBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private VersionHistoryDAG<NodeVersion> dag;
+    private String firstVersionId;
+    private String lastVersionId;
+
+    @Setup
+    public void setUp() {
+        List<VersionSuccessor<NodeVersion>> edges = new ArrayList<>(this.size);
+
+        String parentId = "Nodes.bench";
+        for (int index = 0; index < this.size; index++) {
+            String childId = "version" + index;
+
+            // the constructors are protected, so build the models through anonymous subclasses
+            edges.add(new VersionSuccessor<NodeVersion>("successor" + index, parentId, childId) { });
+            parentId = childId;
+        }
+
+        this.dag = new VersionHistoryDAG<NodeVersion>("Nodes.bench", edges) { };
+        this.firstVersionId = "version0";
+        this.lastVersionId = parentId;
+    }
+
+    @Benchmark
+    public List<String> getLeaves() {
+        return this.dag.getLeaves();
+    }
+
+    @Benchmark
+    public boolean checkFirstItemInDag() {
+        return this.dag.checkItemInDag(this.firstVersionId);
+    }
+
+    @Benchmark
+    public boolean checkLastItemInDag() {
+        return this.dag.checkItemInDag(this.lastVersionId);
+    }
+
+    @Benchmark
+    public boolean checkMissingItemInDag() {
+        return this.dag.checkItemInDag("missing");
+    }
+}
@@ -1,5 +1,6 @@
 use ground;
 
+drop table nodeversionadjacency;
 drop table lineageedgeversions;
 drop table lineageedges;
 drop table principals;
@@ -17,6 +18,7 @@ drop table richversions;
 drop table structureversionitems;
 drop table structureversions;
 drop table structures;
+drop table itemleaves;
 drop table versionhistorydags;
 drop table items;
 drop table versionsuccessors;
@@ -36,12 +38,22 @@ create table Items (
     id varchar primary key
 );
 
+/* vfrom and vto repeat the endpoints of the successor so that an item's history can be read from one partition */
 create table VersionHistoryDAGs (
     item_id varchar,
     successor_id varchar,
+    vfrom varchar,
+    vto varchar,
     primary key(item_id, successor_id)
 );
 
+/* the versions of each item that have no successors, kept up to date as successors are added */
+create table ItemLeaves (
+    item_id varchar,
+    version_id varchar,
+    primary key(item_id, version_id)
+);
+
 /* MODELS */
 
 create table Structures (
@@ -118,6 +130,13 @@ create table GraphVersions (
     graph_id varchar,
 );
 
+/* outgoing edges of each node version, maintained alongside EdgeVersions so that closures can be read one node at a time */
+create table NodeVersionAdjacency (
+    source varchar,
+    target varchar,
+    primary key(source, target)
+);
+
 create table GraphVersionEdges (
     gvid varchar,
     evid varchar,
@@ -0,0 +1,7 @@
+use ground;
+
+/* Keyspaces created before VersionHistoryDAGs stored the endpoints of each successor. Rows written before the upgrade
+   have no endpoints; they are looked up in VersionSuccessors and filled in the first time their history is read. */
+
+alter table VersionHistoryDAGs add vfrom varchar;
+alter table VersionHistoryDAGs add vto varchar;
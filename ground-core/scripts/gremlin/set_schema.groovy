@@ -16,6 +16,7 @@ management.makeVertexLabel("Tag").make();
 management.makeVertexLabel("RichVersionExternalParameter").make();
 
 management.makeEdgeLabel("VersionSuccessor").multiplicity(Multiplicity.SIMPLE).make();
+management.makeEdgeLabel("ItemLeaf").multiplicity(Multiplicity.SIMPLE).make();
 management.makeEdgeLabel("StructureVersionItemConnection").multiplicity(Multiplicity.ONE2MANY).make();
 management.makeEdgeLabel("TagConnection").multiplicity(Multiplicity.ONE2MANY).make();
 management.makeEdgeLabel("RichVersionExternalParameterConnection").multiplicity(Multiplicity.ONE2MANY).make();
@@ -4,6 +4,9 @@ drop table principals;
 drop table workflows;
 drop table graphversionedges;
 drop table graphversions;
+drop table nodeversionreachabilitystate;
+drop table nodeversionreachabilitypending;
+drop table nodeversionreachability;
 drop table edgeversions;
 drop table nodeversions;
 drop table graphs;
@@ -16,6 +19,7 @@ drop table structureversionitems;
 drop table structureversions;
 drop table structures;
 drop type datatype;
+drop table itemleaves;
 drop table versionhistorydags;
 drop table items;
 drop table versionsuccessors;
@@ -11,6 +11,9 @@ create table VersionSuccessors (
     unique (vfrom, vto)
 );
 
+/* the unique constraint indexes successors by vfrom; ancestor queries walk them by vto */
+create index VersionSuccessorsByTarget on VersionSuccessors(vto);
+
 create table Items (
     id varchar not null primary key
 );
@@ -21,6 +24,13 @@ create table VersionHistoryDAGs (
     primary key(item_id, successor_id)
 );
 
+/* the versions of each item that have no successors, kept up to date as successors are added */
+create table ItemLeaves (
+    item_id varchar not null references Items(id),
+    version_id varchar not null references Versions(id),
+    primary key(item_id, version_id)
+);
+
 
 /* MODELS */
 create type DataType as enum ('integer', 'string', 'boolean');
@@ -91,6 +101,33 @@ create table EdgeVersions (
     endpoint_two varchar not null references NodeVersions(id)
 );
 
+/* closure and reachability queries start from the source of an edge */
+create index EdgeVersionsByEndpointOne on EdgeVersions(endpoint_one);
+
+/* every pair of node versions joined by a path of edge versions, with the length of the shortest one; only
+   maintained when closureTable is enabled in the server configuration */
+create table NodeVersionReachability (
+    ancestor varchar not null references NodeVersions(id),
+    descendant varchar not null references NodeVersions(id),
+    depth integer not null,
+    primary key(ancestor, descendant)
+);
+
+/* new edges look up the ancestors of their source */
+create index NodeVersionReachabilityByDescendant on NodeVersionReachability(descendant);
+
+/* edge versions committed but not yet added to NodeVersionReachability */
+create table NodeVersionReachabilityPending (
+    edge_version_id varchar not null primary key references EdgeVersions(id)
+);
+
+/* whether NodeVersionReachability covers every edge version; cleared by servers that run without it */
+create table NodeVersionReachabilityState (
+    complete boolean not null
+);
+
+insert into NodeVersionReachabilityState (complete) values (false);
+
 create table GraphVersions (
     id varchar not null primary key references RichVersions(id),
     graph_id varchar not null references Graphs(item_id)
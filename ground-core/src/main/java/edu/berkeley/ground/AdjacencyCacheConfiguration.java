@@ -0,0 +1,53 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Settings for the local copy of the node version adjacency lists that the cassandra backend keeps to answer
+ * transitive closure queries. Versions are immutable, so cached edges are never wrong; entries expire so that edges
+ * written through other servers become visible. maxSize bounds the number of node versions held in memory: once the
+ * cache grows past it, it is emptied and filled again as queries read the adjacency lists.
+ */
+public class AdjacencyCacheConfiguration {
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maxSize = 1000000;
+
+    @NotNull
+    private Duration expireAfterWrite = Duration.minutes(1);
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @JsonProperty
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+
+    @JsonProperty
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @JsonProperty
+    public Duration getExpireAfterWrite() {
+        return this.expireAfterWrite;
+    }
+
+    @JsonProperty
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
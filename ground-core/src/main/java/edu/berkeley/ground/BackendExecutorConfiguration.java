@@ -0,0 +1,54 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Settings for the pool of threads that run the database calls behind the REST API. A request starts a new thread
+ * whenever fewer than maxThreads are running, and only queues once they are all busy; idle threads exit after a
+ * minute. Requests arriving when both the pool and the queue are full are rejected with a 503, as are requests that
+ * wait longer than the timeout.
+ */
+public class BackendExecutorConfiguration {
+    @Min(1)
+    private int maxThreads = 64;
+
+    @Min(1)
+    private int queueSize = 1024;
+
+    @NotNull
+    private Duration timeout = Duration.seconds(30);
+
+    @JsonProperty
+    public int getMaxThreads() {
+        return this.maxThreads;
+    }
+
+    @JsonProperty
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    @JsonProperty
+    public int getQueueSize() {
+        return this.queueSize;
+    }
+
+    @JsonProperty
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    @JsonProperty
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    @JsonProperty
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,22 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Settings for the NodeVersionReachability table that the postgres backend can keep to answer transitive closure and
+ * reachability queries with index lookups. A server started with it disabled marks the table stale, and one started
+ * with it enabled rebuilds it from EdgeVersions if it is stale; until then, queries fall back to recursive ones.
+ */
+public class ClosureTableConfiguration {
+    private boolean enabled = false;
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Settings for the pool of database connections kept open by the server. Every field has a default, so the whole
+ * block may be omitted from the configuration file.
+ */
+public class DbPoolConfiguration {
+    @Min(1)
+    private int maxSize = 16;
+
+    @Min(0)
+    private int minIdle = 4;
+
+    @NotNull
+    private Duration connectionTimeout = Duration.seconds(30);
+
+    @NotNull
+    private Duration idleTimeout = Duration.minutes(10);
+
+    @NotNull
+    private Duration maxLifetime = Duration.minutes(30);
+
+    // if no validation query is set, the driver's Connection.isValid() check is used
+    private String validationQuery;
+
+    @NotNull
+    private Duration validationTimeout = Duration.seconds(5);
+
+    // number of executions of a statement on a connection before pgjdbc switches it to a server-side prepared statement
+    @Min(0)
+    private int prepareThreshold = 1;
+
+    // number of prepared statements pgjdbc keeps per connection
+    @Min(0)
+    private int preparedStatementCacheSize = 256;
+
+    @JsonProperty
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @JsonProperty
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @JsonProperty
+    public int getMinIdle() {
+        return this.minIdle;
+    }
+
+    @JsonProperty
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    @JsonProperty
+    public Duration getConnectionTimeout() {
+        return this.connectionTimeout;
+    }
+
+    @JsonProperty
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @JsonProperty
+    public Duration getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    @JsonProperty
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @JsonProperty
+    public Duration getMaxLifetime() {
+        return this.maxLifetime;
+    }
+
+    @JsonProperty
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    @JsonProperty
+    public String getValidationQuery() {
+        return this.validationQuery;
+    }
+
+    @JsonProperty
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    @JsonProperty
+    public Duration getValidationTimeout() {
+        return this.validationTimeout;
+    }
+
+    @JsonProperty
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    @JsonProperty
+    public int getPrepareThreshold() {
+        return this.prepareThreshold;
+    }
+
+    @JsonProperty
+    public void setPrepareThreshold(int prepareThreshold) {
+        this.prepareThreshold = prepareThreshold;
+    }
+
+    @JsonProperty
+    public int getPreparedStatementCacheSize() {
+        return this.preparedStatementCacheSize;
+    }
+
+    @JsonProperty
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+}
@@ -1,21 +1,47 @@
 package edu.berkeley.ground;
 
+import com.codahale.metrics.InstrumentedExecutorService;
 import edu.berkeley.ground.api.models.*;
+import edu.berkeley.ground.api.models.cached.*;
+import edu.berkeley.ground.api.models.indexed.IndexedEdgeVersionFactory;
+import edu.berkeley.ground.api.models.indexed.IndexedNodeVersionFactory;
 import edu.berkeley.ground.api.usage.LineageEdgeFactory;
 import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
+import edu.berkeley.ground.api.usage.cached.CachedLineageEdgeVersionFactory;
+import edu.berkeley.ground.commands.ExportCommand;
+import edu.berkeley.ground.commands.ImportCommand;
 import edu.berkeley.ground.db.CassandraClient;
+import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.GremlinClient;
+import edu.berkeley.ground.db.TabularConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 import edu.berkeley.ground.resources.*;
 import edu.berkeley.ground.util.CassandraFactories;
 import edu.berkeley.ground.util.PostgresFactories;
+import edu.berkeley.ground.util.ReachabilityIndex;
 import edu.berkeley.ground.util.GremlinFactories;
+import edu.berkeley.ground.util.VersionCache;
 import io.dropwizard.Application;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 public class GroundServer extends Application<GroundServerConfiguration> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroundServer.class);
+
+    private static final int EDGE_VERSION_FETCH_SIZE = 1000;
+
     private EdgeFactory edgeFactory;
     private EdgeVersionFactory edgeVersionFactory;
     private GraphFactory graphFactory;
@@ -38,35 +64,65 @@ public class GroundServer extends Application<GroundServerConfiguration> {
 
     @Override
     public void initialize(Bootstrap<GroundServerConfiguration> bootstrap){
-        // nothing
+        bootstrap.addCommand(new ExportCommand());
+        bootstrap.addCommand(new ImportCommand());
     }
 
     @Override
     public void run(GroundServerConfiguration configuration, Environment environment) throws GroundException {
+        final DBClient dbClient;
+
         switch (configuration.getDbType()) {
             case "postgres":
-                PostgresClient postgresClient = new PostgresClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword());
+                PostgresClient postgresClient = new PostgresClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(), configuration.getDbPool(), configuration.getClosureTable(), environment.metrics());
                 setPostgresFactories(postgresClient);
+                dbClient = postgresClient;
                 break;
 
             case "cassandra":
-                CassandraClient cassandraClient = new CassandraClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword());
+                CassandraClient cassandraClient = new CassandraClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(), environment.metrics(), configuration.getAdjacencyCache());
                 setCassandraFactories(cassandraClient);
+                dbClient = cassandraClient;
                 break;
 
             case "gremlin":
                 GremlinClient gremlinClient = new GremlinClient();
                 setGremlinFactories(gremlinClient);
+                dbClient = gremlinClient;
                 break;
 
             default: throw new RuntimeException("FATAL: Unrecognized database type (" + configuration.getDbType() + ").");
         }
 
-        final EdgesResource edgesResource = new EdgesResource(edgeFactory, edgeVersionFactory);
-        final GraphsResource graphsResource = new GraphsResource(graphFactory, graphVersionFactory);
-        final LineageEdgesResource lineageEdgesResource = new LineageEdgesResource(lineageEdgeFactory, lineageEdgeVersionFactory);
-        final NodesResource nodesResource = new NodesResource(nodeFactory, nodeVersionFactory);
-        final StructuresResource structuresResource = new StructuresResource(structureFactory, structureVersionFactory);
+        if (configuration.getVersionCache().isEnabled()) {
+            setCachedVersionFactories(new VersionCache(configuration.getVersionCache().getMaxWeight(), environment.metrics()));
+        }
+
+        // the gremlin backend has no EdgeVersions table to build the index from
+        if (configuration.getReachabilityIndex().isEnabled() && !(dbClient instanceof GremlinClient)) {
+            setIndexedFactories(createReachabilityIndex(configuration.getReachabilityIndex(), dbClient, environment),
+                    configuration.getReachabilityIndex().getMaxStaleness());
+        }
+
+        environment.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+                // the client is opened eagerly above
+            }
+
+            @Override
+            public void stop() throws GroundException {
+                dbClient.close();
+            }
+        });
+
+        final BackendExecutor backendExecutor = createBackendExecutor(configuration.getBackendExecutor(), environment);
+
+        final EdgesResource edgesResource = new EdgesResource(edgeFactory, edgeVersionFactory, backendExecutor);
+        final GraphsResource graphsResource = new GraphsResource(graphFactory, graphVersionFactory, backendExecutor);
+        final LineageEdgesResource lineageEdgesResource = new LineageEdgesResource(lineageEdgeFactory, lineageEdgeVersionFactory, backendExecutor);
+        final NodesResource nodesResource = new NodesResource(nodeFactory, nodeVersionFactory, backendExecutor);
+        final StructuresResource structuresResource = new StructuresResource(structureFactory, structureVersionFactory, backendExecutor);
 
         environment.jersey().register(edgesResource);
         environment.jersey().register(graphsResource);
@@ -75,6 +131,73 @@ public class GroundServer extends Application<GroundServerConfiguration> {
         environment.jersey().register(structuresResource);
     }
 
+    // the executor is managed, so it is shut down along with the server
+    private static BackendExecutor createBackendExecutor(BackendExecutorConfiguration configuration, Environment environment) {
+        // a ThreadPoolExecutor only grows past its core size once the queue is full, so every thread is a core thread
+        // and idle ones are allowed to exit instead
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) environment.lifecycle().executorService("backend-%d")
+                .minThreads(configuration.getMaxThreads())
+                .maxThreads(configuration.getMaxThreads())
+                .workQueue(new ArrayBlockingQueue<>(configuration.getQueueSize()))
+                .build();
+        executor.allowCoreThreadTimeOut(true);
+
+        return new BackendExecutor(new InstrumentedExecutorService(executor, environment.metrics(), "backend"), configuration.getTimeout());
+    }
+
+    /**
+     * Returns an index that is built in the background right away and rebuilt every rebuildInterval afterwards, on a
+     * managed executor. Until the first build completes, reachability queries go to the backend.
+     */
+    private static ReachabilityIndex createReachabilityIndex(ReachabilityIndexConfiguration configuration, DBClient dbClient, Environment environment) {
+        ReachabilityIndex reachabilityIndex = new ReachabilityIndex();
+        ScheduledExecutorService executor = environment.lifecycle().scheduledExecutorService("reachability-%d").build();
+
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reachabilityIndex.rebuild(edges -> loadEdgeVersions(dbClient, edges));
+
+                LOGGER.info("Rebuilt the reachability index over " + reachabilityIndex.getVertexCount() + " node versions with "
+                        + reachabilityIndex.getLabelSize() + " labels.");
+            } catch (GroundException | RuntimeException e) {
+                // an exception escaping the task would cancel every later rebuild
+                LOGGER.error("Unable to rebuild the reachability index: " + e.getMessage());
+            }
+        }, 0, configuration.getRebuildInterval().toMilliseconds(), TimeUnit.MILLISECONDS);
+
+        return reachabilityIndex;
+    }
+
+    private static void loadEdgeVersions(DBClient dbClient, BiConsumer<String, String> edges) throws GroundException {
+        GroundDBConnection connection = dbClient.getConnection();
+
+        try {
+            ((TabularConnection) connection).scan("EdgeVersions", EDGE_VERSION_FETCH_SIZE,
+                    row -> edges.accept(row.get("endpoint_one"), row.get("endpoint_two")));
+
+            connection.commit();
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    // reachability queries between node versions are answered from memory, and edge versions patch the index
+    private void setIndexedFactories(ReachabilityIndex reachabilityIndex, Duration maxStaleness) {
+        edgeVersionFactory = new IndexedEdgeVersionFactory(edgeVersionFactory, reachabilityIndex);
+        nodeVersionFactory = new IndexedNodeVersionFactory(nodeVersionFactory, reachabilityIndex, maxStaleness);
+    }
+
+    // versions are immutable, so reads of them can be served from memory whatever the backend
+    private void setCachedVersionFactories(VersionCache versionCache) {
+        edgeVersionFactory = new CachedEdgeVersionFactory(edgeVersionFactory, versionCache);
+        graphVersionFactory = new CachedGraphVersionFactory(graphVersionFactory, versionCache);
+        lineageEdgeVersionFactory = new CachedLineageEdgeVersionFactory(lineageEdgeVersionFactory, versionCache);
+        nodeVersionFactory = new CachedNodeVersionFactory(nodeVersionFactory, versionCache);
+        structureVersionFactory = new CachedStructureVersionFactory(structureVersionFactory, versionCache);
+    }
+
     private void setPostgresFactories(PostgresClient postgresClient) {
         PostgresFactories factoryGenerator = new PostgresFactories(postgresClient);
 
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.Configuration;
 import org.hibernate.validator.constraints.NotEmpty;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
 public class GroundServerConfiguration extends Configuration {
@@ -25,6 +26,30 @@ public class GroundServerConfiguration extends Configuration {
     @NotEmpty
     private String dbPassword;
 
+    @Valid
+    @NotNull
+    private DbPoolConfiguration dbPool = new DbPoolConfiguration();
+
+    @Valid
+    @NotNull
+    private ClosureTableConfiguration closureTable = new ClosureTableConfiguration();
+
+    @Valid
+    @NotNull
+    private AdjacencyCacheConfiguration adjacencyCache = new AdjacencyCacheConfiguration();
+
+    @Valid
+    @NotNull
+    private VersionCacheConfiguration versionCache = new VersionCacheConfiguration();
+
+    @Valid
+    @NotNull
+    private ReachabilityIndexConfiguration reachabilityIndex = new ReachabilityIndexConfiguration();
+
+    @Valid
+    @NotNull
+    private BackendExecutorConfiguration backendExecutor = new BackendExecutorConfiguration();
+
     @JsonProperty
     public String getDbType() {
         return this.dbType;
@@ -84,4 +109,64 @@ public class GroundServerConfiguration extends Configuration {
     public void setDbPassword(String dbPassword) {
         this.dbPassword = dbPassword;
     }
-}
\ No newline at end of file
+
+    @JsonProperty
+    public DbPoolConfiguration getDbPool() {
+        return this.dbPool;
+    }
+
+    @JsonProperty
+    public void setDbPool(DbPoolConfiguration dbPool) {
+        this.dbPool = dbPool;
+    }
+
+    @JsonProperty
+    public ClosureTableConfiguration getClosureTable() {
+        return this.closureTable;
+    }
+
+    @JsonProperty
+    public void setClosureTable(ClosureTableConfiguration closureTable) {
+        this.closureTable = closureTable;
+    }
+
+    @JsonProperty
+    public AdjacencyCacheConfiguration getAdjacencyCache() {
+        return this.adjacencyCache;
+    }
+
+    @JsonProperty
+    public void setAdjacencyCache(AdjacencyCacheConfiguration adjacencyCache) {
+        this.adjacencyCache = adjacencyCache;
+    }
+
+    @JsonProperty
+    public VersionCacheConfiguration getVersionCache() {
+        return this.versionCache;
+    }
+
+    @JsonProperty
+    public void setVersionCache(VersionCacheConfiguration versionCache) {
+        this.versionCache = versionCache;
+    }
+
+    @JsonProperty
+    public ReachabilityIndexConfiguration getReachabilityIndex() {
+        return this.reachabilityIndex;
+    }
+
+    @JsonProperty
+    public void setReachabilityIndex(ReachabilityIndexConfiguration reachabilityIndex) {
+        this.reachabilityIndex = reachabilityIndex;
+    }
+
+    @JsonProperty
+    public BackendExecutorConfiguration getBackendExecutor() {
+        return this.backendExecutor;
+    }
+
+    @JsonProperty
+    public void setBackendExecutor(BackendExecutorConfiguration backendExecutor) {
+        this.backendExecutor = backendExecutor;
+    }
+}
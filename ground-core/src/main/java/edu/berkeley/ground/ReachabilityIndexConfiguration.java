@@ -0,0 +1,57 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Settings for the in-memory index that answers whether one node version reaches another. Edge versions created
+ * through this server are added to it right away; it is rebuilt from EdgeVersions every rebuildInterval, which also
+ * picks up edge versions written through other servers or imported. Every rebuild scans the whole EdgeVersions table,
+ * so the index is off unless enabled.
+ *
+ * Negative answers are trusted while the last rebuild is at most maxStaleness old, and checked against the database
+ * otherwise. A single server sees all of its own edge versions, so it can trust them for as long as it likes; with
+ * several servers, maxStaleness bounds how long one may answer that there is no path because of an edge version
+ * written through another. A maxStaleness of zero always checks them.
+ */
+public class ReachabilityIndexConfiguration {
+    private boolean enabled = false;
+
+    @NotNull
+    private Duration rebuildInterval = Duration.minutes(10);
+
+    @NotNull
+    private Duration maxStaleness = Duration.minutes(15);
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @JsonProperty
+    public Duration getRebuildInterval() {
+        return this.rebuildInterval;
+    }
+
+    @JsonProperty
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @JsonProperty
+    public Duration getMaxStaleness() {
+        return this.maxStaleness;
+    }
+
+    @JsonProperty
+    public void setMaxStaleness(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+}
@@ -0,0 +1,37 @@
+package edu.berkeley.ground;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Settings for the in-process cache of versions read through the REST API. Versions are immutable, so entries never
+ * go stale; the cache is bounded by weight, where a version weighs one plus the number of its tags, parameters,
+ * attributes and edge versions.
+ */
+public class VersionCacheConfiguration {
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maxWeight = 1000000;
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @JsonProperty
+    public long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    @JsonProperty
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+}
@@ -2,6 +2,7 @@ package edu.berkeley.ground.api.models;
 
 import edu.berkeley.ground.exceptions.GroundException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,8 +17,22 @@ public abstract class EdgeVersionFactory {
                                        Optional<String> parentId) throws GroundException;
 
 
+    /**
+     * Creates all of the given versions in one transaction and returns their ids in order. The ids in the input are
+     * ignored, and each version is added to the history of its edge after the current leaf. structureVersions
+     * holds the structure versions that have already been retrieved for validation and is added to as new ones are
+     * seen, so that it can be shared across several calls.
+     */
+    public abstract List<String> createBatch(List<EdgeVersion> edgeVersions, Map<String, StructureVersion> structureVersions) throws GroundException;
+
     public abstract EdgeVersion retrieveFromDatabase(String id) throws GroundException;
 
+    /**
+     * Retrieves the versions with the given ids, in the order of the ids, with a fixed number of queries however many
+     * ids there are. Ids that don't exist are left out.
+     */
+    public abstract List<EdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException;
+
     protected static EdgeVersion construct(String id,
                                            Optional<Map<String, Tag>> tags,
                                            Optional<String> structureVersionId,
@@ -1,5 +1,6 @@
 package edu.berkeley.ground.api.models;
 
+import edu.berkeley.ground.api.versions.VersionSuccessor;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import java.util.List;
@@ -14,10 +15,46 @@ public abstract class NodeVersionFactory {
                                        String nodeId,
                                        Optional<String> parentId) throws GroundException;
 
+    /**
+     * Creates all of the given versions in one transaction and returns their ids in order. The ids in the input are
+     * ignored, and each version is added to the history of its node after the current leaf. structureVersions
+     * holds the structure versions that have already been retrieved for validation and is added to as new ones are
+     * seen, so that it can be shared across several calls.
+     */
+    public abstract List<String> createBatch(List<NodeVersion> nodeVersions, Map<String, StructureVersion> structureVersions) throws GroundException;
+
     public abstract NodeVersion retrieveFromDatabase(String id) throws GroundException;
 
+    /**
+     * Retrieves the versions with the given ids, in the order of the ids, with a fixed number of queries however many
+     * ids there are. Ids that don't exist are left out.
+     */
+    public abstract List<NodeVersion> retrieveFromDatabase(List<String> ids) throws GroundException;
+
     public abstract List<String> getTransitiveClosure(String nodeVersionId) throws GroundException;
 
+    /**
+     * Returns whether the node version toId is in the transitive closure of the node version fromId, without
+     * computing the whole closure where the backend can avoid it.
+     */
+    public abstract boolean reaches(String fromId, String toId) throws GroundException;
+
+    /**
+     * Returns a page of the successors in the history of a node, at most depth steps from the version from (or from
+     * the start of the history), ordered by distance and then by id.
+     */
+    public abstract List<VersionSuccessor<NodeVersion>> getHistory(String nodeId, Optional<String> from, int depth, int offset, int limit) throws GroundException;
+
+    public abstract List<String> getAncestors(String nodeVersionId, int depth, int offset, int limit) throws GroundException;
+
+    public abstract List<String> getDescendants(String nodeVersionId, int depth, int offset, int limit) throws GroundException;
+
+    /**
+     * Returns the closest version that both versions descend from (or are), or an empty Optional if there is none,
+     * including when the versions belong to different nodes.
+     */
+    public abstract Optional<String> getLowestCommonAncestor(String firstId, String secondId) throws GroundException;
+
     public static NodeVersion construct(String id,
                                         Optional<Map<String, Tag>> tags,
                                         Optional<String> structureVersionId,
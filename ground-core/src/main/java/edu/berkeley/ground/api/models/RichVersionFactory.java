@@ -2,39 +2,89 @@ package edu.berkeley.ground.api.models;
 
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
+import edu.berkeley.ground.db.TabularConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 public abstract class RichVersionFactory {
-    public abstract void insertIntoDatabase(GroundDBConnection connection, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) throws GroundException;
+    public void insertIntoDatabase(GroundDBConnection connection, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) throws GroundException {
+        this.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, new HashMap<>());
+    }
+
+    /**
+     * Inserts a rich version, looking up its structure version in structureVersions first. Structure versions that
+     * have to be retrieved are added to the map, so callers inserting many versions can share it to retrieve each
+     * structure version only once.
+     */
+    public abstract void insertIntoDatabase(GroundDBConnection connection, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters, Map<String, StructureVersion> structureVersions) throws GroundException;
 
     public abstract RichVersion retrieveFromDatabase(GroundDBConnection connection, String id) throws GroundException;
 
+    /**
+     * Retrieves the rich versions with the given ids, keyed by id, with a fixed number of queries however many ids
+     * there are. Ids that don't exist are left out.
+     */
+    public abstract Map<String, RichVersion> retrieveFromDatabase(GroundDBConnection connection, Collection<String> ids) throws GroundException;
+
     protected static RichVersion construct(String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) {
         return new RichVersion(id, tags, structureVersionId, reference, parameters);
     }
 
-    protected static void checkStructureTags(StructureVersion structureVersion, Optional<Map<String, Tag>> tags) throws GroundException {
-        Map<String, Type> structureVersionAttributes = structureVersion.getAttributes();
+    // retrieves rich versions from the tables of the relational layout, for the backends that use it
+    protected static Map<String, RichVersion> retrieveFromTables(TabularConnection connection, Collection<String> ids) throws GroundException {
+        Map<String, Map<String, String>> parameters = new HashMap<>();
+        connection.selectIn("RichVersionExternalParameters", "richversion_id", ids, row ->
+                parameters.computeIfAbsent(row.get("richversion_id"), id -> new HashMap<>()).put(row.get("key"), row.get("value"))
+        );
 
-        if(!tags.isPresent()) {
-            throw new GroundException("No tags were specified");
-        }
+        Map<String, Map<String, Tag>> tags = new HashMap<>();
+        connection.selectIn("Tags", "richversion_id", ids, row -> {
+            String id = row.get("richversion_id");
+            Optional<Type> type = Optional.ofNullable(Type.fromString(row.get("type")));
+            Optional<Object> value = type.map(t -> Type.stringToType(row.get("value"), t));
 
-        Map<String, Tag> tagsMap = tags.get();
+            tags.computeIfAbsent(id, key -> new HashMap<>()).put(row.get("key"), new Tag(id, row.get("key"), value, type));
+        });
 
-        for (String key : structureVersionAttributes.keySet()) {
+        Map<String, RichVersion> versions = new HashMap<>();
+        connection.selectIn("RichVersions", "id", ids, row -> {
+            String id = row.get("id");
 
-            // check if such a tag exists
-            if(!tagsMap.keySet().contains(key)) {
-                throw new GroundException("No tag with key " + key + " was specified.");
-            } else if (!tagsMap.get(key).getValueType().isPresent()) { // check that value type is specified
-                throw new GroundException("Tag with key " + key + " did not have a value.");
-            } else if (!tagsMap.get(key).getValueType().get().equals(structureVersionAttributes.get(key))) { // check that the value type is the same
-                throw new GroundException("Tag with key " + key + " did not have a value of the correct type.");
+            versions.put(id, RichVersionFactory.construct(id,
+                    Optional.ofNullable(tags.get(id)),
+                    Optional.ofNullable(row.get("structure_id")),
+                    Optional.ofNullable(row.get("reference")),
+                    Optional.ofNullable(parameters.get(id))));
+        });
+
+        return versions;
+    }
+
+    /**
+     * Checks tags against the schema of a structure version. The structure version is looked up in structureVersions
+     * and then retrieved with retrieve, but only if its schema is not in structureSchemas already.
+     */
+    protected static void checkStructureTags(StructureSchemaCache structureSchemas,
+                                             String structureVersionId,
+                                             Optional<Map<String, Tag>> tags,
+                                             Map<String, StructureVersion> structureVersions,
+                                             Callable<StructureVersion> retrieve) throws GroundException {
+
+        StructureSchema schema = structureSchemas.get(structureVersionId, () -> {
+            StructureVersion structureVersion = structureVersions.get(structureVersionId);
+            if (structureVersion == null) {
+                structureVersion = retrieve.call();
+                structureVersions.put(structureVersion.getId(), structureVersion);
             }
-        }
+
+            return structureVersion;
+        });
+
+        schema.check(tags);
     }
 }
@@ -0,0 +1,67 @@
+package edu.berkeley.ground.api.models;
+
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The attributes of a structure version, flattened into arrays so that the tags of a rich version can be checked
+ * against them with one map lookup per attribute.
+ */
+public class StructureSchema {
+    private final String structureVersionId;
+    private final String[] keys;
+    private final Type[] types;
+
+    private StructureSchema(String structureVersionId, String[] keys, Type[] types) {
+        this.structureVersionId = structureVersionId;
+        this.keys = keys;
+        this.types = types;
+    }
+
+    public static StructureSchema compile(StructureVersion structureVersion) {
+        Map<String, Type> attributes = structureVersion.getAttributes();
+
+        String[] keys = new String[attributes.size()];
+        Type[] types = new Type[attributes.size()];
+
+        int index = 0;
+        for (Map.Entry<String, Type> attribute : attributes.entrySet()) {
+            keys[index] = attribute.getKey();
+            types[index] = attribute.getValue();
+
+            index++;
+        }
+
+        return new StructureSchema(structureVersion.getId(), keys, types);
+    }
+
+    public String getStructureVersionId() {
+        return this.structureVersionId;
+    }
+
+    /**
+     * Checks that there is a tag for every attribute, and that its value has the attribute's type.
+     */
+    public void check(Optional<Map<String, Tag>> tags) throws GroundException {
+        if (!tags.isPresent()) {
+            throw new GroundException("No tags were specified");
+        }
+
+        Map<String, Tag> tagsMap = tags.get();
+
+        for (int index = 0; index < this.keys.length; index++) {
+            Tag tag = tagsMap.get(this.keys[index]);
+
+            if (tag == null) {
+                throw new GroundException("No tag with key " + this.keys[index] + " was specified.");
+            } else if (!tag.getValueType().isPresent()) {
+                throw new GroundException("Tag with key " + this.keys[index] + " did not have a value.");
+            } else if (tag.getValueType().get() != this.types[index]) {
+                throw new GroundException("Tag with key " + this.keys[index] + " did not have a value of the correct type.");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package edu.berkeley.ground.api.models;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The compiled schemas of the structure versions that rich versions have been validated against, shared by all of a
+ * backend's rich version factories. Structure versions are immutable, so schemas never go stale, and ingest typically
+ * tags many versions against few structure versions, so the cache is small and almost always hit.
+ */
+public class StructureSchemaCache {
+    private static final int MAX_SIZE = 10000;
+
+    private final Cache<String, StructureSchema> schemas = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    /**
+     * Returns the schema of the given structure version, calling loader to retrieve the structure version if its
+     * schema has not been compiled yet.
+     */
+    public StructureSchema get(String structureVersionId, Callable<StructureVersion> loader) throws GroundException {
+        StructureSchema schema = this.schemas.getIfPresent(structureVersionId);
+        if (schema != null) {
+            return schema;
+        }
+
+        try {
+            return this.schemas.get(structureVersionId, () -> StructureSchema.compile(loader.call()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof GroundException) {
+                throw (GroundException) e.getCause();
+            }
+
+            throw new GroundException(e.getCause().getClass().toString() + ": " + e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package edu.berkeley.ground.api.models.cached;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.EdgeVersionFactory;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.VersionCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves edge version reads from a VersionCache, passing everything else through to the backend's factory.
+ */
+public class CachedEdgeVersionFactory extends EdgeVersionFactory {
+    private EdgeVersionFactory edgeVersionFactory;
+    private VersionCache versionCache;
+
+    public CachedEdgeVersionFactory(EdgeVersionFactory edgeVersionFactory, VersionCache versionCache) {
+        this.edgeVersionFactory = edgeVersionFactory;
+        this.versionCache = versionCache;
+    }
+
+    public EdgeVersion create(Optional<Map<String, Tag>> tags,
+                              Optional<String> structureVersionId,
+                              Optional<String> reference,
+                              Optional<Map<String, String>> parameters,
+                              String edgeId,
+                              String fromId,
+                              String toId,
+                              Optional<String> parentId) throws GroundException {
+
+        return this.edgeVersionFactory.create(tags, structureVersionId, reference, parameters, edgeId, fromId, toId, parentId);
+    }
+
+    public List<String> createBatch(List<EdgeVersion> edgeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.edgeVersionFactory.createBatch(edgeVersions, structureVersions);
+    }
+
+    public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.versionCache.get(EdgeVersion.class, id, () -> this.edgeVersionFactory.retrieveFromDatabase(id));
+    }
+
+    public List<EdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.versionCache.getAll(EdgeVersion.class, ids, this.edgeVersionFactory::retrieveFromDatabase);
+    }
+}
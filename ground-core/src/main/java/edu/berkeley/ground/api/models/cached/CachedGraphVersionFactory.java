@@ -0,0 +1,48 @@
+package edu.berkeley.ground.api.models.cached;
+
+import edu.berkeley.ground.api.models.GraphVersion;
+import edu.berkeley.ground.api.models.GraphVersionFactory;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.VersionCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves graph version reads from a VersionCache, passing everything else through to the backend's factory.
+ */
+public class CachedGraphVersionFactory extends GraphVersionFactory {
+    private GraphVersionFactory graphVersionFactory;
+    private VersionCache versionCache;
+
+    public CachedGraphVersionFactory(GraphVersionFactory graphVersionFactory, VersionCache versionCache) {
+        this.graphVersionFactory = graphVersionFactory;
+        this.versionCache = versionCache;
+    }
+
+    public GraphVersion create(Optional<Map<String, Tag>> tags,
+                               Optional<String> structureVersionId,
+                               Optional<String> reference,
+                               Optional<Map<String, String>> parameters,
+                               String graphId,
+                               List<String> edgeVersionIds,
+                               Optional<String> parentId) throws GroundException {
+
+        return this.graphVersionFactory.create(tags, structureVersionId, reference, parameters, graphId, edgeVersionIds, parentId);
+    }
+
+    public List<String> createBatch(List<GraphVersion> graphVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.graphVersionFactory.createBatch(graphVersions, structureVersions);
+    }
+
+    public GraphVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.versionCache.get(GraphVersion.class, id, () -> this.graphVersionFactory.retrieveFromDatabase(id));
+    }
+
+    public List<GraphVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.versionCache.getAll(GraphVersion.class, ids, this.graphVersionFactory::retrieveFromDatabase);
+    }
+}
@@ -0,0 +1,72 @@
+package edu.berkeley.ground.api.models.cached;
+
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.versions.VersionSuccessor;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.VersionCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves node version reads from a VersionCache, passing everything else through to the backend's factory.
+ */
+public class CachedNodeVersionFactory extends NodeVersionFactory {
+    private NodeVersionFactory nodeVersionFactory;
+    private VersionCache versionCache;
+
+    public CachedNodeVersionFactory(NodeVersionFactory nodeVersionFactory, VersionCache versionCache) {
+        this.nodeVersionFactory = nodeVersionFactory;
+        this.versionCache = versionCache;
+    }
+
+    public NodeVersion create(Optional<Map<String, Tag>> tags,
+                              Optional<String> structureVersionId,
+                              Optional<String> reference,
+                              Optional<Map<String, String>> parameters,
+                              String nodeId,
+                              Optional<String> parentId) throws GroundException {
+
+        return this.nodeVersionFactory.create(tags, structureVersionId, reference, parameters, nodeId, parentId);
+    }
+
+    public List<String> createBatch(List<NodeVersion> nodeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.nodeVersionFactory.createBatch(nodeVersions, structureVersions);
+    }
+
+    public NodeVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.versionCache.get(NodeVersion.class, id, () -> this.nodeVersionFactory.retrieveFromDatabase(id));
+    }
+
+    public List<NodeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.versionCache.getAll(NodeVersion.class, ids, this.nodeVersionFactory::retrieveFromDatabase);
+    }
+
+    public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
+        return this.nodeVersionFactory.getTransitiveClosure(nodeVersionId);
+    }
+
+    public boolean reaches(String fromId, String toId) throws GroundException {
+        return this.nodeVersionFactory.reaches(fromId, toId);
+    }
+
+    public List<VersionSuccessor<NodeVersion>> getHistory(String nodeId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getHistory(nodeId, from, depth, offset, limit);
+    }
+
+    public List<String> getAncestors(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getAncestors(nodeVersionId, depth, offset, limit);
+    }
+
+    public List<String> getDescendants(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getDescendants(nodeVersionId, depth, offset, limit);
+    }
+
+    public Optional<String> getLowestCommonAncestor(String firstId, String secondId) throws GroundException {
+        return this.nodeVersionFactory.getLowestCommonAncestor(firstId, secondId);
+    }
+}
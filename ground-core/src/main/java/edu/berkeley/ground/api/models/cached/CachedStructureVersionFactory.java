@@ -0,0 +1,34 @@
+package edu.berkeley.ground.api.models.cached;
+
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.StructureVersionFactory;
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.VersionCache;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves structure version reads from a VersionCache, passing everything else through to the backend's factory.
+ */
+public class CachedStructureVersionFactory extends StructureVersionFactory {
+    private StructureVersionFactory structureVersionFactory;
+    private VersionCache versionCache;
+
+    public CachedStructureVersionFactory(StructureVersionFactory structureVersionFactory, VersionCache versionCache) {
+        this.structureVersionFactory = structureVersionFactory;
+        this.versionCache = versionCache;
+    }
+
+    public StructureVersion create(String structureId,
+                                   Map<String, Type> attributes,
+                                   Optional<String> parentId) throws GroundException {
+
+        return this.structureVersionFactory.create(structureId, attributes, parentId);
+    }
+
+    public StructureVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.versionCache.get(StructureVersion.class, id, () -> this.structureVersionFactory.retrieveFromDatabase(id));
+    }
+}
@@ -3,6 +3,7 @@ package edu.berkeley.ground.api.models.cassandra;
 import edu.berkeley.ground.api.models.EdgeVersion;
 import edu.berkeley.ground.api.models.EdgeVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.CassandraClient;
@@ -16,9 +17,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CassandraEdgeVersionFactory extends EdgeVersionFactory {
@@ -46,34 +50,71 @@ public class CassandraEdgeVersionFactory extends EdgeVersionFactory {
         CassandraConnection connection = this.dbClient.getConnection();
 
         try {
-            String id = IdGenerator.generateId(edgeId);
+            EdgeVersion edgeVersion = this.insert(connection, tags, structureVersionId, reference, parameters, edgeId, fromId, toId, parentId, new HashMap<>());
 
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            connection.commit();
+            LOGGER.info("Created edge version " + edgeVersion.getId() + " in edge " + edgeId + ".");
 
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            return edgeVersion;
+        } catch (GroundException e) {
+            connection.abort();
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("edge_id", Type.STRING, edgeId));
-            insertions.add(new DbDataContainer("endpoint_one", Type.STRING, fromId));
-            insertions.add(new DbDataContainer("endpoint_two", Type.STRING, toId));
+            throw e;
+        }
+    }
+
+    public List<String> createBatch(List<EdgeVersion> edgeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        CassandraConnection connection = this.dbClient.getConnection();
 
-            connection.insert("EdgeVersions", insertions);
+        try {
+            List<String> ids = new ArrayList<>();
 
-            this.edgeFactory.update(connection, edgeId, id, parentId);
+            for (EdgeVersion edgeVersion : edgeVersions) {
+                ids.add(this.insert(connection, edgeVersion.getTags(), edgeVersion.getStructureVersionId(), edgeVersion.getReference(), edgeVersion.getParameters(), edgeVersion.getEdgeId(), edgeVersion.getFromId(), edgeVersion.getToId(), Optional.empty(), structureVersions).getId());
+            }
 
             connection.commit();
-            LOGGER.info("Created edge version " + id + " in edge " + edgeId + ".");
+            LOGGER.info("Created " + ids.size() + " edge versions.");
 
-            return EdgeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, edgeId, fromId, toId);
+            return ids;
         } catch (GroundException e) {
             connection.abort();
+
             throw e;
         }
     }
 
+    private EdgeVersion insert(CassandraConnection connection,
+                               Optional<Map<String, Tag>> tags,
+                               Optional<String> structureVersionId,
+                               Optional<String> reference,
+                               Optional<Map<String, String>> parameters,
+                               String edgeId,
+                               String fromId,
+                               String toId,
+                               Optional<String> parentId,
+                               Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(edgeId);
+
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
+
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
+
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("edge_id", Type.STRING, edgeId));
+        insertions.add(new DbDataContainer("endpoint_one", Type.STRING, fromId));
+        insertions.add(new DbDataContainer("endpoint_two", Type.STRING, toId));
+
+        connection.insert("EdgeVersions", insertions);
+
+        this.edgeFactory.update(connection, edgeId, id, parentId);
+
+        return EdgeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, edgeId, fromId, toId);
+    }
+
     public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
         CassandraConnection connection = this.dbClient.getConnection();
 
@@ -98,4 +139,35 @@ public class CassandraEdgeVersionFactory extends EdgeVersionFactory {
             throw e;
         }
     }
+
+    public List<EdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        CassandraConnection connection = this.dbClient.getConnection();
+
+        try {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Map<String, String>> rows = new HashMap<>();
+            connection.selectIn("EdgeVersions", "id", distinctIds, row -> rows.put(row.get("id"), row));
+
+            List<EdgeVersion> edgeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Map<String, String> row = rows.get(id);
+
+                if (version != null && row != null) {
+                    edgeVersions.add(EdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), row.get("edge_id"), row.get("endpoint_one"), row.get("endpoint_two")));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + edgeVersions.size() + " of " + ids.size() + " edge versions.");
+
+            return edgeVersions;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package edu.berkeley.ground.api.models.cassandra;
 
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.RichVersionFactory;
+import edu.berkeley.ground.api.models.StructureSchemaCache;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
@@ -19,24 +20,26 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
     private CassandraVersionFactory versionFactory;
     private CassandraStructureVersionFactory structureVersionFactory;
     private CassandraTagFactory tagFactory;
+    private StructureSchemaCache structureSchemas;
 
     public CassandraRichVersionFactory(CassandraVersionFactory versionFactory,
                                        CassandraStructureVersionFactory structureVersionFactory,
-                                       CassandraTagFactory tagFactory) {
+                                       CassandraTagFactory tagFactory,
+                                       StructureSchemaCache structureSchemas) {
 
         this.versionFactory = versionFactory;
         this.structureVersionFactory = structureVersionFactory;
         this.tagFactory = tagFactory;
+        this.structureSchemas = structureSchemas;
     }
 
-    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) throws GroundException {
+    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters, Map<String, StructureVersion> structureVersions) throws GroundException {
         CassandraConnection connection = (CassandraConnection) connectionPointer;
         this.versionFactory.insertIntoDatabase(connection, id);
 
-        if(structureVersionId.isPresent()) {
-            StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId.get());
-
-            RichVersionFactory.checkStructureTags(structureVersion, tags);
+        if (structureVersionId.isPresent()) {
+            RichVersionFactory.checkStructureTags(this.structureSchemas, structureVersionId.get(), tags, structureVersions,
+                    () -> this.structureVersionFactory.retrieveFromDatabase(structureVersionId.get()));
         }
 
         List<DbDataContainer> insertions = new ArrayList<>();
@@ -47,6 +50,8 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
         connection.insert("RichVersions", insertions);
 
         if (tags.isPresent()) {
+            List<List<DbDataContainer>> tagInsertions = new ArrayList<>();
+
             for (String key : tags.get().keySet()) {
                 Tag tag = tags.get().get(key);
 
@@ -56,8 +61,25 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
                 tagInsertion.add(new DbDataContainer("value", Type.STRING, tag.getValue().map(Object::toString).orElse(null)));
                 tagInsertion.add(new DbDataContainer("type", Type.STRING, tag.getValueType().map(Type::toString).orElse(null)));
 
-                connection.insert("Tags", tagInsertion);
+                tagInsertions.add(tagInsertion);
             }
+
+            connection.insertBatch("Tags", tagInsertions);
+        }
+
+        if (parameters.isPresent()) {
+            List<List<DbDataContainer>> parameterInsertions = new ArrayList<>();
+
+            for (String key : parameters.get().keySet()) {
+                List<DbDataContainer> parameterInsertion = new ArrayList<>();
+                parameterInsertion.add(new DbDataContainer("richversion_id", Type.STRING, id));
+                parameterInsertion.add(new DbDataContainer("key", Type.STRING, key));
+                parameterInsertion.add(new DbDataContainer("value", Type.STRING, parameters.get().get(key)));
+
+                parameterInsertions.add(parameterInsertion);
+            }
+
+            connection.insertBatch("RichVersionExternalParameters", parameterInsertions);
         }
     }
 
@@ -71,21 +93,17 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
         List<DbDataContainer> parameterPredicates = new ArrayList<>();
         parameterPredicates.add(new DbDataContainer("richversion_id", Type.STRING, id));
         Map<String, String> parametersMap = new HashMap<>();
-        Optional<Map<String, String>> parameters;
-        try {
-            QueryResults parameterSet = connection.equalitySelect("RichVersionExternalParameters", DBClient.SELECT_STAR, parameterPredicates);
+        Optional<Map<String, String>> parameters = Optional.empty();
+
+        Optional<QueryResults> parameterSet = connection.equalitySelectIfPresent("RichVersionExternalParameters", DBClient.SELECT_STAR, parameterPredicates);
+        if (parameterSet.isPresent()) {
+            QueryResults parameterResults = parameterSet.get();
 
             do {
-                parametersMap.put(parameterSet.getString(0), parameterSet.getString(1));
-            } while (parameterSet.next());
+                parametersMap.put(parameterResults.getString(0), parameterResults.getString(1));
+            } while (parameterResults.next());
 
             parameters = Optional.of(parametersMap);
-        } catch (GroundException e) {
-            if (e.getMessage().contains("No results found for query")) {
-                parameters = Optional.empty();
-            } else {
-                throw e;
-            }
         }
 
         Optional<Map<String, Tag>> tags = tagFactory.retrieveFromDatabaseById(connection, id);
@@ -95,4 +113,8 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
 
         return RichVersionFactory.construct(id, tags, structureVersionId, reference, parameters);
     }
+
+    public Map<String, RichVersion> retrieveFromDatabase(GroundDBConnection connectionPointer, Collection<String> ids) throws GroundException {
+        return RichVersionFactory.retrieveFromTables((CassandraConnection) connectionPointer, ids);
+    }
 }
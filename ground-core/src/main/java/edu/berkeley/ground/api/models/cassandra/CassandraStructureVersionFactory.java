@@ -44,15 +44,18 @@ public class CassandraStructureVersionFactory extends StructureVersionFactory {
 
         connection.insert("StructureVersions", insertions);
 
+        List<List<DbDataContainer>> itemInsertions = new ArrayList<>();
         for (String key : attributes.keySet()) {
-            List<DbDataContainer> itemInsertions = new ArrayList<>();
-            itemInsertions.add(new DbDataContainer("svid", Type.STRING, id));
-            itemInsertions.add(new DbDataContainer("key", Type.STRING, key));
-            itemInsertions.add(new DbDataContainer("type", Type.STRING, attributes.get(key).toString()));
+            List<DbDataContainer> itemInsertion = new ArrayList<>();
+            itemInsertion.add(new DbDataContainer("svid", Type.STRING, id));
+            itemInsertion.add(new DbDataContainer("key", Type.STRING, key));
+            itemInsertion.add(new DbDataContainer("type", Type.STRING, attributes.get(key).toString()));
 
-            connection.insert("StructureVersionItems", itemInsertions);
+            itemInsertions.add(itemInsertion);
         }
 
+        connection.insertBatch("StructureVersionItems", itemInsertions);
+
         this.structureFactory.update(connection, structureId, id, parentId);
 
         connection.commit();
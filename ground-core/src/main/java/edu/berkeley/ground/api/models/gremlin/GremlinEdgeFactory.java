@@ -7,7 +7,6 @@ import edu.berkeley.ground.api.versions.gremlin.GremlinItemFactory;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
-import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
@@ -28,9 +27,7 @@ public class GremlinEdgeFactory extends EdgeFactory {
     }
 
     public Edge create(String name) throws GroundException {
-        GremlinConnection connection = dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             String uniqueId = "Edges." + name;
 
             this.itemFactory.insertIntoDatabase(connection, uniqueId);
@@ -44,17 +41,11 @@ public class GremlinEdgeFactory extends EdgeFactory {
             connection.commit();
             LOGGER.info("Created edge " + name + ".");
             return EdgeFactory.construct(uniqueId, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public Edge retrieveFromDatabase(String name) throws GroundException {
-        GremlinConnection connection = dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             List<DbDataContainer> predicates = new ArrayList<>();
             predicates.add(new DbDataContainer("name", Type.STRING, name));
 
@@ -65,11 +56,7 @@ public class GremlinEdgeFactory extends EdgeFactory {
             LOGGER.info("Retrieved edge " + name + ".");
 
             return EdgeFactory.construct(id, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public void update(GroundDBConnection connection, String itemId, String childId, Optional<String> parent) throws GroundException {
@@ -3,6 +3,7 @@ package edu.berkeley.ground.api.models.gremlin;
 import edu.berkeley.ground.api.models.EdgeVersion;
 import edu.berkeley.ground.api.models.EdgeVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.DbDataContainer;
@@ -15,9 +16,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GremlinEdgeVersionFactory extends EdgeVersionFactory {
@@ -42,53 +46,76 @@ public class GremlinEdgeVersionFactory extends EdgeVersionFactory {
                               String toId,
                               Optional<String> parentId) throws GroundException {
 
-        GremlinConnection connection = this.dbClient.getConnection();
+        return this.dbClient.runInTransaction(connection -> {
+            EdgeVersion edgeVersion = this.insert(connection, tags, structureVersionId, reference, parameters, edgeId, fromId, toId, parentId, new HashMap<>());
 
-        try {
-            String id = IdGenerator.generateId(edgeId);
+            connection.commit();
+            LOGGER.info("Created edge version " + edgeVersion.getId() + " in edge " + edgeId + ".");
 
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            return edgeVersion;
+        });
+    }
 
+    public List<String> createBatch(List<EdgeVersion> edgeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            List<String> ids = new ArrayList<>();
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("edge_id", Type.STRING, edgeId));
-            insertions.add(new DbDataContainer("endpoint_one", Type.STRING, fromId));
-            insertions.add(new DbDataContainer("endpoint_two", Type.STRING, toId));
+            for (EdgeVersion edgeVersion : edgeVersions) {
+                ids.add(this.insert(connection, edgeVersion.getTags(), edgeVersion.getStructureVersionId(), edgeVersion.getReference(), edgeVersion.getParameters(), edgeVersion.getEdgeId(), edgeVersion.getFromId(), edgeVersion.getToId(), Optional.empty(), structureVersions).getId());
+            }
 
-            Vertex vertex = connection.addVertex("EdgeVersion", insertions);
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            connection.commit();
+            LOGGER.info("Created " + ids.size() + " edge versions.");
 
-            List<DbDataContainer> predicates = new ArrayList<>();
-            predicates.add(new DbDataContainer("id", Type.STRING, fromId));
-            Vertex fromVertex = connection.getVertex(predicates);
+            return ids;
+        });
+    }
 
-            predicates.clear();
-            predicates.add(new DbDataContainer("id", Type.STRING, toId));
-            Vertex toVertex = connection.getVertex(predicates);
+    private EdgeVersion insert(GremlinConnection connection,
+                               Optional<Map<String, Tag>> tags,
+                               Optional<String> structureVersionId,
+                               Optional<String> reference,
+                               Optional<Map<String, String>> parameters,
+                               String edgeId,
+                               String fromId,
+                               String toId,
+                               Optional<String> parentId,
+                               Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(edgeId);
 
-            predicates.clear();
-            connection.addEdge("EdgeVersionConnection", fromVertex, vertex, predicates);
-            connection.addEdge("EdgeVersionConnection", vertex, toVertex, predicates);
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
 
-            this.edgeFactory.update(connection, edgeId, id, parentId);
 
-            connection.commit();
-            LOGGER.info("Created edge version " + id + " in edge " + edgeId + ".");
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("edge_id", Type.STRING, edgeId));
+        insertions.add(new DbDataContainer("endpoint_one", Type.STRING, fromId));
+        insertions.add(new DbDataContainer("endpoint_two", Type.STRING, toId));
+
+        Vertex vertex = connection.addVertex("EdgeVersion", insertions);
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
+
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, fromId));
+        Vertex fromVertex = connection.getVertex(predicates);
+
+        predicates.clear();
+        predicates.add(new DbDataContainer("id", Type.STRING, toId));
+        Vertex toVertex = connection.getVertex(predicates);
+
+        predicates.clear();
+        connection.addEdge("EdgeVersionConnection", fromVertex, vertex, predicates);
+        connection.addEdge("EdgeVersionConnection", vertex, toVertex, predicates);
 
-            return EdgeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, edgeId, fromId, toId);
-        } catch (GroundException e) {
-            connection.abort();
-            throw e;
-        }
+        this.edgeFactory.update(connection, edgeId, id, parentId);
+
+        return EdgeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, edgeId, fromId, toId);
     }
 
     public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
 
             List<DbDataContainer> predicates = new ArrayList<>();
@@ -103,10 +130,33 @@ public class GremlinEdgeVersionFactory extends EdgeVersionFactory {
             LOGGER.info("Retrieved edge version " + id + " in edge " + edgeId + ".");
 
             return EdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), edgeId, fromId, toId);
-        } catch (GroundException e) {
-            connection.abort();
+        });
+    }
+
+    public List<EdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Vertex> vertices = new HashMap<>();
+            for (Vertex versionVertex : connection.getVertices("EdgeVersion", "id", distinctIds)) {
+                vertices.put(versionVertex.property("id").value().toString(), versionVertex);
+            }
+
+            List<EdgeVersion> edgeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Vertex versionVertex = vertices.get(id);
+
+                if (version != null && versionVertex != null) {
+                    edgeVersions.add(EdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), versionVertex.property("edge_id").value().toString(), versionVertex.property("endpoint_one").value().toString(), versionVertex.property("endpoint_two").value().toString()));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + edgeVersions.size() + " of " + ids.size() + " edge versions.");
 
-            throw e;
-        }
+            return edgeVersions;
+        });
     }
 }
@@ -3,6 +3,7 @@ package edu.berkeley.ground.api.models.gremlin;
 import edu.berkeley.ground.api.models.GraphVersion;
 import edu.berkeley.ground.api.models.GraphVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.DbDataContainer;
@@ -15,9 +16,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GremlinGraphVersionFactory extends GraphVersionFactory {
@@ -41,48 +45,65 @@ public class GremlinGraphVersionFactory extends GraphVersionFactory {
                                List<String> edgeVersionIds,
                                Optional<String> parentId) throws GroundException {
 
-        GremlinConnection connection = this.dbClient.getConnection();
+        return this.dbClient.runInTransaction(connection -> {
+            GraphVersion graphVersion = this.insert(connection, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds, parentId, new HashMap<>());
 
-        try {
-            String id = IdGenerator.generateId(graphId);
+            connection.commit();
+            LOGGER.info("Created graph version " + graphVersion.getId() + " in graph " + graphId + ".");
 
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            return graphVersion;
+        });
+    }
 
+    public List<String> createBatch(List<GraphVersion> graphVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            List<String> ids = new ArrayList<>();
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("graph_id", Type.STRING, graphId));
+            for (GraphVersion graphVersion : graphVersions) {
+                ids.add(this.insert(connection, graphVersion.getTags(), graphVersion.getStructureVersionId(), graphVersion.getReference(), graphVersion.getParameters(), graphVersion.getGraphId(), graphVersion.getEdgeVersionIds(), Optional.empty(), structureVersions).getId());
+            }
 
-            Vertex versionVertex = connection.addVertex("GraphVersion", insertions);
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            connection.commit();
+            LOGGER.info("Created " + ids.size() + " graph versions.");
 
-            for (String edgeVersionId : edgeVersionIds) {
-                List<DbDataContainer> edgeQuery = new ArrayList<>();
-                edgeQuery.add(new DbDataContainer("id", Type.STRING, edgeVersionId));
-                Vertex edgeVertex = connection.getVertex(edgeQuery);
+            return ids;
+        });
+    }
 
-                connection.addEdge("GraphVersionEdge", versionVertex, edgeVertex, new ArrayList<>());
-            }
+    private GraphVersion insert(GremlinConnection connection,
+                                Optional<Map<String, Tag>> tags,
+                                Optional<String> structureVersionId,
+                                Optional<String> reference,
+                                Optional<Map<String, String>> parameters,
+                                String graphId,
+                                List<String> edgeVersionIds,
+                                Optional<String> parentId,
+                                Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(graphId);
 
-            this.graphFactory.update(connection, graphId, id, parentId);
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
 
-            connection.commit();
-            LOGGER.info("Created graph version " + id + " in graph " + graphId + ".");
 
-            return GraphVersionFactory.construct(id, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds);
-        } catch (GroundException e) {
-            connection.abort();
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("graph_id", Type.STRING, graphId));
+
+        Vertex versionVertex = connection.addVertex("GraphVersion", insertions);
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
 
-            throw e;
+        for (Vertex edgeVertex : connection.getVertices("id", edgeVersionIds)) {
+            connection.addEdge("GraphVersionEdge", versionVertex, edgeVertex, new ArrayList<>());
         }
+
+        this.graphFactory.update(connection, graphId, id, parentId);
+
+        return GraphVersionFactory.construct(id, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds);
     }
 
     public GraphVersion retrieveFromDatabase(String id) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
 
             List<DbDataContainer> predicates = new ArrayList<>();
@@ -100,10 +121,36 @@ public class GremlinGraphVersionFactory extends GraphVersionFactory {
             LOGGER.info("Retrieved graph version " + id + " in graph " + graphId + ".");
 
             return GraphVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), graphId, edgeVersionIds);
-        } catch (GroundException e) {
-            connection.abort();
+        });
+    }
 
-            throw e;
-        }
+    public List<GraphVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Vertex> vertices = new HashMap<>();
+            for (Vertex versionVertex : connection.getVertices("GraphVersion", "id", distinctIds)) {
+                vertices.put(versionVertex.property("id").value().toString(), versionVertex);
+            }
+
+            List<GraphVersion> graphVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Vertex versionVertex = vertices.get(id);
+
+                if (version != null && versionVertex != null) {
+                    List<String> edgeVersionIds = new ArrayList<>();
+                    connection.getAdjacentVerticesByEdgeLabel(versionVertex, "GraphVersionEdge").forEach(edgeVersionVertex -> edgeVersionIds.add(edgeVersionVertex.property("id").value().toString()));
+
+                    graphVersions.add(GraphVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), versionVertex.property("graph_id").value().toString(), edgeVersionIds));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + graphVersions.size() + " of " + ids.size() + " graph versions.");
+
+            return graphVersions;
+        });
     }
 }
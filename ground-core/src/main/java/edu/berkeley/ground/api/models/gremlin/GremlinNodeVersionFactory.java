@@ -3,21 +3,28 @@ package edu.berkeley.ground.api.models.gremlin;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.NodeVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.api.versions.VersionSuccessor;
+import edu.berkeley.ground.api.versions.gremlin.GremlinVersionHistoryDAGFactory;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
 import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
 import edu.berkeley.ground.util.IdGenerator;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GremlinNodeVersionFactory extends NodeVersionFactory {
@@ -26,11 +33,13 @@ public class GremlinNodeVersionFactory extends NodeVersionFactory {
 
     private GremlinNodeFactory nodeFactory;
     private GremlinRichVersionFactory richVersionFactory;
+    private GremlinVersionHistoryDAGFactory versionHistoryDAGFactory;
 
-    public GremlinNodeVersionFactory(GremlinNodeFactory nodeFactory, GremlinRichVersionFactory richVersionFactory, GremlinClient dbClient) {
+    public GremlinNodeVersionFactory(GremlinNodeFactory nodeFactory, GremlinRichVersionFactory richVersionFactory, GremlinVersionHistoryDAGFactory versionHistoryDAGFactory, GremlinClient dbClient) {
         this.dbClient = dbClient;
         this.nodeFactory = nodeFactory;
         this.richVersionFactory = richVersionFactory;
+        this.versionHistoryDAGFactory = versionHistoryDAGFactory;
     }
 
 
@@ -41,40 +50,60 @@ public class GremlinNodeVersionFactory extends NodeVersionFactory {
                               String nodeId,
                               Optional<String> parentId) throws GroundException {
 
-        GremlinConnection connection = this.dbClient.getConnection();
+        return this.dbClient.runInTransaction(connection -> {
+            NodeVersion nodeVersion = this.insert(connection, tags, structureVersionId, reference, parameters, nodeId, parentId, new HashMap<>());
 
-        try {
-            String id = IdGenerator.generateId(nodeId);
-
-            // add the id of the version to the tag
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            connection.commit();
+            LOGGER.info("Created node version " + nodeVersion.getId() + " in node " + nodeId + ".");
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("node_id", Type.STRING, nodeId));
+            return nodeVersion;
+        });
+    }
 
-            connection.addVertex("NodeVersion", insertions);
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+    public List<String> createBatch(List<NodeVersion> nodeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            List<String> ids = new ArrayList<>();
 
-            this.nodeFactory.update(connection, nodeId, id, parentId);
+            for (NodeVersion nodeVersion : nodeVersions) {
+                ids.add(this.insert(connection, nodeVersion.getTags(), nodeVersion.getStructureVersionId(), nodeVersion.getReference(), nodeVersion.getParameters(), nodeVersion.getNodeId(), Optional.empty(), structureVersions).getId());
+            }
 
             connection.commit();
-            LOGGER.info("Created node version " + id + " in node " + nodeId + ".");
+            LOGGER.info("Created " + ids.size() + " node versions.");
 
-            return NodeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, nodeId);
-        } catch (GroundException e) {
-            connection.abort();
+            return ids;
+        });
+    }
 
-            throw e;
-        }
+    private NodeVersion insert(GremlinConnection connection,
+                               Optional<Map<String, Tag>> tags,
+                               Optional<String> structureVersionId,
+                               Optional<String> reference,
+                               Optional<Map<String, String>> parameters,
+                               String nodeId,
+                               Optional<String> parentId,
+                               Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(nodeId);
+
+        // add the id of the version to the tag
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
+
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("node_id", Type.STRING, nodeId));
+
+        connection.addVertex("NodeVersion", insertions);
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
+
+        this.nodeFactory.update(connection, nodeId, id, parentId);
+
+        return NodeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, nodeId);
     }
 
     public NodeVersion retrieveFromDatabase(String id) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
 
             List<DbDataContainer> predicates = new ArrayList<>();
@@ -87,18 +116,114 @@ public class GremlinNodeVersionFactory extends NodeVersionFactory {
             LOGGER.info("Retrieved node version " + id + " in node " + nodeId + ".");
 
             return NodeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), nodeId);
-        } catch (GroundException e) {
-            connection.abort();
+        });
+    }
+
+    public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            List<String> result = connection.transitiveClosure(nodeVersionId);
+
+            connection.commit();
+            return result;
+        });
+    }
+
+    public boolean reaches(String fromId, String toId) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            boolean result = connection.reaches(fromId, toId);
+
+            connection.commit();
+            return result;
+        });
+    }
+
+    public List<VersionSuccessor<NodeVersion>> getHistory(String nodeId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            List<VersionSuccessor<NodeVersion>> history = this.versionHistoryDAGFactory.getHistory(connection, nodeId, from, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + history.size() + " successors in the history of node " + nodeId + ".");
+
+            return history;
+        });
+    }
+
+    public List<String> getAncestors(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            String nodeId = this.getNodeId(connection, nodeVersionId);
+            List<String> ancestors = this.versionHistoryDAGFactory.getAncestors(connection, nodeId, nodeVersionId, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + ancestors.size() + " ancestors of node version " + nodeVersionId + ".");
+
+            return ancestors;
+        });
+    }
+
+    public List<String> getDescendants(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            String nodeId = this.getNodeId(connection, nodeVersionId);
+            List<String> descendants = this.versionHistoryDAGFactory.getDescendants(connection, nodeId, nodeVersionId, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + descendants.size() + " descendants of node version " + nodeVersionId + ".");
+
+            return descendants;
+        });
+    }
+
+    public Optional<String> getLowestCommonAncestor(String firstId, String secondId) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            String nodeId = this.getNodeId(connection, firstId);
+
+            Optional<String> ancestor = Optional.empty();
+            if (nodeId.equals(this.getNodeId(connection, secondId))) {
+                ancestor = this.versionHistoryDAGFactory.getLowestCommonAncestor(connection, nodeId, firstId, secondId);
+            }
 
-            throw e;
+            connection.commit();
+            LOGGER.info("Retrieved the lowest common ancestor of node versions " + firstId + " and " + secondId + ".");
+
+            return ancestor;
+        });
+    }
+
+    private String getNodeId(GremlinConnection connection, String nodeVersionId) throws GroundException {
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, nodeVersionId));
+
+        Vertex vertex = connection.getVertex(predicates);
+        if (vertex == null) {
+            throw new GroundNotFoundException("Node version " + nodeVersionId + " does not exist.");
         }
+
+        return vertex.property("node_id").value().toString();
     }
 
-    public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-        List<String> result = connection.transitiveClosure(nodeVersionId);
+    public List<NodeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Vertex> vertices = new HashMap<>();
+            for (Vertex versionVertex : connection.getVertices("NodeVersion", "id", distinctIds)) {
+                vertices.put(versionVertex.property("id").value().toString(), versionVertex);
+            }
+
+            List<NodeVersion> nodeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Vertex versionVertex = vertices.get(id);
+
+                if (version != null && versionVertex != null) {
+                    nodeVersions.add(NodeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), versionVertex.property("node_id").value().toString()));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + nodeVersions.size() + " of " + ids.size() + " node versions.");
 
-        connection.commit();
-        return result;
+            return nodeVersions;
+        });
     }
 }
@@ -2,6 +2,7 @@ package edu.berkeley.ground.api.models.gremlin;
 
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.RichVersionFactory;
+import edu.berkeley.ground.api.models.StructureSchemaCache;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
@@ -16,13 +17,15 @@ import java.util.*;
 public class GremlinRichVersionFactory extends RichVersionFactory {
     private GremlinStructureVersionFactory structureVersionFactory;
     private GremlinTagFactory tagFactory;
+    private StructureSchemaCache structureSchemas;
 
-    public GremlinRichVersionFactory(GremlinStructureVersionFactory structureVersionFactory, GremlinTagFactory tagFactory) {
+    public GremlinRichVersionFactory(GremlinStructureVersionFactory structureVersionFactory, GremlinTagFactory tagFactory, StructureSchemaCache structureSchemas) {
         this.structureVersionFactory = structureVersionFactory;
         this.tagFactory = tagFactory;
+        this.structureSchemas = structureSchemas;
     }
 
-    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) throws GroundException {
+    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters, Map<String, StructureVersion> structureVersions) throws GroundException {
         GremlinConnection connection = (GremlinConnection) connectionPointer;
 
         List<DbDataContainer> predicates = new ArrayList<>();
@@ -30,8 +33,8 @@ public class GremlinRichVersionFactory extends RichVersionFactory {
         Vertex versionVertex = connection.getVertex(predicates);
 
         if (structureVersionId.isPresent()) {
-            StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId.get());
-            RichVersionFactory.checkStructureTags(structureVersion, tags);
+            RichVersionFactory.checkStructureTags(this.structureSchemas, structureVersionId.get(), tags, structureVersions,
+                    () -> this.structureVersionFactory.retrieveFromDatabase(structureVersionId.get()));
         }
 
         if (parameters.isPresent()) {
@@ -83,6 +86,25 @@ public class GremlinRichVersionFactory extends RichVersionFactory {
         predicates.add(new DbDataContainer("id", Type.STRING, id));
         Vertex versionVertex = connection.getVertex(predicates);
 
+        return this.retrieveFromVertex(connection, versionVertex);
+    }
+
+    public Map<String, RichVersion> retrieveFromDatabase(GroundDBConnection connectionPointer, Collection<String> ids) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+
+        // every version vertex in one traversal; the parameters and tags are then read off each vertex's edges
+        Map<String, RichVersion> versions = new HashMap<>();
+        for (Vertex versionVertex : connection.getVertices("id", ids)) {
+            RichVersion version = this.retrieveFromVertex(connection, versionVertex);
+            versions.put(version.getId(), version);
+        }
+
+        return versions;
+    }
+
+    private RichVersion retrieveFromVertex(GremlinConnection connection, Vertex versionVertex) throws GroundException {
+        String id = versionVertex.property("id").value().toString();
+
         List<Vertex> parameterVertices = connection.getAdjacentVerticesByEdgeLabel(versionVertex, "RichVersionExternalParameterConnection");
         Optional<Map<String, String>> parameters;
 
@@ -98,7 +120,7 @@ public class GremlinRichVersionFactory extends RichVersionFactory {
             parameters = Optional.empty();
         }
 
-        Optional<Map<String, Tag>> tags = tagFactory.retrieveFromDatabaseById(connectionPointer, id);
+        Optional<Map<String, Tag>> tags = this.tagFactory.retrieveFromVertex(connection, versionVertex);
 
         Optional<String> reference = Optional.ofNullable(versionVertex.property("reference").toString());
         Optional<String> structureVersionId = Optional.ofNullable(versionVertex.property("structureversion_id").value().toString());
@@ -7,7 +7,6 @@ import edu.berkeley.ground.api.versions.gremlin.GremlinItemFactory;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
-import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
@@ -28,9 +27,7 @@ public class GremlinStructureFactory extends StructureFactory {
     }
 
     public Structure create(String name) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             String uniqueId = "Structures." + name;
 
             List<DbDataContainer> insertions = new ArrayList<>();
@@ -43,17 +40,11 @@ public class GremlinStructureFactory extends StructureFactory {
             LOGGER.info("Created structure " + name + ".");
 
             return StructureFactory.construct(uniqueId, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public Structure retrieveFromDatabase(String name) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             List<DbDataContainer> predicates = new ArrayList<>();
             predicates.add(new DbDataContainer("name", Type.STRING, name));
             predicates.add(new DbDataContainer("label", Type.STRING, "Nodes"));
@@ -66,11 +57,7 @@ public class GremlinStructureFactory extends StructureFactory {
             LOGGER.info("Retrieved structure " + name + ".");
 
             return StructureFactory.construct(id, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public void update(GroundDBConnection connection, String itemId, String childId, Optional<String> parent) throws GroundException {
@@ -20,6 +20,15 @@ public class GremlinTagFactory extends TagFactory {
 
         Vertex versionVertex = connection.getVertex(predicates);
 
+        return this.retrieveFromVertex(connection, versionVertex);
+    }
+
+    /**
+     * Reads the tags of a version whose vertex has already been retrieved.
+     */
+    public Optional<Map<String, Tag>> retrieveFromVertex(GremlinClient.GremlinConnection connection, Vertex versionVertex) throws GroundException {
+        String id = versionVertex.property("id").value().toString();
+
         List<Vertex> tagVertices = connection.getAdjacentVerticesByEdgeLabel(versionVertex, "TagConnection");
 
         if(!tagVertices.isEmpty()) {
@@ -0,0 +1,58 @@
+package edu.berkeley.ground.api.models.indexed;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.EdgeVersionFactory;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.ReachabilityIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Adds the edge versions created through the wrapped factory to a ReachabilityIndex once they are committed, passing
+ * everything else through.
+ */
+public class IndexedEdgeVersionFactory extends EdgeVersionFactory {
+    private EdgeVersionFactory edgeVersionFactory;
+    private ReachabilityIndex reachabilityIndex;
+
+    public IndexedEdgeVersionFactory(EdgeVersionFactory edgeVersionFactory, ReachabilityIndex reachabilityIndex) {
+        this.edgeVersionFactory = edgeVersionFactory;
+        this.reachabilityIndex = reachabilityIndex;
+    }
+
+    public EdgeVersion create(Optional<Map<String, Tag>> tags,
+                              Optional<String> structureVersionId,
+                              Optional<String> reference,
+                              Optional<Map<String, String>> parameters,
+                              String edgeId,
+                              String fromId,
+                              String toId,
+                              Optional<String> parentId) throws GroundException {
+
+        EdgeVersion edgeVersion = this.edgeVersionFactory.create(tags, structureVersionId, reference, parameters, edgeId, fromId, toId, parentId);
+        this.reachabilityIndex.addEdge(fromId, toId);
+
+        return edgeVersion;
+    }
+
+    public List<String> createBatch(List<EdgeVersion> edgeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        List<String> ids = this.edgeVersionFactory.createBatch(edgeVersions, structureVersions);
+        for (EdgeVersion edgeVersion : edgeVersions) {
+            this.reachabilityIndex.addEdge(edgeVersion.getFromId(), edgeVersion.getToId());
+        }
+
+        return ids;
+    }
+
+    public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.edgeVersionFactory.retrieveFromDatabase(id);
+    }
+
+    public List<EdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.edgeVersionFactory.retrieveFromDatabase(ids);
+    }
+}
@@ -0,0 +1,87 @@
+package edu.berkeley.ground.api.models.indexed;
+
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.versions.VersionSuccessor;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.ReachabilityIndex;
+import io.dropwizard.util.Duration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Answers reachability queries between node versions from a ReachabilityIndex, passing everything else through to
+ * the wrapped factory. Edges are never removed, so a path in the index is a path in the backend. The index has every
+ * edge version written through this server, but misses those written through other servers until its next rebuild, so
+ * its negative answers are only trusted while its last rebuild is at most maxStaleness old; otherwise, e.g., before
+ * the first rebuild or while rebuilds fail, the backend is asked.
+ */
+public class IndexedNodeVersionFactory extends NodeVersionFactory {
+    private NodeVersionFactory nodeVersionFactory;
+    private ReachabilityIndex reachabilityIndex;
+    private Duration maxStaleness;
+
+    public IndexedNodeVersionFactory(NodeVersionFactory nodeVersionFactory, ReachabilityIndex reachabilityIndex, Duration maxStaleness) {
+        this.nodeVersionFactory = nodeVersionFactory;
+        this.reachabilityIndex = reachabilityIndex;
+        this.maxStaleness = maxStaleness;
+    }
+
+    public NodeVersion create(Optional<Map<String, Tag>> tags,
+                              Optional<String> structureVersionId,
+                              Optional<String> reference,
+                              Optional<Map<String, String>> parameters,
+                              String nodeId,
+                              Optional<String> parentId) throws GroundException {
+
+        return this.nodeVersionFactory.create(tags, structureVersionId, reference, parameters, nodeId, parentId);
+    }
+
+    public List<String> createBatch(List<NodeVersion> nodeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        return this.nodeVersionFactory.createBatch(nodeVersions, structureVersions);
+    }
+
+    public NodeVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.nodeVersionFactory.retrieveFromDatabase(id);
+    }
+
+    public List<NodeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.nodeVersionFactory.retrieveFromDatabase(ids);
+    }
+
+    public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
+        return this.nodeVersionFactory.getTransitiveClosure(nodeVersionId);
+    }
+
+    public boolean reaches(String fromId, String toId) throws GroundException {
+        if (this.reachabilityIndex.reaches(fromId, toId)) {
+            return true;
+        }
+
+        if (this.reachabilityIndex.isFresh(this.maxStaleness.toMilliseconds())) {
+            return false;
+        }
+
+        return this.nodeVersionFactory.reaches(fromId, toId);
+    }
+
+    public List<VersionSuccessor<NodeVersion>> getHistory(String nodeId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getHistory(nodeId, from, depth, offset, limit);
+    }
+
+    public List<String> getAncestors(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getAncestors(nodeVersionId, depth, offset, limit);
+    }
+
+    public List<String> getDescendants(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        return this.nodeVersionFactory.getDescendants(nodeVersionId, depth, offset, limit);
+    }
+
+    public Optional<String> getLowestCommonAncestor(String firstId, String secondId) throws GroundException {
+        return this.nodeVersionFactory.getLowestCommonAncestor(firstId, secondId);
+    }
+}
@@ -3,6 +3,7 @@ package edu.berkeley.ground.api.models.postgres;
 import edu.berkeley.ground.api.models.GraphVersion;
 import edu.berkeley.ground.api.models.GraphVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.DBClient;
@@ -16,9 +17,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PostgresGraphVersionFactory extends GraphVersionFactory {
@@ -45,34 +49,33 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
         PostgresConnection connection = this.dbClient.getConnection();
 
         try {
-            String id = IdGenerator.generateId(graphId);
+            GraphVersion graphVersion = this.insert(connection, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds, parentId, new HashMap<>());
 
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            connection.commit();
+            LOGGER.info("Created graph version " + graphVersion.getId() + " in graph " + graphId + ".");
 
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            return graphVersion;
+        } catch (GroundException e) {
+            connection.abort();
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("graph_id", Type.STRING, graphId));
+            throw e;
+        }
+    }
 
-            connection.insert("GraphVersions", insertions);
+    public List<String> createBatch(List<GraphVersion> graphVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
 
-            for (String edgeVersionId : edgeVersionIds) {
-                List<DbDataContainer> edgeInsertion = new ArrayList<>();
-                edgeInsertion.add(new DbDataContainer("gvid", Type.STRING, id));
-                edgeInsertion.add(new DbDataContainer("evid", Type.STRING, edgeVersionId));
+        try {
+            List<String> ids = new ArrayList<>();
 
-                connection.insert("GraphVersionEdges", edgeInsertion);
+            for (GraphVersion graphVersion : graphVersions) {
+                ids.add(this.insert(connection, graphVersion.getTags(), graphVersion.getStructureVersionId(), graphVersion.getReference(), graphVersion.getParameters(), graphVersion.getGraphId(), graphVersion.getEdgeVersionIds(), Optional.empty(), structureVersions).getId());
             }
 
-            this.graphFactory.update(connection, graphId, id, parentId);
-
             connection.commit();
-            LOGGER.info("Created graph version " + id + " in graph " + graphId + ".");
+            LOGGER.info("Created " + ids.size() + " graph versions.");
 
-            return GraphVersionFactory.construct(id, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds);
+            return ids;
         } catch (GroundException e) {
             connection.abort();
 
@@ -80,6 +83,45 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
         }
     }
 
+    private GraphVersion insert(PostgresConnection connection,
+                                Optional<Map<String, Tag>> tags,
+                                Optional<String> structureVersionId,
+                                Optional<String> reference,
+                                Optional<Map<String, String>> parameters,
+                                String graphId,
+                                List<String> edgeVersionIds,
+                                Optional<String> parentId,
+                                Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(graphId);
+
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
+
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
+
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("graph_id", Type.STRING, graphId));
+
+        connection.insert("GraphVersions", insertions);
+
+        List<List<DbDataContainer>> edgeInsertions = new ArrayList<>();
+        for (String edgeVersionId : edgeVersionIds) {
+            List<DbDataContainer> edgeInsertion = new ArrayList<>();
+            edgeInsertion.add(new DbDataContainer("gvid", Type.STRING, id));
+            edgeInsertion.add(new DbDataContainer("evid", Type.STRING, edgeVersionId));
+
+            edgeInsertions.add(edgeInsertion);
+        }
+
+        connection.insertBatch("GraphVersionEdges", edgeInsertions);
+
+        this.graphFactory.update(connection, graphId, id, parentId);
+
+        return GraphVersionFactory.construct(id, tags, structureVersionId, reference, parameters, graphId, edgeVersionIds);
+    }
+
     public GraphVersion retrieveFromDatabase(String id) throws GroundException {
         PostgresConnection connection = this.dbClient.getConnection();
 
@@ -108,4 +150,40 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
             throw e;
         }
     }
+
+    public List<GraphVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, String> graphIds = new HashMap<>();
+            connection.selectIn("GraphVersions", "id", distinctIds, row -> graphIds.put(row.get("id"), row.get("graph_id")));
+
+            Map<String, List<String>> edgeVersionIds = new HashMap<>();
+            connection.selectIn("GraphVersionEdges", "gvid", distinctIds, row ->
+                    edgeVersionIds.computeIfAbsent(row.get("gvid"), gvid -> new ArrayList<>()).add(row.get("evid"))
+            );
+
+            List<GraphVersion> graphVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                String graphId = graphIds.get(id);
+
+                if (version != null && graphId != null) {
+                    graphVersions.add(GraphVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), graphId, edgeVersionIds.getOrDefault(id, new ArrayList<>())));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + graphVersions.size() + " of " + ids.size() + " graph versions.");
+
+            return graphVersions;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
 }
@@ -2,33 +2,44 @@ package edu.berkeley.ground.api.models.postgres;
 
 import edu.berkeley.ground.api.models.*;
 import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.api.versions.VersionSuccessor;
+import edu.berkeley.ground.api.versions.postgres.PostgresVersionHistoryDAGFactory;
 import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
 import edu.berkeley.ground.db.QueryResults;
 import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
 import edu.berkeley.ground.util.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PostgresNodeVersionFactory extends NodeVersionFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgresNodeVersionFactory.class);
+    private static final List<String> NODE_ID_PROJECTION = Collections.singletonList("node_id");
+
     private PostgresClient dbClient;
 
     private PostgresNodeFactory nodeFactory;
     private PostgresRichVersionFactory richVersionFactory;
+    private PostgresVersionHistoryDAGFactory versionHistoryDAGFactory;
 
-    public PostgresNodeVersionFactory(PostgresNodeFactory nodeFactory, PostgresRichVersionFactory richVersionFactory, PostgresClient dbClient) {
+    public PostgresNodeVersionFactory(PostgresNodeFactory nodeFactory, PostgresRichVersionFactory richVersionFactory, PostgresVersionHistoryDAGFactory versionHistoryDAGFactory, PostgresClient dbClient) {
         this.dbClient = dbClient;
         this.nodeFactory = nodeFactory;
         this.richVersionFactory = richVersionFactory;
+        this.versionHistoryDAGFactory = versionHistoryDAGFactory;
     }
 
 
@@ -42,27 +53,33 @@ public class PostgresNodeVersionFactory extends NodeVersionFactory {
         PostgresConnection connection = this.dbClient.getConnection();
 
         try {
-            String id = IdGenerator.generateId(nodeId);
+            NodeVersion nodeVersion = this.insert(connection, tags, structureVersionId, reference, parameters, nodeId, parentId, new HashMap<>());
 
-            // add the id of the version to the tag
-            tags = tags.map(tagsMap ->
-                                    tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
-            );
+            connection.commit();
+            LOGGER.info("Created node version " + nodeVersion.getId() + " in node " + nodeId + ".");
 
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            return nodeVersion;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
 
-            List<DbDataContainer> insertions = new ArrayList<>();
-            insertions.add(new DbDataContainer("id", Type.STRING, id));
-            insertions.add(new DbDataContainer("node_id", Type.STRING, nodeId));
+    public List<String> createBatch(List<NodeVersion> nodeVersions, Map<String, StructureVersion> structureVersions) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
 
-            connection.insert("NodeVersions", insertions);
+        try {
+            List<String> ids = new ArrayList<>();
 
-            this.nodeFactory.update(connection, nodeId, id, parentId);
+            for (NodeVersion nodeVersion : nodeVersions) {
+                ids.add(this.insert(connection, nodeVersion.getTags(), nodeVersion.getStructureVersionId(), nodeVersion.getReference(), nodeVersion.getParameters(), nodeVersion.getNodeId(), Optional.empty(), structureVersions).getId());
+            }
 
             connection.commit();
-            LOGGER.info("Created node version " + id + " in node " + nodeId + ".");
+            LOGGER.info("Created " + ids.size() + " node versions.");
 
-            return NodeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, nodeId);
+            return ids;
         } catch (GroundException e) {
             connection.abort();
 
@@ -70,6 +87,34 @@ public class PostgresNodeVersionFactory extends NodeVersionFactory {
         }
     }
 
+    private NodeVersion insert(PostgresConnection connection,
+                               Optional<Map<String, Tag>> tags,
+                               Optional<String> structureVersionId,
+                               Optional<String> reference,
+                               Optional<Map<String, String>> parameters,
+                               String nodeId,
+                               Optional<String> parentId,
+                               Map<String, StructureVersion> structureVersions) throws GroundException {
+        String id = IdGenerator.generateId(nodeId);
+
+        // add the id of the version to the tag
+        tags = tags.map(tagsMap ->
+                                tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
+        );
+
+        this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters, structureVersions);
+
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", Type.STRING, id));
+        insertions.add(new DbDataContainer("node_id", Type.STRING, nodeId));
+
+        connection.insert("NodeVersions", insertions);
+
+        this.nodeFactory.update(connection, nodeId, id, parentId);
+
+        return NodeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, nodeId);
+    }
+
     public NodeVersion retrieveFromDatabase(String id) throws GroundException {
         PostgresConnection connection = this.dbClient.getConnection();
 
@@ -95,9 +140,149 @@ public class PostgresNodeVersionFactory extends NodeVersionFactory {
 
     public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
         PostgresConnection connection = this.dbClient.getConnection();
-        List<String> result = connection.transitiveClosure(nodeVersionId);
 
-        connection.commit();
-        return result;
+        try {
+            List<String> result = connection.transitiveClosure(nodeVersionId);
+
+            connection.commit();
+            return result;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    public boolean reaches(String fromId, String toId) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            boolean result = connection.reaches(fromId, toId);
+
+            connection.commit();
+            return result;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    public List<VersionSuccessor<NodeVersion>> getHistory(String nodeId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            List<VersionSuccessor<NodeVersion>> history = this.versionHistoryDAGFactory.getHistory(connection, nodeId, from, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + history.size() + " successors in the history of node " + nodeId + ".");
+
+            return history;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    public List<String> getAncestors(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            String nodeId = this.getNodeId(connection, nodeVersionId);
+            List<String> ancestors = this.versionHistoryDAGFactory.getAncestors(connection, nodeId, nodeVersionId, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + ancestors.size() + " ancestors of node version " + nodeVersionId + ".");
+
+            return ancestors;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    public List<String> getDescendants(String nodeVersionId, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            String nodeId = this.getNodeId(connection, nodeVersionId);
+            List<String> descendants = this.versionHistoryDAGFactory.getDescendants(connection, nodeId, nodeVersionId, depth, offset, limit);
+
+            connection.commit();
+            LOGGER.info("Retrieved " + descendants.size() + " descendants of node version " + nodeVersionId + ".");
+
+            return descendants;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    public Optional<String> getLowestCommonAncestor(String firstId, String secondId) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            String nodeId = this.getNodeId(connection, firstId);
+
+            Optional<String> ancestor = Optional.empty();
+            if (nodeId.equals(this.getNodeId(connection, secondId))) {
+                ancestor = this.versionHistoryDAGFactory.getLowestCommonAncestor(connection, nodeId, firstId, secondId);
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved the lowest common ancestor of node versions " + firstId + " and " + secondId + ".");
+
+            return ancestor;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    private String getNodeId(PostgresConnection connection, String nodeVersionId) throws GroundException {
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, nodeVersionId));
+
+        Optional<QueryResults> resultSet = connection.equalitySelectIfPresent("NodeVersions", NODE_ID_PROJECTION, predicates);
+        if (!resultSet.isPresent()) {
+            throw new GroundNotFoundException("Node version " + nodeVersionId + " does not exist.");
+        }
+
+        return resultSet.get().getString(1);
+    }
+
+    public List<NodeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        PostgresConnection connection = this.dbClient.getConnection();
+
+        try {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, String> nodeIds = new HashMap<>();
+            connection.selectIn("NodeVersions", "id", distinctIds, row -> nodeIds.put(row.get("id"), row.get("node_id")));
+
+            List<NodeVersion> nodeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                String nodeId = nodeIds.get(id);
+
+                if (version != null && nodeId != null) {
+                    nodeVersions.add(NodeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), nodeId));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + nodeVersions.size() + " of " + ids.size() + " node versions.");
+
+            return nodeVersions;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
     }
 }
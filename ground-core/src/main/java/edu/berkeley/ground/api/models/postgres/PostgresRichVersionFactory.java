@@ -2,11 +2,11 @@ package edu.berkeley.ground.api.models.postgres;
 
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.RichVersionFactory;
+import edu.berkeley.ground.api.models.StructureSchemaCache;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.api.versions.postgres.PostgresVersionFactory;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -16,27 +16,36 @@ import edu.berkeley.ground.exceptions.GroundException;
 import java.util.*;
 
 public class PostgresRichVersionFactory extends RichVersionFactory {
+    // the version, its parameters and its tags in one round-trip, one row each, told apart by the first column
+    private static final String RETRIEVE_RICH_VERSION = "select 'version', structure_id, reference, null " +
+            "from RichVersions where id = ? " +
+            "union all select 'parameter', key, value, null from RichVersionExternalParameters where richversion_id = ? " +
+            "union all select 'tag', key, value, cast(type as varchar) from Tags where richversion_id = ?;";
+
     private PostgresVersionFactory versionFactory;
     private PostgresStructureVersionFactory structureVersionFactory;
     private PostgresTagFactory tagFactory;
+    private StructureSchemaCache structureSchemas;
 
     public PostgresRichVersionFactory(PostgresVersionFactory versionFactory,
                                       PostgresStructureVersionFactory structureVersionFactory,
-                                      PostgresTagFactory tagFactory) {
+                                      PostgresTagFactory tagFactory,
+                                      StructureSchemaCache structureSchemas) {
 
         this.versionFactory = versionFactory;
         this.structureVersionFactory = structureVersionFactory;
         this.tagFactory = tagFactory;
+        this.structureSchemas = structureSchemas;
     }
 
-    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters) throws GroundException {
+    public void insertIntoDatabase(GroundDBConnection connectionPointer, String id, Optional<Map<String, Tag>>tags, Optional<String> structureVersionId, Optional<String> reference, Optional<Map<String, String>> parameters, Map<String, StructureVersion> structureVersions) throws GroundException {
         PostgresConnection connection = (PostgresConnection) connectionPointer;
 
         this.versionFactory.insertIntoDatabase(connection, id);
 
-        if(structureVersionId.isPresent()) {
-            StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId.get());
-            RichVersionFactory.checkStructureTags(structureVersion, tags);
+        if (structureVersionId.isPresent()) {
+            RichVersionFactory.checkStructureTags(this.structureSchemas, structureVersionId.get(), tags, structureVersions,
+                    () -> this.structureVersionFactory.retrieveFromDatabase(connection, structureVersionId.get()));
         }
 
         List<DbDataContainer> insertions = new ArrayList<>();
@@ -47,6 +56,8 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
         connection.insert("RichVersions", insertions);
 
         if (tags.isPresent()) {
+            List<List<DbDataContainer>> tagInsertions = new ArrayList<>();
+
             for (String key : tags.get().keySet()) {
                 Tag tag = tags.get().get(key);
 
@@ -56,43 +67,66 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
                 tagInsertion.add(new DbDataContainer("value", Type.STRING, tag.getValue().map(Object::toString).orElse(null)));
                 tagInsertion.add(new DbDataContainer("type", Type.STRING, tag.getValueType().map(Object::toString).orElse(null)));
 
-                connection.insert("Tags", tagInsertion);
+                tagInsertions.add(tagInsertion);
+            }
+
+            connection.insertBatch("Tags", tagInsertions);
+        }
+
+        if (parameters.isPresent()) {
+            List<List<DbDataContainer>> parameterInsertions = new ArrayList<>();
+
+            for (String key : parameters.get().keySet()) {
+                List<DbDataContainer> parameterInsertion = new ArrayList<>();
+                parameterInsertion.add(new DbDataContainer("richversion_id", Type.STRING, id));
+                parameterInsertion.add(new DbDataContainer("key", Type.STRING, key));
+                parameterInsertion.add(new DbDataContainer("value", Type.STRING, parameters.get().get(key)));
+
+                parameterInsertions.add(parameterInsertion);
             }
+
+            connection.insertBatch("RichVersionExternalParameters", parameterInsertions);
         }
     }
 
     public RichVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
         PostgresConnection connection = (PostgresConnection) connectionPointer;
 
-        List<DbDataContainer> predicates = new ArrayList<>();
-        predicates.add(new DbDataContainer("id", Type.STRING, id));
-        QueryResults resultSet = connection.equalitySelect("RichVersions", DBClient.SELECT_STAR, predicates);
+        List<DbDataContainer> parameters = new ArrayList<>();
+        parameters.add(new DbDataContainer("id", Type.STRING, id));
+        parameters.add(new DbDataContainer("richversion_id", Type.STRING, id));
+        parameters.add(new DbDataContainer("richversion_id", Type.STRING, id));
 
-        List<DbDataContainer> parameterPredicates = new ArrayList<>();
-        parameterPredicates.add(new DbDataContainer("richversion_id", Type.STRING, id));
+        // throws if there is no such version; a version without parameters or tags simply has no rows for them
+        QueryResults resultSet = connection.query(RETRIEVE_RICH_VERSION, parameters);
+
+        Optional<String> structureVersionId = Optional.empty();
+        Optional<String> reference = Optional.empty();
         Map<String, String> parametersMap = new HashMap<>();
-        Optional<Map<String, String>> parameters;
-        try {
-            QueryResults parameterSet = connection.equalitySelect("RichVersionExternalParameters", DBClient.SELECT_STAR, parameterPredicates);
-
-            do {
-                parametersMap.put(parameterSet.getString(2), parameterSet.getString(3));
-            } while (parameterSet.next());
-
-            parameters = Optional.of(parametersMap);
-        } catch (GroundException e) {
-            if (e.getMessage().contains("No results found for query")) {
-                parameters = Optional.empty();
-            } else {
-                throw e;
+        Map<String, Tag> tagsMap = new HashMap<>();
+
+        do {
+            switch (resultSet.getString(1)) {
+                case "version":
+                    structureVersionId = Optional.ofNullable(resultSet.getString(2));
+                    reference = Optional.ofNullable(resultSet.getString(3));
+                    break;
+                case "parameter":
+                    parametersMap.put(resultSet.getString(2), resultSet.getString(3));
+                    break;
+                case "tag":
+                    tagsMap.put(resultSet.getString(2), PostgresTagFactory.construct(id, resultSet.getString(2), resultSet.getString(3), resultSet.getString(4)));
+                    break;
             }
-        }
+        } while (resultSet.next());
 
-        Optional<Map<String, Tag>> tags = tagFactory.retrieveFromDatabaseById(connection, id);
+        Optional<Map<String, String>> versionParameters = parametersMap.isEmpty() ? Optional.empty() : Optional.of(parametersMap);
+        Optional<Map<String, Tag>> tags = tagsMap.isEmpty() ? Optional.empty() : Optional.of(tagsMap);
 
-        Optional<String> reference = Optional.ofNullable(resultSet.getString(3));
-        Optional<String> structureVersionId = Optional.ofNullable(resultSet.getString(2));
+        return RichVersionFactory.construct(id, tags, structureVersionId, reference, versionParameters);
+    }
 
-        return RichVersionFactory.construct(id, tags, structureVersionId, reference, parameters);
+    public Map<String, RichVersion> retrieveFromDatabase(GroundDBConnection connectionPointer, Collection<String> ids) throws GroundException {
+        return RichVersionFactory.retrieveFromTables((PostgresConnection) connectionPointer, ids);
     }
 }
@@ -34,36 +34,65 @@ public class PostgresStructureVersionFactory extends StructureVersionFactory {
                                    Optional<String> parentId) throws GroundException {
 
         PostgresConnection connection = this.dbClient.getConnection();
-        String id = IdGenerator.generateId(structureId);
 
-        this.versionFactory.insertIntoDatabase(connection, id);
+        try {
+            String id = IdGenerator.generateId(structureId);
 
-        List<DbDataContainer> insertions = new ArrayList<>();
-        insertions.add(new DbDataContainer("id", Type.STRING, id));
-        insertions.add(new DbDataContainer("structure_id", Type.STRING, structureId));
+            this.versionFactory.insertIntoDatabase(connection, id);
 
-        connection.insert("StructureVersions", insertions);
+            List<DbDataContainer> insertions = new ArrayList<>();
+            insertions.add(new DbDataContainer("id", Type.STRING, id));
+            insertions.add(new DbDataContainer("structure_id", Type.STRING, structureId));
 
-        for (String key : attributes.keySet()) {
-            List<DbDataContainer> itemInsertions = new ArrayList<>();
-            itemInsertions.add(new DbDataContainer("svid", Type.STRING, id));
-            itemInsertions.add(new DbDataContainer("key", Type.STRING, key));
-            itemInsertions.add(new DbDataContainer("type", Type.STRING, attributes.get(key).toString()));
+            connection.insert("StructureVersions", insertions);
 
-            connection.insert("StructureVersionItems", itemInsertions);
-        }
+            List<List<DbDataContainer>> itemInsertions = new ArrayList<>();
+            for (String key : attributes.keySet()) {
+                List<DbDataContainer> itemInsertion = new ArrayList<>();
+                itemInsertion.add(new DbDataContainer("svid", Type.STRING, id));
+                itemInsertion.add(new DbDataContainer("key", Type.STRING, key));
+                itemInsertion.add(new DbDataContainer("type", Type.STRING, attributes.get(key).toString()));
 
-        this.structureFactory.update(connection, structureId, id, parentId);
+                itemInsertions.add(itemInsertion);
+            }
 
-        connection.commit();
-        LOGGER.info("Created structure version " + id + " in structure " + structureId + ".");
+            connection.insertBatch("StructureVersionItems", itemInsertions);
 
-        return StructureVersionFactory.construct(id, structureId, attributes);
+            this.structureFactory.update(connection, structureId, id, parentId);
+
+            connection.commit();
+            LOGGER.info("Created structure version " + id + " in structure " + structureId + ".");
+
+            return StructureVersionFactory.construct(id, structureId, attributes);
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
     }
 
     public StructureVersion retrieveFromDatabase(String id) throws GroundException {
         PostgresConnection connection = this.dbClient.getConnection();
 
+        try {
+            StructureVersion structureVersion = this.retrieveFromDatabase(connection, id);
+
+            connection.commit();
+            LOGGER.info("Retrieved structure version " + id + " in structure " + structureVersion.getStructureId() + ".");
+
+            return structureVersion;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves a structure version using an already open connection, so that callers inside a transaction do not
+     * hold a second pooled connection while they wait for this one.
+     */
+    public StructureVersion retrieveFromDatabase(PostgresConnection connection, String id) throws GroundException {
         List<DbDataContainer> predicates = new ArrayList<>();
         predicates.add(new DbDataContainer("id", Type.STRING, id));
         QueryResults resultSet = connection.equalitySelect("StructureVersions", DBClient.SELECT_STAR, predicates);
@@ -80,9 +109,6 @@ public class PostgresStructureVersionFactory extends StructureVersionFactory {
 
         String structureId = resultSet.getString(2);
 
-        connection.commit();
-        LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
-
         return StructureVersionFactory.construct(id, structureId, attributes);
     }
 }
@@ -23,13 +23,8 @@ public class PostgresTagFactory extends TagFactory {
         Map<String, Tag> result = new HashMap<>();
 
         do {
-            String key = resultSet.getString(2);
-            Optional<Type> type = Optional.ofNullable(Type.fromString(resultSet.getString(4)));
-
-            String valueString = resultSet.getString(3);
-            Optional<Object> value = type.map(t -> Type.stringToType(valueString, t));
-
-            result.put(key, new Tag(id, key, value, type));
+            Tag tag = PostgresTagFactory.construct(id, resultSet.getString(2), resultSet.getString(3), resultSet.getString(4));
+            result.put(tag.getKey(), tag);
         } while (resultSet.next());
 
         if (result.isEmpty()) {
@@ -38,4 +33,12 @@ public class PostgresTagFactory extends TagFactory {
             return Optional.of(result);
         }
     }
+
+    // builds a tag from the key, value and type columns of a row of Tags
+    static Tag construct(String richVersionId, String key, String valueString, String typeString) throws GroundException {
+        Optional<Type> type = Optional.ofNullable(Type.fromString(typeString));
+        Optional<Object> value = type.map(t -> Type.stringToType(valueString, t));
+
+        return new Tag(richVersionId, key, value, type);
+    }
 }
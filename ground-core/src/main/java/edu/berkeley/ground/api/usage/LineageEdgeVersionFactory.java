@@ -3,6 +3,7 @@ package edu.berkeley.ground.api.usage;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.exceptions.GroundException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,6 +19,12 @@ public abstract class LineageEdgeVersionFactory {
 
     public abstract LineageEdgeVersion retrieveFromDatabase(String id) throws GroundException;
 
+    /**
+     * Retrieves the versions with the given ids, in the order of the ids, with a fixed number of queries however many
+     * ids there are. Ids that don't exist are left out.
+     */
+    public abstract List<LineageEdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException;
+
     protected static LineageEdgeVersion construct(String id,
                                                   Optional<Map<String, Tag>> tags,
                                                   Optional<String> structureVersionId,
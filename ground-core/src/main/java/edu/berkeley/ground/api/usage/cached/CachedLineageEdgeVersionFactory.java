@@ -0,0 +1,44 @@
+package edu.berkeley.ground.api.usage.cached;
+
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.usage.LineageEdgeVersion;
+import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.VersionCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves lineage edge version reads from a VersionCache, passing everything else through to the backend's factory.
+ */
+public class CachedLineageEdgeVersionFactory extends LineageEdgeVersionFactory {
+    private LineageEdgeVersionFactory lineageEdgeVersionFactory;
+    private VersionCache versionCache;
+
+    public CachedLineageEdgeVersionFactory(LineageEdgeVersionFactory lineageEdgeVersionFactory, VersionCache versionCache) {
+        this.lineageEdgeVersionFactory = lineageEdgeVersionFactory;
+        this.versionCache = versionCache;
+    }
+
+    public LineageEdgeVersion create(Optional<Map<String, Tag>> tags,
+                                     Optional<String> structureVersionId,
+                                     Optional<String> reference,
+                                     Optional<Map<String, String>> parameters,
+                                     String fromId,
+                                     String toId,
+                                     String lineageEdgeId,
+                                     Optional<String> parentId) throws GroundException {
+
+        return this.lineageEdgeVersionFactory.create(tags, structureVersionId, reference, parameters, fromId, toId, lineageEdgeId, parentId);
+    }
+
+    public LineageEdgeVersion retrieveFromDatabase(String id) throws GroundException {
+        return this.versionCache.get(LineageEdgeVersion.class, id, () -> this.lineageEdgeVersionFactory.retrieveFromDatabase(id));
+    }
+
+    public List<LineageEdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.versionCache.getAll(LineageEdgeVersion.class, ids, this.lineageEdgeVersionFactory::retrieveFromDatabase);
+    }
+}
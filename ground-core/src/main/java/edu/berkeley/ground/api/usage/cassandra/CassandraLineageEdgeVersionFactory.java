@@ -17,9 +17,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CassandraLineageEdgeVersionFactory extends LineageEdgeVersionFactory {
@@ -102,4 +105,35 @@ public class CassandraLineageEdgeVersionFactory extends LineageEdgeVersionFactor
             throw e;
         }
     }
+
+    public List<LineageEdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        CassandraConnection connection = this.dbClient.getConnection();
+
+        try {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Map<String, String>> rows = new HashMap<>();
+            connection.selectIn("LineageEdgeVersions", "id", distinctIds, row -> rows.put(row.get("id"), row));
+
+            List<LineageEdgeVersion> lineageEdgeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Map<String, String> row = rows.get(id);
+
+                if (version != null && row != null) {
+                    lineageEdgeVersions.add(LineageEdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), row.get("endpoint_one"), row.get("endpoint_two"), row.get("lineageedge_id")));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + lineageEdgeVersions.size() + " of " + ids.size() + " lineage edge versions.");
+
+            return lineageEdgeVersions;
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
 }
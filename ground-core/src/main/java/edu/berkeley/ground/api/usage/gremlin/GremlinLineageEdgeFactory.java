@@ -7,7 +7,6 @@ import edu.berkeley.ground.api.versions.gremlin.GremlinItemFactory;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
-import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
@@ -29,9 +28,7 @@ public class GremlinLineageEdgeFactory extends LineageEdgeFactory {
     }
 
     public LineageEdge create(String name) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             String uniqueId = "LineageEdges." + name;
 
             this.itemFactory.insertIntoDatabase(connection, uniqueId);
@@ -46,17 +43,11 @@ public class GremlinLineageEdgeFactory extends LineageEdgeFactory {
             LOGGER.info("Created lineage edge " + name + ".");
 
             return LineageEdgeFactory.construct(uniqueId, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public LineageEdge retrieveFromDatabase(String name) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             List<DbDataContainer> predicates = new ArrayList<>();
             predicates.add(new DbDataContainer("name", Type.STRING, name));
             Vertex vertex = connection.getVertex(predicates);
@@ -66,11 +57,7 @@ public class GremlinLineageEdgeFactory extends LineageEdgeFactory {
             LOGGER.info("Retrieved lineage edge " + name + ".");
 
             return LineageEdgeFactory.construct(id, name);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+        });
     }
 
     public void update(GroundDBConnection connection, String itemId, String childId, Optional<String> parent) throws GroundException {
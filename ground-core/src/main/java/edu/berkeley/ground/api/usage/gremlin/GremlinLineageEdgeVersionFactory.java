@@ -8,7 +8,6 @@ import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
-import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 import edu.berkeley.ground.util.IdGenerator;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -16,9 +15,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GremlinLineageEdgeVersionFactory extends LineageEdgeVersionFactory {
@@ -44,12 +46,10 @@ public class GremlinLineageEdgeVersionFactory extends LineageEdgeVersionFactory
                                      String lineageEdgeId,
                                      Optional<String> parentId) throws GroundException {
 
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             String id = IdGenerator.generateId(lineageEdgeId);
 
-            tags = tags.map(tagsMap ->
+            Optional<Map<String, Tag>> versionTags = tags.map(tagsMap ->
                                     tagsMap.values().stream().collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())))
             );
 
@@ -62,7 +62,7 @@ public class GremlinLineageEdgeVersionFactory extends LineageEdgeVersionFactory
             Vertex versionVertex = connection.addVertex("LineageEdgeVersions", insertions);
 
             this.lineageEdgeFactory.update(connection, lineageEdgeId, id, parentId);
-            this.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, reference, parameters);
+            this.richVersionFactory.insertIntoDatabase(connection, id, versionTags, structureVersionId, reference, parameters);
 
             List<DbDataContainer> predicates = new ArrayList<>();
             predicates.add(new DbDataContainer("id", Type.STRING, fromId));
@@ -79,18 +79,12 @@ public class GremlinLineageEdgeVersionFactory extends LineageEdgeVersionFactory
             connection.commit();
             LOGGER.info("Created lineage edge version " + id + " in lineage edge " + lineageEdgeId + ".");
 
-            return LineageEdgeVersionFactory.construct(id, tags, structureVersionId, reference, parameters, fromId, toId, lineageEdgeId);
-        } catch (GroundException e) {
-            connection.abort();
-
-            throw e;
-        }
+            return LineageEdgeVersionFactory.construct(id, versionTags, structureVersionId, reference, parameters, fromId, toId, lineageEdgeId);
+        });
     }
 
     public LineageEdgeVersion retrieveFromDatabase(String id) throws GroundException {
-        GremlinConnection connection = this.dbClient.getConnection();
-
-        try {
+        return this.dbClient.runInTransaction(connection -> {
             RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
 
             List<DbDataContainer> predicates = new ArrayList<>();
@@ -105,10 +99,33 @@ public class GremlinLineageEdgeVersionFactory extends LineageEdgeVersionFactory
             LOGGER.info("Retrieved lineage edge version " + id + " in lineage edge " + lineageEdgeId + ".");
 
             return LineageEdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), fromId, toId, lineageEdgeId);
-        } catch (GroundException e) {
-            connection.abort();
+        });
+    }
+
+    public List<LineageEdgeVersion> retrieveFromDatabase(List<String> ids) throws GroundException {
+        return this.dbClient.runInTransaction(connection -> {
+            Set<String> distinctIds = new LinkedHashSet<>(ids);
+            Map<String, RichVersion> versions = this.richVersionFactory.retrieveFromDatabase(connection, distinctIds);
+
+            Map<String, Vertex> vertices = new HashMap<>();
+            for (Vertex versionVertex : connection.getVertices("LineageEdgeVersions", "id", distinctIds)) {
+                vertices.put(versionVertex.property("id").value().toString(), versionVertex);
+            }
+
+            List<LineageEdgeVersion> lineageEdgeVersions = new ArrayList<>();
+            for (String id : ids) {
+                RichVersion version = versions.get(id);
+                Vertex versionVertex = vertices.get(id);
+
+                if (version != null && versionVertex != null) {
+                    lineageEdgeVersions.add(LineageEdgeVersionFactory.construct(id, version.getTags(), version.getStructureVersionId(), version.getReference(), version.getParameters(), versionVertex.property("endpoint_one").value().toString(), versionVertex.property("endpoint_two").value().toString(), versionVertex.property("lineageedge_id").value().toString()));
+                }
+            }
+
+            connection.commit();
+            LOGGER.info("Retrieved " + lineageEdgeVersions.size() + " of " + ids.size() + " lineage edge versions.");
 
-            throw e;
-        }
+            return lineageEdgeVersions;
+        });
     }
 }
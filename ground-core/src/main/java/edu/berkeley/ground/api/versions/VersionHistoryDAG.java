@@ -1,12 +1,9 @@
 package edu.berkeley.ground.api.versions;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import edu.berkeley.ground.exceptions.GroundException;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 
 public class VersionHistoryDAG<T extends Version> {
     // the id of the Version that's at the rootId of this DAG
@@ -15,17 +12,23 @@ public class VersionHistoryDAG<T extends Version> {
     // list of VersionSuccessors that make up this DAG
     private List<String> edgeIds;
 
-    // map of parents to children
-    private Map<String, String> parentChildMap;
+    // map of parents to the successors leaving them and of children to the successors reaching them; together their
+    // keys index every version id
+    private Map<String, List<VersionSuccessor<T>>> outgoing;
+    private Map<String, List<VersionSuccessor<T>>> incoming;
+
+    // the versions without children, maintained as edges are added
+    private Set<String> leaves;
 
     protected VersionHistoryDAG(String itemId, List<VersionSuccessor<T>> edges) {
         this.itemId = itemId;
-        this.edgeIds = new ArrayList<>();
-        this.parentChildMap = new HashMap<>();
+        this.edgeIds = new ArrayList<>(edges.size());
+        this.outgoing = new HashMap<>();
+        this.incoming = new HashMap<>();
+        this.leaves = new LinkedHashSet<>();
 
         for (VersionSuccessor<T> edge : edges) {
-            edgeIds.add(edge.getId());
-            parentChildMap.put(edge.getFromId(), edge.getToId());
+            this.addEdge(edge.getFromId(), edge.getToId(), edge.getId());
         }
     }
 
@@ -46,7 +49,7 @@ public class VersionHistoryDAG<T extends Version> {
      * @return true if id is in the DAG, false otherwise
      */
     public boolean checkItemInDag(String id) {
-        return this.parentChildMap.keySet().contains(id) || this.parentChildMap.values().contains(id);
+        return this.outgoing.containsKey(id) || this.incoming.containsKey(id);
     }
 
     /**
@@ -54,11 +57,19 @@ public class VersionHistoryDAG<T extends Version> {
      *
      * @param parentId the id of the "from" of the edge
      * @param childId the id of the "to" of the edge
-     * @throws GroundException
+     * @param successorId the id of the VersionSuccessor that the edge represents
      */
     public void addEdge(String parentId, String childId, String successorId) {
-        edgeIds.add(successorId);
-        parentChildMap.put(parentId, childId);
+        VersionSuccessor<T> successor = new VersionSuccessor<>(successorId, parentId, childId);
+
+        this.edgeIds.add(successorId);
+        this.outgoing.computeIfAbsent(parentId, id -> new ArrayList<>(1)).add(successor);
+        this.incoming.computeIfAbsent(childId, id -> new ArrayList<>(1)).add(successor);
+
+        this.leaves.remove(parentId);
+        if (!this.outgoing.containsKey(childId)) {
+            this.leaves.add(childId);
+        }
     }
 
     /**
@@ -67,9 +78,173 @@ public class VersionHistoryDAG<T extends Version> {
      * @return the list of the IDs of the leaves of this DAG
      */
     public List<String> getLeaves() {
-        List<String> leaves = new ArrayList<>(this.parentChildMap.values());
-        leaves.removeAll(this.parentChildMap.keySet());
+        return new ArrayList<>(this.leaves);
+    }
+
+    /**
+     * Returns the ids of the direct children of a version, or an empty list if it has none.
+     */
+    public List<String> getChildren(String id) {
+        List<String> children = new ArrayList<>();
+        this.outgoing.getOrDefault(id, Collections.emptyList()).forEach(successor -> children.add(successor.getToId()));
+
+        return children;
+    }
+
+    /**
+     * Returns the ids of the direct parents of a version, or an empty list if it has none.
+     */
+    public List<String> getParents(String id) {
+        List<String> parents = new ArrayList<>();
+        this.incoming.getOrDefault(id, Collections.emptyList()).forEach(successor -> parents.add(successor.getFromId()));
+
+        return parents;
+    }
+
+    /**
+     * Returns the successors that can be reached from a version in at most depth steps, ordered by distance and then
+     * by id. If from is empty, the walk starts at the root of the history.
+     */
+    public List<VersionSuccessor<T>> getHistory(Optional<String> from, int depth) {
+        List<String> frontier = from.map(Collections::singletonList).orElseGet(this::getRoots);
+        Set<String> visited = new HashSet<>(frontier);
+        List<VersionSuccessor<T>> result = new ArrayList<>();
+
+        for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+            List<VersionSuccessor<T>> successors = new ArrayList<>();
+            for (String id : frontier) {
+                successors.addAll(this.outgoing.getOrDefault(id, Collections.emptyList()));
+            }
+
+            successors.sort(Comparator.comparing(VersionSuccessor::getId));
+
+            List<String> next = new ArrayList<>();
+            for (VersionSuccessor<T> successor : successors) {
+                result.add(successor);
+
+                if (visited.add(successor.getToId())) {
+                    next.add(successor.getToId());
+                }
+            }
+
+            frontier = next;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the versions that a version descends from, at most depth steps away, ordered by distance and then by id.
+     * The root of the history is not included.
+     */
+    public List<String> getAncestors(String id, int depth) {
+        List<String> ancestors = this.walk(id, depth, this.incoming, VersionSuccessor::getFromId);
+        ancestors.removeIf(ancestor -> !this.incoming.containsKey(ancestor));
+
+        return ancestors;
+    }
+
+    /**
+     * Returns the versions that descend from a version, at most depth steps away, ordered by distance and then by id.
+     */
+    public List<String> getDescendants(String id, int depth) {
+        return this.walk(id, depth, this.outgoing, VersionSuccessor::getToId);
+    }
+
+    /**
+     * Returns the common ancestor of two versions (either of which may be the ancestor itself) that is closest to both
+     * of them, measured by the sum of the distances. Ties are broken by id. Returns an empty Optional if the versions
+     * only share the root of the history.
+     */
+    public Optional<String> getLowestCommonAncestor(String firstId, String secondId) {
+        Map<String, Integer> firstDistances = this.distances(firstId, this.incoming, VersionSuccessor::getFromId);
+        Map<String, Integer> secondDistances = this.distances(secondId, this.incoming, VersionSuccessor::getFromId);
+
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (Map.Entry<String, Integer> entry : firstDistances.entrySet()) {
+            String id = entry.getKey();
+            Integer secondDistance = secondDistances.get(id);
+
+            if (secondDistance == null || !this.incoming.containsKey(id)) {
+                continue;
+            }
+
+            int distance = entry.getValue() + secondDistance;
+            if (distance < bestDistance || (distance == bestDistance && id.compareTo(best) < 0)) {
+                best = id;
+                bestDistance = distance;
+            }
+        }
+
+        return Optional.ofNullable(best);
+    }
+
+    // the versions without parents; every history has exactly one unless it is empty
+    private List<String> getRoots() {
+        List<String> roots = new ArrayList<>();
+        for (String id : this.outgoing.keySet()) {
+            if (!this.incoming.containsKey(id)) {
+                roots.add(id);
+            }
+        }
+
+        return roots;
+    }
+
+    private List<String> walk(String start,
+                              int depth,
+                              Map<String, List<VersionSuccessor<T>>> edges,
+                              Function<VersionSuccessor<T>, String> endpoint) {
+        Set<String> visited = new HashSet<>();
+        visited.add(start);
+
+        List<String> frontier = Collections.singletonList(start);
+        List<String> result = new ArrayList<>();
+
+        for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+            List<String> next = new ArrayList<>();
+
+            for (String id : frontier) {
+                for (VersionSuccessor<T> successor : edges.getOrDefault(id, Collections.emptyList())) {
+                    if (visited.add(endpoint.apply(successor))) {
+                        next.add(endpoint.apply(successor));
+                    }
+                }
+            }
+
+            Collections.sort(next);
+            result.addAll(next);
+            frontier = next;
+        }
+
+        return result;
+    }
+
+    // the distance from start to every version reachable through the given edges, start included
+    private Map<String, Integer> distances(String start,
+                                           Map<String, List<VersionSuccessor<T>>> edges,
+                                           Function<VersionSuccessor<T>, String> endpoint) {
+        Map<String, Integer> distances = new HashMap<>();
+        distances.put(start, 0);
+
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            String id = queue.poll();
+
+            for (VersionSuccessor<T> successor : edges.getOrDefault(id, Collections.emptyList())) {
+                String next = endpoint.apply(successor);
+
+                if (!distances.containsKey(next)) {
+                    distances.put(next, distances.get(id) + 1);
+                    queue.add(next);
+                }
+            }
+        }
 
-        return leaves;
+        return distances;
     }
 }
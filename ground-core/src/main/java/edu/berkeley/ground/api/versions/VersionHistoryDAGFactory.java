@@ -2,16 +2,74 @@ package edu.berkeley.ground.api.versions;
 
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public abstract class VersionHistoryDAGFactory {
+    // the furthest any history query walks from the versions it starts at
+    public static final int MAX_DEPTH = 1000;
+
     public abstract <T extends Version> VersionHistoryDAG<T> create(String itemId) throws GroundException;
 
     public abstract <T extends Version> VersionHistoryDAG<T> retrieveFromDatabase(GroundDBConnection connection, String itemId) throws GroundException;
 
-    public abstract void addEdge(GroundDBConnection connection, VersionHistoryDAG dag, String parentId, String childId, String itemId) throws GroundException;
+    /**
+     * Adds a successor edge to the history of an item and, in the same transaction where the backend has them, moves
+     * the item's leaf from parentId to childId.
+     */
+    public abstract void addEdge(GroundDBConnection connection, String parentId, String childId, String itemId) throws GroundException;
+
+    /**
+     * Returns the versions of an item that have no successors, without reading the rest of its history. Returns an
+     * empty list if the item has no versions. Histories written before the leaves were kept have none stored; their
+     * leaves are derived from the history and stored the first time they are asked for.
+     */
+    public abstract List<String> getLeaves(GroundDBConnection connection, String itemId) throws GroundException;
+
+    /**
+     * Returns a page of the successors in the history of an item that are at most depth steps from a version, ordered
+     * by distance and then by id. If from is empty, the walk starts at the beginning of the history.
+     */
+    public abstract <T extends Version> List<VersionSuccessor<T>> getHistory(GroundDBConnection connection, String itemId, Optional<String> from, int depth, int offset, int limit) throws GroundException;
+
+    /**
+     * Returns a page of the versions of an item that versionId descends from, at most depth steps back, ordered by
+     * distance and then by id. Throws a GroundNotFoundException if versionId is not a version of the item.
+     */
+    public abstract List<String> getAncestors(GroundDBConnection connection, String itemId, String versionId, int depth, int offset, int limit) throws GroundException;
+
+    /**
+     * Returns a page of the versions of an item that descend from versionId, at most depth steps ahead, ordered by
+     * distance and then by id. Throws a GroundNotFoundException if versionId is not a version of the item.
+     */
+    public abstract List<String> getDescendants(GroundDBConnection connection, String itemId, String versionId, int depth, int offset, int limit) throws GroundException;
+
+    /**
+     * Returns the closest version of an item that both versions descend from (or are), or an empty Optional if they
+     * have no version in common within MAX_DEPTH steps. Throws a GroundNotFoundException if either is not a version
+     * of the item.
+     */
+    public abstract Optional<String> getLowestCommonAncestor(GroundDBConnection connection, String itemId, String firstId, String secondId) throws GroundException;
+
+    // the error for a version that is looked up in the history of an item it doesn't belong to
+    protected static GroundNotFoundException notInHistory(String itemId, String versionId) {
+        return new GroundNotFoundException("Version " + versionId + " is not a version of item " + itemId + ".");
+    }
+
+    protected static <T extends Version> VersionSuccessor<T> constructSuccessor(String id, String fromId, String toId) {
+        return new VersionSuccessor<>(id, fromId, toId);
+    }
+
+    // the page [offset, offset + limit) of a list, for backends that compute the whole result in memory
+    protected static <T> List<T> page(List<T> list, int offset, int limit) {
+        int from = Math.min(offset, list.size());
+        int to = (int) Math.min((long) from + limit, list.size());
+
+        return new ArrayList<>(list.subList(from, to));
+    }
 
     protected static <T extends Version> VersionHistoryDAG<T> construct(String itemId) {
         return new VersionHistoryDAG<>(itemId, new ArrayList<>());
@@ -30,6 +30,7 @@ public class VersionSuccessor<T extends Version> {
         return this.fromId;
     }
 
+    @JsonProperty
     public String getToId() {
         return this.toId;
     }
@@ -9,9 +9,13 @@ import edu.berkeley.ground.db.QueryResults;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 public class CassandraVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
+    private static final List<String> HISTORY_PROJECTION = Arrays.asList("successor_id", "vfrom", "vto");
+
     private CassandraVersionSuccessorFactory versionSuccessorFactory;
 
     public CassandraVersionHistoryDAGFactory(CassandraVersionSuccessorFactory versionSuccessorFactory) {
@@ -28,17 +32,44 @@ public class CassandraVersionHistoryDAGFactory extends VersionHistoryDAGFactory
         List<DbDataContainer> predicates = new ArrayList<>();
         predicates.add(new DbDataContainer("item_id", Type.STRING, itemId));
 
-        QueryResults resultSet = connection.equalitySelect("VersionHistoryDAGs", DBClient.SELECT_STAR, predicates);
+        // the endpoints of every successor are stored in the item's partition, so the history is a single read
+        Optional<QueryResults> resultSet = connection.equalitySelectIfPresent("VersionHistoryDAGs", HISTORY_PROJECTION, predicates);
+
+        // an item without versions has an empty history rather than a missing one
+        VersionHistoryDAG<T> dag = VersionHistoryDAGFactory.construct(itemId);
+        if (!resultSet.isPresent()) {
+            return dag;
+        }
+
+        List<String> unresolved = new ArrayList<>();
 
-        List<VersionSuccessor<T>> edges = new ArrayList<>();
+        QueryResults results = resultSet.get();
         do {
-            edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, resultSet.getString(1)));
-        } while (resultSet.next());
+            if (results.getString(1) == null) {
+                unresolved.add(results.getString(0));
+            } else {
+                dag.addEdge(results.getString(1), results.getString(2), results.getString(0));
+            }
+        } while (results.next());
+
+        // rows written before VersionHistoryDAGs held the endpoints are resolved through VersionSuccessors, and the
+        // endpoints are stored with them so that the next read of the history doesn't have to
+        connection.selectIn("VersionSuccessors", "successor_id", unresolved, row -> {
+            dag.addEdge(row.get("vfrom"), row.get("vto"), row.get("successor_id"));
+
+            List<DbDataContainer> insertions = new ArrayList<>();
+            insertions.add(new DbDataContainer("item_id", Type.STRING, itemId));
+            insertions.add(new DbDataContainer("successor_id", Type.STRING, row.get("successor_id")));
+            insertions.add(new DbDataContainer("vfrom", Type.STRING, row.get("vfrom")));
+            insertions.add(new DbDataContainer("vto", Type.STRING, row.get("vto")));
 
-        return VersionHistoryDAGFactory.construct(itemId, edges);
+            connection.insert("VersionHistoryDAGs", insertions);
+        });
+
+        return dag;
     }
 
-    public void addEdge(GroundDBConnection connectionPointer, VersionHistoryDAG dag, String parentId, String childId, String itemId) throws GroundException {
+    public void addEdge(GroundDBConnection connectionPointer, String parentId, String childId, String itemId) throws GroundException {
         CassandraConnection connection = (CassandraConnection) connectionPointer;
 
         VersionSuccessor successor = this.versionSuccessorFactory.create(connection, parentId, childId);
@@ -46,9 +77,96 @@ public class CassandraVersionHistoryDAGFactory extends VersionHistoryDAGFactory
         List<DbDataContainer> insertions = new ArrayList<>();
         insertions.add(new DbDataContainer("item_id", Type.STRING, itemId));
         insertions.add(new DbDataContainer("successor_id", Type.STRING, successor.getId()));
+        insertions.add(new DbDataContainer("vfrom", Type.STRING, parentId));
+        insertions.add(new DbDataContainer("vto", Type.STRING, childId));
 
         connection.insert("VersionHistoryDAGs", insertions);
 
-        dag.addEdge(parentId, childId, successor.getId());
+        // there are no transactions, so add the new leaf before removing the old one: if the removal is lost, the item
+        // has one leaf too many and the next version without a parent starts from EMPTY instead of a stale leaf;
+        // pipelined writes can be applied in any order, so the insert is confirmed before the delete is sent
+        List<DbDataContainer> childLeaf = new ArrayList<>();
+        childLeaf.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        childLeaf.add(new DbDataContainer("version_id", Type.STRING, childId));
+
+        connection.insert("ItemLeaves", childLeaf);
+        connection.flush();
+
+        List<DbDataContainer> parentLeaf = new ArrayList<>();
+        parentLeaf.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        parentLeaf.add(new DbDataContainer("version_id", Type.STRING, parentId));
+
+        connection.delete("ItemLeaves", parentLeaf);
+    }
+
+    public List<String> getLeaves(GroundDBConnection connectionPointer, String itemId) throws GroundException {
+        CassandraConnection connection = (CassandraConnection) connectionPointer;
+
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("item_id", Type.STRING, itemId));
+
+        List<String> leaves = new ArrayList<>();
+
+        Optional<QueryResults> resultSet = connection.equalitySelectIfPresent("ItemLeaves", DBClient.SELECT_STAR, predicates);
+
+        if (!resultSet.isPresent()) {
+            // either the item has no versions or its history predates ItemLeaves
+            leaves = this.retrieveFromDatabase(connection, itemId).getLeaves();
+            for (String leaf : leaves) {
+                List<DbDataContainer> insertions = new ArrayList<>();
+                insertions.add(new DbDataContainer("item_id", Type.STRING, itemId));
+                insertions.add(new DbDataContainer("version_id", Type.STRING, leaf));
+
+                connection.insert("ItemLeaves", insertions);
+            }
+
+            return leaves;
+        }
+
+        QueryResults results = resultSet.get();
+        do {
+            leaves.add(results.getString(1));
+        } while (results.next());
+
+        return leaves;
+    }
+
+    // the history of an item is one partition, and so is read whole and walked in memory
+
+    public <T extends Version> List<VersionSuccessor<T>> getHistory(GroundDBConnection connection, String itemId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        VersionHistoryDAG<T> dag = this.retrieveFromDatabase(connection, itemId);
+
+        return VersionHistoryDAGFactory.page(dag.getHistory(from, depth), offset, limit);
+    }
+
+    public List<String> getAncestors(GroundDBConnection connection, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveContaining(connection, itemId, versionId);
+
+        return VersionHistoryDAGFactory.page(dag.getAncestors(versionId, depth), offset, limit);
+    }
+
+    public List<String> getDescendants(GroundDBConnection connection, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveContaining(connection, itemId, versionId);
+
+        return VersionHistoryDAGFactory.page(dag.getDescendants(versionId, depth), offset, limit);
+    }
+
+    public Optional<String> getLowestCommonAncestor(GroundDBConnection connection, String itemId, String firstId, String secondId) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveContaining(connection, itemId, firstId, secondId);
+
+        return dag.getLowestCommonAncestor(firstId, secondId);
+    }
+
+    // the history of an item, which must contain each of the versions
+    private VersionHistoryDAG<Version> retrieveContaining(GroundDBConnection connection, String itemId, String... versionIds) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveFromDatabase(connection, itemId);
+
+        for (String versionId : versionIds) {
+            if (!dag.checkItemInDag(versionId)) {
+                throw VersionHistoryDAGFactory.notInHistory(itemId, versionId);
+            }
+        }
+
+        return dag;
     }
 }
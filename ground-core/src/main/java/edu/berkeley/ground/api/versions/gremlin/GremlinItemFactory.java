@@ -7,7 +7,6 @@ import edu.berkeley.ground.exceptions.GroundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,8 +31,21 @@ public class GremlinItemFactory extends ItemFactory {
         // Eventually, there should be a specification about empty-child?
         if (parent.isPresent()) {
             parentId = parent.get();
+
+            VersionHistoryDAG dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connectionPointer, itemId);
+
+            if (!dag.checkItemInDag(parentId)) {
+                String errorString = "Parent " + parent + " is not in Item " + itemId + ".";
+
+                LOGGER.error(errorString);
+                throw new GroundException(errorString);
+            }
+
+            // a history that predates the stored leaves gets them before the parent's is moved, so that the item's
+            // other leaves aren't lost
+            this.versionHistoryDAGFactory.getLeaves(connectionPointer, itemId);
         } else {
-            List<String> leaves = this.getLeaves(connectionPointer, itemId);
+            List<String> leaves = this.versionHistoryDAGFactory.getLeaves(connectionPointer, itemId);
             if (leaves.size() == 1) {
                 parentId = leaves.get(0);
             } else {
@@ -41,39 +53,6 @@ public class GremlinItemFactory extends ItemFactory {
             }
         }
 
-        VersionHistoryDAG dag;
-        try {
-            dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connectionPointer, itemId);
-        } catch (GroundException e) {
-            if (!e.getMessage().contains("No results found for query:")) {
-                throw e;
-            }
-
-            dag = this.versionHistoryDAGFactory.create(itemId);
-        }
-
-        if (parent.isPresent() && !dag.checkItemInDag(parentId)) {
-            String errorString = "Parent " + parent + " is not in Item " + itemId + ".";
-
-            LOGGER.error(errorString);
-            throw new GroundException(errorString);
-        }
-
-        this.versionHistoryDAGFactory.addEdge(connectionPointer, dag, parentId, childId, itemId);
+        this.versionHistoryDAGFactory.addEdge(connectionPointer, parentId, childId, itemId);
     }
-
-    private List<String> getLeaves(GroundDBConnection connection, String itemId) throws GroundException {
-        try {
-            VersionHistoryDAG<?> dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connection, itemId);
-
-            return dag.getLeaves();
-        } catch (GroundException e) {
-            if (!e.getMessage().contains("No results found for query:")) {
-                throw e;
-            }
-
-            return new ArrayList<>();
-        }
-    }
-
 }
@@ -5,11 +5,14 @@ import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
 import edu.berkeley.ground.exceptions.GroundException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 public class GremlinVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
     private GremlinVersionSuccessorFactory versionSuccessorFactory;
@@ -29,20 +32,130 @@ public class GremlinVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
         predicates.add(new DbDataContainer("id", Type.STRING, itemId));
 
         Vertex itemVertex = connection.getVertex(predicates);
-        List<Edge> gremlinEdges = connection.getDescendantEdgesWithLabel(itemVertex, "VersionSuccessor");
+        Iterator<Edge> gremlinEdges = connection.getDescendantEdgesWithLabel(itemVertex, "VersionSuccessor");
 
-        List<VersionSuccessor<T>> edges = new ArrayList<>();
+        // the endpoints are read off the edges of the traversal instead of looking every successor up again
+        VersionHistoryDAG<T> dag = VersionHistoryDAGFactory.construct(itemId);
+        while (gremlinEdges.hasNext()) {
+            Edge gremlinEdge = gremlinEdges.next();
+            dag.addEdge((String) gremlinEdge.outVertex().property("id").value(),
+                    (String) gremlinEdge.inVertex().property("id").value(),
+                    (String) gremlinEdge.property("successor_id").value());
+        }
+
+        return dag;
+    }
+
+    public void addEdge(GroundDBConnection connectionPointer, String parentId, String childId, String itemId) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+
+        this.versionSuccessorFactory.create(connection, parentId, childId);
+
+        // the leaves of an item are the versions its vertex has ItemLeaf edges to
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, itemId));
+        Vertex itemVertex = connection.getVertex(predicates);
+
+        predicates.clear();
+        predicates.add(new DbDataContainer("id", Type.STRING, parentId));
+        Vertex parentVertex = connection.getVertex(predicates);
+
+        predicates.clear();
+        predicates.add(new DbDataContainer("id", Type.STRING, childId));
+        Vertex childVertex = connection.getVertex(predicates);
+
+        connection.removeEdges("ItemLeaf", itemVertex, parentVertex);
+        connection.addEdge("ItemLeaf", itemVertex, childVertex, new ArrayList<>());
+    }
+
+    public List<String> getLeaves(GroundDBConnection connectionPointer, String itemId) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, itemId));
+
+        List<String> leaves = new ArrayList<>();
+
+        Vertex itemVertex = connection.getVertex(predicates);
+        if (itemVertex == null) {
+            return leaves;
+        }
+
+        for (Vertex leaf : connection.getOutVerticesByEdgeLabel(itemVertex, "ItemLeaf")) {
+            leaves.add((String) leaf.property("id").value());
+        }
+
+        if (leaves.isEmpty()) {
+            // either the item has no versions or its history predates ItemLeaf edges
+            leaves = this.retrieveFromDatabase(connection, itemId).getLeaves();
+            for (String leaf : leaves) {
+                predicates.clear();
+                predicates.add(new DbDataContainer("id", Type.STRING, leaf));
 
-        for (Edge gremlinEdge : gremlinEdges) {
-            edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, (String) gremlinEdge.property("successor_id").value()));
+                connection.addEdge("ItemLeaf", itemVertex, connection.getVertex(predicates), new ArrayList<>());
+            }
         }
 
-        return VersionHistoryDAGFactory.construct(itemId, edges);
+        return leaves;
     }
 
-    public void addEdge(GroundDBConnection connectionPointer, VersionHistoryDAG dag, String parentId, String childId, String itemId) throws GroundException {
-        VersionSuccessor successor = this.versionSuccessorFactory.create(connectionPointer, parentId, childId);
+    public <T extends Version> List<VersionSuccessor<T>> getHistory(GroundDBConnection connectionPointer, String itemId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+
+        // the history of an item starts at the item's own vertex
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("id", Type.STRING, from.orElse(itemId)));
+
+        List<VersionSuccessor<T>> history = new ArrayList<>();
+
+        Vertex start = connection.getVertex(predicates);
+        if (start == null) {
+            return history;
+        }
+
+        for (Edge gremlinEdge : connection.getDescendantEdgesWithLabel(start, "VersionSuccessor", depth, offset, limit)) {
+            String fromId = (String) gremlinEdge.outVertex().property("id").value();
+
+            // the item's vertex stands in for EMPTY at the start of the history
+
+            history.add(VersionHistoryDAGFactory.constructSuccessor((String) gremlinEdge.property("successor_id").value(),
+                    fromId.equals(itemId) ? "EMPTY" : fromId,
+                    (String) gremlinEdge.inVertex().property("id").value()));
+        }
+
+        return history;
+    }
+
+    public List<String> getAncestors(GroundDBConnection connectionPointer, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+        this.retrieveContaining(connection, itemId, versionId);
+
+        return connection.getVertexIdsWithinDepth(versionId, "VersionSuccessor", Direction.IN, depth, itemId, offset, limit);
+    }
+
+    public List<String> getDescendants(GroundDBConnection connectionPointer, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        GremlinConnection connection = (GremlinConnection) connectionPointer;
+        this.retrieveContaining(connection, itemId, versionId);
+
+        return connection.getVertexIdsWithinDepth(versionId, "VersionSuccessor", Direction.OUT, depth, itemId, offset, limit);
+    }
+
+    public Optional<String> getLowestCommonAncestor(GroundDBConnection connection, String itemId, String firstId, String secondId) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveContaining(connection, itemId, firstId, secondId);
+
+        return dag.getLowestCommonAncestor(firstId, secondId);
+    }
+
+    // the history of an item, which must contain each of the versions
+    private VersionHistoryDAG<Version> retrieveContaining(GroundDBConnection connection, String itemId, String... versionIds) throws GroundException {
+        VersionHistoryDAG<Version> dag = this.retrieveFromDatabase(connection, itemId);
+
+        for (String versionId : versionIds) {
+            if (!dag.checkItemInDag(versionId)) {
+                throw VersionHistoryDAGFactory.notInHistory(itemId, versionId);
+            }
+        }
 
-        dag.addEdge(parentId, childId, successor.getId());
+        return dag;
     }
 }
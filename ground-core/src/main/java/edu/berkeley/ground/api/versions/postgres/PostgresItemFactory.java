@@ -40,8 +40,21 @@ public class PostgresItemFactory extends ItemFactory {
         // Eventually, there should be a specification about empty-child?
         if (parent.isPresent()) {
             parentId = parent.get();
+
+            VersionHistoryDAG dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connectionPointer, itemId);
+
+            if (!dag.checkItemInDag(parentId)) {
+                String errorString = "Parent " + parent + " is not in Item " + itemId + ".";
+
+                LOGGER.error(errorString);
+                throw new GroundException(errorString);
+            }
+
+            // a history that predates the stored leaves gets them before the parent's is moved, so that the item's
+            // other leaves aren't lost
+            this.versionHistoryDAGFactory.getLeaves(connectionPointer, itemId);
         } else {
-            List<String> leaves = this.getLeaves(connectionPointer, itemId);
+            List<String> leaves = this.versionHistoryDAGFactory.getLeaves(connectionPointer, itemId);
             if (leaves.size() == 1) {
                 parentId = leaves.get(0);
             } else {
@@ -49,39 +62,6 @@ public class PostgresItemFactory extends ItemFactory {
             }
         }
 
-        VersionHistoryDAG dag;
-        try {
-            dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connectionPointer, itemId);
-        } catch (GroundException e) {
-            if (!e.getMessage().contains("No results found for query:")) {
-                throw e;
-            }
-
-            dag = this.versionHistoryDAGFactory.create(itemId);
-        }
-
-        if (parent.isPresent() && !dag.checkItemInDag(parentId)) {
-            String errorString = "Parent " + parent + " is not in Item " + itemId + ".";
-
-            LOGGER.error(errorString);
-            throw new GroundException(errorString);
-        }
-
-        this.versionHistoryDAGFactory.addEdge(connectionPointer, dag, parentId, childId, itemId);
+        this.versionHistoryDAGFactory.addEdge(connectionPointer, parentId, childId, itemId);
     }
-
-    private List<String> getLeaves(GroundDBConnection connection, String itemId) throws GroundException {
-        try {
-            VersionHistoryDAG<?> dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connection, itemId);
-
-            return dag.getLeaves();
-        } catch (GroundException e) {
-            if (!e.getMessage().contains("No results found for query:")) {
-                throw e;
-            }
-
-            return new ArrayList<>();
-        }
-    }
-
 }
@@ -10,8 +10,53 @@ import edu.berkeley.ground.exceptions.GroundException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class PostgresVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
+    private static final String RETRIEVE_HISTORY = "select s.successor_id, s.vfrom, s.vto from VersionHistoryDAGs d " +
+            "join VersionSuccessors s on d.successor_id = s.successor_id where d.item_id = ?;";
+
+    // the recursive queries below keep the depth at which each row was reached, so that they can stop at the depth limit
+    // and order versions by their distance from the start
+    private static final String RETRIEVE_HISTORY_PAGE = "with recursive history(successor_id, vfrom, vto, depth) as (" +
+            "select s.successor_id, s.vfrom, s.vto, 1 from VersionHistoryDAGs d " +
+            "join VersionSuccessors s on d.successor_id = s.successor_id where d.item_id = ? and s.vfrom = ? " +
+            "union select s.successor_id, s.vfrom, s.vto, h.depth + 1 from history h " +
+            "join VersionSuccessors s on s.vfrom = h.vto where h.depth < ?) " +
+            "select successor_id, vfrom, vto from history group by successor_id, vfrom, vto " +
+            "order by min(depth), successor_id limit ? offset ?;";
+
+    // the successors of a version stay within its item, so the walks below only check where they start
+    private static final String IN_HISTORY = "select 1 from VersionHistoryDAGs d join VersionSuccessors s on d.successor_id = s.successor_id " +
+            "where d.item_id = ? and s.vto = ? limit 1;";
+
+    private static final String RETRIEVE_ANCESTORS = "with recursive ancestors(id, depth) as (" +
+            "select vfrom, 1 from VersionSuccessors where vto = ? " +
+            "union select s.vfrom, a.depth + 1 from ancestors a join VersionSuccessors s on s.vto = a.id where a.depth < ?) " +
+            "select id from ancestors where id <> 'EMPTY' group by id order by min(depth), id limit ? offset ?;";
+
+    private static final String RETRIEVE_DESCENDANTS = "with recursive descendants(id, depth) as (" +
+            "select vto, 1 from VersionSuccessors where vfrom = ? " +
+            "union select s.vto, d.depth + 1 from descendants d join VersionSuccessors s on s.vfrom = d.id where d.depth < ?) " +
+            "select id from descendants group by id order by min(depth), id limit ? offset ?;";
+
+    private static final String RETRIEVE_LOWEST_COMMON_ANCESTOR = "with recursive " +
+            "first_ancestors(id, depth) as (select cast(? as varchar), 0 " +
+            "union select s.vfrom, f.depth + 1 from first_ancestors f join VersionSuccessors s on s.vto = f.id where f.depth < ?), " +
+            "second_ancestors(id, depth) as (select cast(? as varchar), 0 " +
+            "union select s.vfrom, c.depth + 1 from second_ancestors c join VersionSuccessors s on s.vto = c.id where c.depth < ?) " +
+            "select f.id from first_ancestors f join second_ancestors c on f.id = c.id where f.id <> 'EMPTY' " +
+            "group by f.id order by min(f.depth) + min(c.depth), f.id limit 1;";
+
+    // stores the leaves of a history that has none stored; the no-op update makes rows that a concurrent backfill
+    // inserted first come back too
+    private static final String BACKFILL_LEAVES = "insert into ItemLeaves (item_id, version_id) " +
+            "select d.item_id, s.vto from VersionHistoryDAGs d join VersionSuccessors s on d.successor_id = s.successor_id " +
+            "where d.item_id = ? and not exists (select 1 from VersionHistoryDAGs c " +
+            "join VersionSuccessors n on c.successor_id = n.successor_id where c.item_id = d.item_id and n.vfrom = s.vto) " +
+            "group by d.item_id, s.vto " +
+            "on conflict (item_id, version_id) do update set version_id = excluded.version_id returning version_id;";
+
     private PostgresVersionSuccessorFactory versionSuccessorFactory;
 
     public PostgresVersionHistoryDAGFactory(PostgresVersionSuccessorFactory versionSuccessorFactory) {
@@ -28,17 +73,24 @@ public class PostgresVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
         List<DbDataContainer> predicates = new ArrayList<>();
         predicates.add(new DbDataContainer("item_id", Type.STRING, itemId));
 
-        QueryResults resultSet = connection.equalitySelect("VersionHistoryDAGs", DBClient.SELECT_STAR, predicates);
+        // the whole history in one round-trip, rather than one query per successor
+        Optional<QueryResults> resultSet = connection.queryIfPresent(RETRIEVE_HISTORY, predicates);
+
+        // an item without versions has an empty history rather than a missing one
+        VersionHistoryDAG<T> dag = VersionHistoryDAGFactory.construct(itemId);
+        if (!resultSet.isPresent()) {
+            return dag;
+        }
 
-        List<VersionSuccessor<T>> edges = new ArrayList<>();
+        QueryResults results = resultSet.get();
         do {
-            edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, resultSet.getString(2)));
-        } while (resultSet.next());
+            dag.addEdge(results.getString(2), results.getString(3), results.getString(1));
+        } while (results.next());
 
-        return VersionHistoryDAGFactory.construct(itemId, edges);
+        return dag;
     }
 
-    public void addEdge(GroundDBConnection connectionPointer, VersionHistoryDAG dag, String parentId, String childId, String itemId) throws GroundException {
+    public void addEdge(GroundDBConnection connectionPointer, String parentId, String childId, String itemId) throws GroundException {
         PostgresConnection connection = (PostgresConnection) connectionPointer;
 
         VersionSuccessor successor = this.versionSuccessorFactory.create(connection, parentId, childId);
@@ -49,6 +101,139 @@ public class PostgresVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
 
         connection.insert("VersionHistoryDAGs", insertions);
 
-        dag.addEdge(parentId, childId, successor.getId());
+        List<DbDataContainer> parentLeaf = new ArrayList<>();
+        parentLeaf.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        parentLeaf.add(new DbDataContainer("version_id", Type.STRING, parentId));
+
+        connection.delete("ItemLeaves", parentLeaf);
+
+        List<DbDataContainer> childLeaf = new ArrayList<>();
+        childLeaf.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        childLeaf.add(new DbDataContainer("version_id", Type.STRING, childId));
+
+        connection.insert("ItemLeaves", childLeaf);
+    }
+
+    public List<String> getLeaves(GroundDBConnection connectionPointer, String itemId) throws GroundException {
+        PostgresConnection connection = (PostgresConnection) connectionPointer;
+
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("item_id", Type.STRING, itemId));
+
+        List<String> leaves = new ArrayList<>();
+
+        Optional<QueryResults> resultSet = connection.equalitySelectIfPresent("ItemLeaves", DBClient.SELECT_STAR, predicates);
+
+        if (!resultSet.isPresent()) {
+            // either the item has no versions or its history predates ItemLeaves
+            Optional<QueryResults> backfilled = connection.queryIfPresent(BACKFILL_LEAVES, predicates);
+            if (!backfilled.isPresent()) {
+                return leaves;
+            }
+
+            QueryResults results = backfilled.get();
+            do {
+                leaves.add(results.getString(1));
+            } while (results.next());
+
+            return leaves;
+        }
+
+        QueryResults results = resultSet.get();
+        do {
+            leaves.add(results.getString(2));
+        } while (results.next());
+
+        return leaves;
+    }
+
+    public <T extends Version> List<VersionSuccessor<T>> getHistory(GroundDBConnection connectionPointer, String itemId, Optional<String> from, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = (PostgresConnection) connectionPointer;
+
+        List<DbDataContainer> parameters = new ArrayList<>();
+        parameters.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        parameters.add(new DbDataContainer("vfrom", Type.STRING, from.orElse("EMPTY")));
+        parameters.add(new DbDataContainer("depth", Type.INTEGER, depth));
+        parameters.add(new DbDataContainer("limit", Type.INTEGER, limit));
+        parameters.add(new DbDataContainer("offset", Type.INTEGER, offset));
+
+        List<VersionSuccessor<T>> history = new ArrayList<>();
+
+        Optional<QueryResults> resultSet = connection.queryIfPresent(RETRIEVE_HISTORY_PAGE, parameters);
+        if (!resultSet.isPresent()) {
+            return history;
+        }
+
+        QueryResults results = resultSet.get();
+        do {
+            history.add(VersionHistoryDAGFactory.constructSuccessor(results.getString(1), results.getString(2), results.getString(3)));
+        } while (results.next());
+
+        return history;
+    }
+
+    public List<String> getAncestors(GroundDBConnection connectionPointer, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = (PostgresConnection) connectionPointer;
+        this.checkInHistory(connection, itemId, versionId);
+
+        return this.getVersions(connection, RETRIEVE_ANCESTORS, versionId, depth, offset, limit);
+    }
+
+    public List<String> getDescendants(GroundDBConnection connectionPointer, String itemId, String versionId, int depth, int offset, int limit) throws GroundException {
+        PostgresConnection connection = (PostgresConnection) connectionPointer;
+        this.checkInHistory(connection, itemId, versionId);
+
+        return this.getVersions(connection, RETRIEVE_DESCENDANTS, versionId, depth, offset, limit);
+    }
+
+    public Optional<String> getLowestCommonAncestor(GroundDBConnection connectionPointer, String itemId, String firstId, String secondId) throws GroundException {
+        PostgresConnection connection = (PostgresConnection) connectionPointer;
+        this.checkInHistory(connection, itemId, firstId);
+        this.checkInHistory(connection, itemId, secondId);
+
+        List<DbDataContainer> parameters = new ArrayList<>();
+        parameters.add(new DbDataContainer("id", Type.STRING, firstId));
+        parameters.add(new DbDataContainer("depth", Type.INTEGER, VersionHistoryDAGFactory.MAX_DEPTH));
+        parameters.add(new DbDataContainer("id", Type.STRING, secondId));
+        parameters.add(new DbDataContainer("depth", Type.INTEGER, VersionHistoryDAGFactory.MAX_DEPTH));
+
+        Optional<QueryResults> resultSet = connection.queryIfPresent(RETRIEVE_LOWEST_COMMON_ANCESTOR, parameters);
+        if (!resultSet.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(resultSet.get().getString(1));
+    }
+
+    private List<String> getVersions(PostgresConnection connection, String sql, String versionId, int depth, int offset, int limit) throws GroundException {
+        List<DbDataContainer> parameters = new ArrayList<>();
+        parameters.add(new DbDataContainer("id", Type.STRING, versionId));
+        parameters.add(new DbDataContainer("depth", Type.INTEGER, depth));
+        parameters.add(new DbDataContainer("limit", Type.INTEGER, limit));
+        parameters.add(new DbDataContainer("offset", Type.INTEGER, offset));
+
+        List<String> versions = new ArrayList<>();
+
+        Optional<QueryResults> resultSet = connection.queryIfPresent(sql, parameters);
+        if (!resultSet.isPresent()) {
+            return versions;
+        }
+
+        QueryResults results = resultSet.get();
+        do {
+            versions.add(results.getString(1));
+        } while (results.next());
+
+        return versions;
+    }
+
+    private void checkInHistory(PostgresConnection connection, String itemId, String versionId) throws GroundException {
+        List<DbDataContainer> parameters = new ArrayList<>();
+        parameters.add(new DbDataContainer("item_id", Type.STRING, itemId));
+        parameters.add(new DbDataContainer("vto", Type.STRING, versionId));
+
+        if (!connection.queryIfPresent(IN_HISTORY, parameters).isPresent()) {
+            throw VersionHistoryDAGFactory.notInHistory(itemId, versionId);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package edu.berkeley.ground.commands;
+
+import edu.berkeley.ground.GroundServerConfiguration;
+import edu.berkeley.ground.db.CassandraClient;
+import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.PostgresClient;
+import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared setup for the commands that move a whole Ground instance in and out of NDJSON dumps. A dump has one line per
+ * row, {"table": ..., "row": {column: value, ...}}, with the tables in the order below so that every row is written
+ * after the rows it references.
+ */
+abstract class DumpCommand extends ConfiguredCommand<GroundServerConfiguration> {
+    static final List<String> TABLES = Arrays.asList(
+            "Versions",
+            "VersionSuccessors",
+            "Items",
+            "VersionHistoryDAGs",
+            "ItemLeaves",
+            "Structures",
+            "StructureVersions",
+            "StructureVersionItems",
+            "RichVersions",
+            "RichVersionExternalParameters",
+            "Tags",
+            "Edges",
+            "Nodes",
+            "Graphs",
+            "NodeVersions",
+            "EdgeVersions",
+            "GraphVersions",
+            "GraphVersionEdges",
+            "Workflows",
+            "Principals",
+            "LineageEdges",
+            "LineageEdgeVersions"
+    );
+
+    // created by the setup scripts in every database, so it is neither exported nor imported
+    static final String EMPTY_VERSION = "EMPTY";
+
+    static final int CHUNK_SIZE = 1000;
+
+    DumpCommand(String name, String description) {
+        super(name, description);
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+
+        subparser.addArgument("-d", "--dump")
+                .dest("dump")
+                .required(true)
+                .help("path of the NDJSON dump");
+    }
+
+    static DBClient openClient(Bootstrap<GroundServerConfiguration> bootstrap, GroundServerConfiguration configuration) throws GroundException {
+        switch (configuration.getDbType()) {
+            case "postgres":
+                return new PostgresClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(), configuration.getDbPool(), configuration.getClosureTable(), bootstrap.getMetricRegistry());
+
+            case "cassandra":
+                return new CassandraClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(), bootstrap.getMetricRegistry(), configuration.getAdjacencyCache());
+
+            // the gremlin backend stores versions as vertices and edges rather than in tables
+            default: throw new GroundException("Dumps are not supported for database type " + configuration.getDbType() + ".");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package edu.berkeley.ground.commands;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.berkeley.ground.GroundServerConfiguration;
+import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
+import edu.berkeley.ground.db.TabularConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes every table of the configured database to an NDJSON dump, reading each table through a cursor (postgres) or
+ * paged queries (cassandra).
+ */
+public class ExportCommand extends DumpCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportCommand.class);
+
+    public ExportCommand() {
+        super("export", "Exports the Ground metadata graph to an NDJSON dump");
+    }
+
+    @Override
+    protected void run(Bootstrap<GroundServerConfiguration> bootstrap, Namespace namespace, GroundServerConfiguration configuration) throws Exception {
+        ObjectMapper mapper = bootstrap.getObjectMapper();
+        DBClient dbClient = DumpCommand.openClient(bootstrap, configuration);
+
+        try (Writer writer = Files.newBufferedWriter(Paths.get(namespace.getString("dump")), StandardCharsets.UTF_8)) {
+            GroundDBConnection connection = dbClient.getConnection();
+
+            try {
+                for (String table : DumpCommand.TABLES) {
+                    long[] count = {0};
+
+                    ((TabularConnection) connection).scan(table, DumpCommand.CHUNK_SIZE, row -> {
+                        if (table.equals("Versions") && DumpCommand.EMPTY_VERSION.equals(row.get("id"))) {
+                            return;
+                        }
+
+                        Map<String, Object> line = new LinkedHashMap<>();
+                        line.put("table", table);
+                        line.put("row", row);
+
+                        try {
+                            writer.write(mapper.writeValueAsString(line));
+                            writer.write('\n');
+                        } catch (IOException e) {
+                            throw new GroundException(e);
+                        }
+
+                        count[0]++;
+                    });
+
+                    LOGGER.info("Exported " + count[0] + " rows from " + table + ".");
+                }
+
+                connection.commit();
+            } catch (GroundException e) {
+                connection.abort();
+
+                throw e;
+            }
+        } finally {
+            dbClient.close();
+        }
+    }
+}
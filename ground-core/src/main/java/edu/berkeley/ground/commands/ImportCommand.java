@@ -0,0 +1,109 @@
+package edu.berkeley.ground.commands;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.berkeley.ground.GroundServerConfiguration;
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
+import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.db.TabularConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads an NDJSON dump written by {@link ExportCommand} into the configured database, which must have been set up with
+ * the setup scripts and hold no other data. Rows are written a chunk of rows from the same table at a time: as one
+ * batch and transaction on postgres, and as pipelined single inserts on cassandra, since the rows of a chunk belong to
+ * many partitions.
+ */
+public class ImportCommand extends DumpCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportCommand.class);
+
+    public ImportCommand() {
+        super("import", "Imports an NDJSON dump into an empty Ground database");
+    }
+
+    @Override
+    protected void run(Bootstrap<GroundServerConfiguration> bootstrap, Namespace namespace, GroundServerConfiguration configuration) throws Exception {
+        ObjectMapper mapper = bootstrap.getObjectMapper();
+        DBClient dbClient = DumpCommand.openClient(bootstrap, configuration);
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(namespace.getString("dump")), StandardCharsets.UTF_8)) {
+            String table = null;
+            List<List<DbDataContainer>> chunk = new ArrayList<>();
+            long count = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                DumpLine dumpLine = mapper.readValue(line, DumpLine.class);
+
+                if (!dumpLine.table.equals(table) || chunk.size() == DumpCommand.CHUNK_SIZE) {
+                    ImportCommand.write(dbClient, table, chunk);
+                    chunk.clear();
+
+                    if (!dumpLine.table.equals(table)) {
+                        if (table != null) {
+                            LOGGER.info("Imported " + count + " rows into " + table + ".");
+                        }
+
+                        table = dumpLine.table;
+                        count = 0;
+                    }
+                }
+
+                List<DbDataContainer> row = new ArrayList<>();
+                for (Map.Entry<String, String> column : dumpLine.row.entrySet()) {
+                    row.add(new DbDataContainer(column.getKey(), Type.STRING, column.getValue()));
+                }
+
+                chunk.add(row);
+                count++;
+            }
+
+            ImportCommand.write(dbClient, table, chunk);
+            if (table != null) {
+                LOGGER.info("Imported " + count + " rows into " + table + ".");
+            }
+        } finally {
+            dbClient.close();
+        }
+    }
+
+    private static void write(DBClient dbClient, String table, List<List<DbDataContainer>> rows) throws GroundException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        GroundDBConnection connection = dbClient.getConnection();
+
+        try {
+            ((TabularConnection) connection).insertRows(table, rows);
+            connection.commit();
+        } catch (GroundException e) {
+            connection.abort();
+
+            throw e;
+        }
+    }
+
+    private static class DumpLine {
+        public String table;
+        public Map<String, String> row;
+    }
+}
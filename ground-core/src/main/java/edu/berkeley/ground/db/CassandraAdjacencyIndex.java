@@ -0,0 +1,296 @@
+package edu.berkeley.ground.db;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.berkeley.ground.AdjacencyCacheConfiguration;
+import edu.berkeley.ground.exceptions.GroundDBException;
+import edu.berkeley.ground.util.CompactGraph;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * The outgoing edges of every node version, stored in the NodeVersionAdjacency table and written along with each edge
+ * version. Transitive closures are computed breadth-first, reading the adjacency lists of a whole frontier in parallel,
+ * so nothing has to be loaded when the server starts.
+ *
+ * The adjacency lists that have been read can optionally be kept in memory, in a CompactGraph over interned int ids.
+ * Since edges are only ever added, a cached list can only be missing edges written through another server; entries
+ * expire so that those become visible. An expired list is read again and merged into the graph, which ignores the edges
+ * it already has. The graph itself only grows, so once it holds more than the configured number of node versions it is
+ * dropped, and the lists are read again as traversals need them.
+ */
+class CassandraAdjacencyIndex {
+    private static final String INSERT = "insert into NodeVersionAdjacency (source, target) values (?, ?);";
+    private static final String SELECT = "select target from NodeVersionAdjacency where source = ?;";
+
+    // number of adjacency list reads issued at once while expanding a frontier
+    private static final int MAX_IN_FLIGHT = 64;
+
+    private final CassandraClient client;
+    private final Session session;
+
+    // null when the local cache is disabled
+    private final AdjacencyCacheConfiguration cacheConfiguration;
+    private final AtomicReference<LocalGraph> local;
+
+    // reused across closures on the same thread; every traversal clears the bits it set
+    private final ThreadLocal<BitSet> visitedSets = ThreadLocal.withInitial(BitSet::new);
+
+    CassandraAdjacencyIndex(CassandraClient client, Session session, AdjacencyCacheConfiguration cacheConfiguration) throws GroundDBException {
+        this.client = client;
+        this.session = session;
+
+        if (cacheConfiguration.isEnabled()) {
+            this.cacheConfiguration = cacheConfiguration;
+            this.local = new AtomicReference<>(new LocalGraph(cacheConfiguration));
+        } else {
+            this.cacheConfiguration = null;
+            this.local = null;
+        }
+    }
+
+    /**
+     * Returns the insert of the edge into NodeVersionAdjacency, for the connection to send along with its other writes.
+     * The edge is only added to the local cache by addCommittedEdge, once the write has succeeded.
+     */
+    Statement insertEdge(String source, String target) throws GroundDBException {
+        return new BoundStatement(this.client.prepare(INSERT)).bind(source, target);
+    }
+
+    /**
+     * Adds an edge whose insert has been applied to the local cache, if there is one.
+     */
+    void addCommittedEdge(String source, String target) {
+        if (this.local == null) {
+            return;
+        }
+
+        LocalGraph local = this.local.get();
+        local.graph.addEdge(source, target);
+        this.evictIfFull(local);
+    }
+
+    /**
+     * Returns the node versions reachable from start, including start itself, in breadth-first order.
+     */
+    List<String> transitiveClosure(String start) throws GroundDBException {
+        if (this.local == null) {
+            return this.uncachedTransitiveClosure(start);
+        }
+
+        // vertex ids belong to one graph, so the whole traversal uses the graph it started with even if it is dropped
+        LocalGraph local = this.local.get();
+        Frontier frontier = new Frontier(this.visitedSets.get(), local.graph.addVertex(start));
+
+        try {
+            int levelStart = 0;
+
+            while (levelStart < frontier.size) {
+                int levelEnd = frontier.size;
+                this.load(local, frontier.vertices, levelStart, levelEnd);
+
+                for (int index = levelStart; index < levelEnd; index++) {
+                    local.graph.forEachSuccessor(frontier.vertices[index], frontier);
+                }
+
+                levelStart = levelEnd;
+            }
+
+            List<String> result = new ArrayList<>(frontier.size);
+            for (int index = 0; index < frontier.size; index++) {
+                result.add(local.graph.getName(frontier.vertices[index]));
+            }
+
+            return result;
+        } finally {
+            frontier.clear();
+            this.evictIfFull(local);
+        }
+    }
+
+    /**
+     * Returns whether target can be reached from start by following at least one edge. The frontier is expanded a
+     * level at a time, like a closure, but the traversal stops as soon as target is reached.
+     */
+    boolean reaches(String start, String target) throws GroundDBException {
+        Set<String> visited = new HashSet<>();
+        List<String> frontier = Collections.singletonList(start);
+
+        while (!frontier.isEmpty()) {
+            Map<String, List<String>> adjacency = this.adjacency(frontier);
+            List<String> next = new ArrayList<>();
+
+            for (String source : frontier) {
+                for (String successor : adjacency.get(source)) {
+                    if (successor.equals(target)) {
+                        return true;
+                    }
+
+                    if (visited.add(successor)) {
+                        next.add(successor);
+                    }
+                }
+            }
+
+            frontier = next;
+        }
+
+        return false;
+    }
+
+    // the successors of each of the sources, from the local cache where there is one
+    private Map<String, List<String>> adjacency(List<String> sources) throws GroundDBException {
+        if (this.local == null) {
+            return this.fetch(sources);
+        }
+
+        LocalGraph local = this.local.get();
+
+        int[] vertices = new int[sources.size()];
+        for (int index = 0; index < vertices.length; index++) {
+            vertices[index] = local.graph.addVertex(sources.get(index));
+        }
+
+        this.load(local, vertices, 0, vertices.length);
+
+        Map<String, List<String>> result = new HashMap<>();
+        for (String source : sources) {
+            result.put(source, local.graph.getSuccessors(source));
+        }
+
+        this.evictIfFull(local);
+        return result;
+    }
+
+    private List<String> uncachedTransitiveClosure(String start) throws GroundDBException {
+        Set<String> visited = new LinkedHashSet<>();
+        visited.add(start);
+
+        List<String> frontier = Collections.singletonList(start);
+
+        while (!frontier.isEmpty()) {
+            Map<String, List<String>> adjacency = this.fetch(frontier);
+            List<String> next = new ArrayList<>();
+
+            for (String source : frontier) {
+                for (String target : adjacency.get(source)) {
+                    if (visited.add(target)) {
+                        next.add(target);
+                    }
+                }
+            }
+
+            frontier = next;
+        }
+
+        return new ArrayList<>(visited);
+    }
+
+    // reads the adjacency lists of the given vertices that are not cached yet into the graph
+    private void load(LocalGraph local, int[] vertices, int from, int to) throws GroundDBException {
+        List<String> missing = new ArrayList<>();
+
+        for (int index = from; index < to; index++) {
+            String source = local.graph.getName(vertices[index]);
+
+            if (local.loadedSources.getIfPresent(source) == null) {
+                missing.add(source);
+            }
+        }
+
+        for (Map.Entry<String, List<String>> entry : this.fetch(missing).entrySet()) {
+            local.graph.addEdges(entry.getKey(), entry.getValue());
+            local.loadedSources.put(entry.getKey(), Boolean.TRUE);
+        }
+    }
+
+    // replaces the graph with an empty one once it holds more node versions than the configured maximum
+    private void evictIfFull(LocalGraph local) {
+        if (local.graph.getVertexCount() > this.cacheConfiguration.getMaxSize()) {
+            this.local.compareAndSet(local, new LocalGraph(this.cacheConfiguration));
+        }
+    }
+
+    private Map<String, List<String>> fetch(List<String> sources) throws GroundDBException {
+        Map<String, List<String>> result = new HashMap<>();
+
+        for (int start = 0; start < sources.size(); start += MAX_IN_FLIGHT) {
+            List<String> slice = sources.subList(start, Math.min(start + MAX_IN_FLIGHT, sources.size()));
+            List<ResultSetFuture> futures = new ArrayList<>(slice.size());
+
+            for (String source : slice) {
+                futures.add(this.session.executeAsync(new BoundStatement(this.client.prepare(SELECT)).bind(source)));
+            }
+
+            for (int index = 0; index < slice.size(); index++) {
+                List<String> targets = new ArrayList<>();
+                for (Row row : CassandraClient.await(futures.get(index))) {
+                    targets.add(row.getString(0));
+                }
+
+                result.put(slice.get(index), targets);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * The cached adjacency lists, and which of them have been read. They are only ever replaced together, so a source
+     * that is marked as loaded always has its edges in the graph.
+     */
+    private static final class LocalGraph {
+        private final CompactGraph graph = new CompactGraph();
+        private final Cache<String, Boolean> loadedSources;
+
+        LocalGraph(AdjacencyCacheConfiguration cacheConfiguration) {
+            this.loadedSources = CacheBuilder.newBuilder()
+                    .expireAfterWrite(cacheConfiguration.getExpireAfterWrite().toMilliseconds(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+    }
+
+    /**
+     * The vertices visited by a traversal, in the order they were reached. Successors passed to accept() are appended
+     * unless they have been visited already.
+     */
+    private static final class Frontier implements IntConsumer {
+        private final BitSet visited;
+        private int[] vertices = new int[16];
+        private int size = 0;
+
+        Frontier(BitSet visited, int start) {
+            this.visited = visited;
+            this.accept(start);
+        }
+
+        @Override
+        public void accept(int vertex) {
+            if (this.visited.get(vertex)) {
+                return;
+            }
+
+            this.visited.set(vertex);
+
+            if (this.size == this.vertices.length) {
+                this.vertices = Arrays.copyOf(this.vertices, this.vertices.length * 2);
+            }
+            this.vertices[this.size++] = vertex;
+        }
+
+        // leaves the shared visited set empty for the next traversal on this thread
+        void clear() {
+            for (int index = 0; index < this.size; index++) {
+                this.visited.clear(this.vertices[index]);
+            }
+        }
+    }
+}
@@ -1,63 +1,267 @@
 package edu.berkeley.ground.db;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.berkeley.ground.AdjacencyCacheConfiguration;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.exceptions.GroundDBException;
 import edu.berkeley.ground.exceptions.GroundException;
-import edu.berkeley.ground.util.JGraphTUtils;
-import org.jgrapht.*;
-import org.jgrapht.graph.DefaultEdge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 public class CassandraClient implements DBClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(CassandraClient.class);
 
+    // the factories only use a handful of statement shapes, so this is never expected to evict
+    private static final int STATEMENT_CACHE_SIZE = 1024;
+
+    private static final int MAX_BATCH_SIZE = 100;
+
+    // number of single-partition reads issued at once by selectIn, and of unconfirmed writes a connection may have
+    private static final int MAX_IN_FLIGHT = 64;
+
     private Cluster cluster;
 
-    private String keyspace;
+    // sessions are thread-safe and expensive to create, so all connections share this one
+    private Session session;
+
+    private Cache<String, PreparedStatement> preparedStatements;
+    private Timer prepareTimer;
 
-    private DirectedGraph<String, DefaultEdge> graph;
+    private CassandraAdjacencyIndex adjacencyIndex;
+
+    private final ConcurrentMap<StatementShape, String> insertStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StatementShape, String> selectStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StatementShape, String> deleteStatements = new ConcurrentHashMap<>();
 
     public CassandraClient(String host, int port, String dbName, String username, String password) throws GroundDBException {
+        this(host, port, dbName, username, password, new MetricRegistry(), new AdjacencyCacheConfiguration());
+    }
+
+    public CassandraClient(String host, int port, String dbName, String username, String password,
+                           MetricRegistry metricRegistry, AdjacencyCacheConfiguration adjacencyCache) throws GroundDBException {
         cluster = Cluster.builder()
                 .addContactPoint(host)
                 .withAuthProvider(new PlainTextAuthProvider(username, password))
                 .build();
 
-        this.keyspace = dbName;
+        this.session = this.cluster.connect(dbName);
 
-        ResultSet resultSet = this.cluster.connect(this.keyspace).execute("select id from nodeversions;");
-        this.graph = JGraphTUtils.createGraph();
+        this.preparedStatements = CacheBuilder.newBuilder()
+                .maximumSize(CassandraClient.STATEMENT_CACHE_SIZE)
+                .recordStats()
+                .build();
 
-        for (Row r : resultSet.all()) {
-            JGraphTUtils.addVertex(graph, r.getString(0));
-        }
+        this.prepareTimer = metricRegistry.timer(MetricRegistry.name(CassandraClient.class, "statements", "prepare"));
+        metricRegistry.register(MetricRegistry.name(CassandraClient.class, "statements", "hit-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                CacheStats stats = preparedStatements.stats();
+                return Ratio.of(stats.hitCount(), stats.requestCount());
+            }
+        });
 
-        resultSet = this.cluster.connect(this.keyspace).execute("select endpoint_one, endpoint_two from edgeversions;");
+        this.adjacencyIndex = new CassandraAdjacencyIndex(this, this.session, adjacencyCache);
+    }
 
-        for (Row r : resultSet.all()) {
-            JGraphTUtils.addEdge(graph, r.getString(0), r.getString(1));
+    public CassandraConnection getConnection() throws GroundDBException {
+        return new CassandraConnection(this.session);
+    }
+
+    /**
+     * Returns the prepared form of a statement, preparing it on the cluster only the first time its shape (table and
+     * column list) is seen.
+     */
+    PreparedStatement prepare(String cql) throws GroundDBException {
+        try {
+            return this.preparedStatements.get(cql, () -> {
+                try (Timer.Context ignored = this.prepareTimer.time()) {
+                    return this.session.prepare(cql);
+                }
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new GroundDBException(e.getCause().getClass().toString() + ": " + e.getCause().getMessage());
         }
     }
 
-    public CassandraConnection getConnection() throws GroundDBException {
-        return new CassandraConnection(this.cluster.connect(this.keyspace), this.graph);
+    public void close() {
+        this.cluster.close();
+    }
+
+    /**
+     * Returns the CQL text for an insert of the given columns into a table, built once per shape so that writes don't
+     * rebuild the string that keys the prepared statement cache.
+     */
+    private String insertCql(String table, List<DbDataContainer> insertValues) {
+        StatementShape shape = new StatementShape(table, StatementShape.fields(insertValues), Collections.emptyList());
+
+        return this.insertStatements.computeIfAbsent(shape, key -> {
+            StringJoiner columns = new StringJoiner(", ", "insert into " + key.table + "(", ")");
+            StringJoiner values = new StringJoiner(", ", " values (", ");");
+
+            for (String column : key.columns) {
+                columns.add(column);
+                values.add("?");
+            }
+
+            return columns.toString() + values.toString();
+        });
     }
 
-    public class CassandraConnection extends GroundDBConnection {
+    /**
+     * Returns the CQL text for a select of the given projection from a table filtered by equality predicates, built
+     * once per shape.
+     */
+    private String selectCql(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) {
+        StatementShape shape = new StatementShape(table, projection, StatementShape.fields(predicatesAndValues));
+
+        return this.selectStatements.computeIfAbsent(shape, key -> {
+            StringBuilder select = new StringBuilder("select ")
+                    .append(String.join(", ", key.columns))
+                    .append(" from ")
+                    .append(key.table);
+
+            if (!key.predicates.isEmpty()) {
+                StringJoiner predicates = new StringJoiner(" and ", " where ", "");
+                key.predicates.forEach(predicate -> predicates.add(predicate + " = ?"));
+
+                select.append(predicates.toString());
+            }
+
+            return select.append(";").toString();
+        });
+    }
+
+    /**
+     * Returns the CQL text for a delete from a table filtered by equality predicates, built once per shape.
+     */
+    private String deleteCql(String table, List<DbDataContainer> predicatesAndValues) {
+        StatementShape shape = new StatementShape(table, Collections.emptyList(), StatementShape.fields(predicatesAndValues));
+
+        return this.deleteStatements.computeIfAbsent(shape, key -> {
+            StringJoiner predicates = new StringJoiner(" and ", "delete from " + key.table + " where ", ";");
+            key.predicates.forEach(predicate -> predicates.add(predicate + " = ?"));
+
+            return predicates.toString();
+        });
+    }
+
+    /**
+     * Writes are pipelined: each insert or delete is sent with executeAsync and the connection moves on, keeping at most
+     * MAX_IN_FLIGHT writes unconfirmed. The writes of one logical create are independent rows, and the driver assigns
+     * client-side timestamps in issue order, so they can be applied in any order; where the order matters, the caller
+     * flushes between them. Every pending write is awaited before a read, so a connection sees its own writes, and by
+     * commit(), which reports the first write that failed.
+     */
+    public class CassandraConnection extends GroundDBConnection implements TabularConnection {
         private Session session;
-        private DirectedGraph<String, DefaultEdge> graph;
 
-        public CassandraConnection(Session session, DirectedGraph<String, DefaultEdge> graph) {
+        // writes that haven't been confirmed yet, oldest first
+        private final Deque<ResultSetFuture> pendingWrites = new ArrayDeque<>();
+
+        // the (source, target) pairs of the adjacency writes that haven't been confirmed yet; they are added to the
+        // local adjacency cache only once flush() has seen every write succeed
+        private final List<String[]> pendingEdges = new ArrayList<>();
+
+        public CassandraConnection(Session session) {
             this.session = session;
-            this.graph = graph;
         }
 
-        public void insert(String table, List<DbDataContainer> insertValues) {
-            // hack to keep JGraphT up to date
+        public void insert(String table, List<DbDataContainer> insertValues) throws GroundDBException {
+            this.trackEdgeVersion(table, insertValues);
+
+            BoundStatement statement = new BoundStatement(CassandraClient.this.prepare(CassandraClient.this.insertCql(table, insertValues)));
+
+            int index = 0;
+            for (DbDataContainer container : insertValues) {
+                CassandraClient.setValue(statement, container.getValue(), container.getType(), index);
+
+                index++;
+            }
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Executing update: " + statement.preparedStatement().getQueryString() + ".");
+            }
+
+            this.write(statement);
+        }
+
+        /**
+         * Inserts many rows into a table using unlogged batches. Every row must set the same columns in the same order.
+         * Batches are only atomic within a partition, so this is intended for rows that share a partition key (e.g.,
+         * the tags of one rich version).
+         */
+        public void insertBatch(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            PreparedStatement preparedStatement = CassandraClient.this.prepare(CassandraClient.this.insertCql(table, rows.get(0)));
+            BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+
+            for (List<DbDataContainer> row : rows) {
+                this.trackEdgeVersion(table, row);
+
+                BoundStatement statement = new BoundStatement(preparedStatement);
+
+                int index = 0;
+                for (DbDataContainer container : row) {
+                    CassandraClient.setValue(statement, container.getValue(), container.getType(), index);
+
+                    index++;
+                }
+
+                batch.add(statement);
+
+                // keep each batch under Cassandra's batch size thresholds
+                if (batch.size() == CassandraClient.MAX_BATCH_SIZE) {
+                    this.write(batch);
+                    batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+                }
+            }
+
+            if (batch.size() > 0) {
+                this.write(batch);
+            }
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Executed batch of " + rows.size() + " updates: " + preparedStatement.getQueryString() + ".");
+            }
+        }
+
+        /**
+         * Inserts rows that may span many partitions, e.g., a chunk of a dump. A multi-partition batch makes one
+         * coordinator fan the whole batch out, so the rows are pipelined as single inserts instead.
+         */
+        public void insertRows(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+            for (List<DbDataContainer> row : rows) {
+                this.insert(table, row);
+            }
+        }
+
+        // keeps the adjacency index in step with EdgeVersions
+        private void trackEdgeVersion(String table, List<DbDataContainer> insertValues) throws GroundDBException {
             if (table.equals("EdgeVersions")) {
                 String nvFromId = null;
                 String nvToId = null;
@@ -72,55 +276,141 @@ public class CassandraClient implements DBClient {
                     }
                 }
 
-                JGraphTUtils.addEdge(graph, nvFromId, nvToId);
+                this.write(CassandraClient.this.adjacencyIndex.insertEdge(nvFromId, nvToId));
+                this.pendingEdges.add(new String[] {nvFromId, nvToId});
             }
+        }
 
-            String insertString = "insert into " + table + "(";
-            String valuesString = "values (";
+        /**
+         * Deletes the rows of a table that match all of the given equality predicates. The predicates must cover the
+         * primary key.
+         */
+        public void delete(String table, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            BoundStatement statement = new BoundStatement(CassandraClient.this.prepare(CassandraClient.this.deleteCql(table, predicatesAndValues)));
 
-            for (DbDataContainer container : insertValues) {
-                insertString += container.getField() + ", ";
-                valuesString += "?, ";
+            int index = 0;
+            for (DbDataContainer container : predicatesAndValues) {
+                CassandraClient.setValue(statement, container.getValue(), container.getType(), index);
+
+                index++;
             }
 
-            insertString = insertString.substring(0, insertString.length() - 2) + ")";
-            valuesString = valuesString.substring(0, valuesString.length() - 2) + ")";
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Executing update: " + statement.preparedStatement().getQueryString() + ".");
+            }
 
-            String prepString = insertString + valuesString + ";";
+            this.write(statement);
+        }
 
-            BoundStatement statement = new BoundStatement(session.prepare(prepString));
+        private void write(Statement statement) throws GroundDBException {
+            if (this.pendingWrites.size() == CassandraClient.MAX_IN_FLIGHT) {
+                try {
+                    CassandraClient.await(this.pendingWrites.poll());
+                } catch (GroundDBException e) {
+                    this.pendingEdges.clear();
+                    throw e;
+                }
+            }
 
-            int index = 0;
-            for (DbDataContainer container : insertValues) {
-                CassandraClient.setValue(statement, container.getValue(), container.getType(), index);
+            this.pendingWrites.add(this.session.executeAsync(statement));
+        }
 
-                index++;
+        /**
+         * Waits for every pending write, even after one has failed, and throws the first failure; if they all
+         * succeeded, the edges they added are cached. Callers whose writes must be applied in order flush between them.
+         */
+        public void flush() throws GroundDBException {
+            GroundDBException failure = null;
+
+            while (!this.pendingWrites.isEmpty()) {
+                try {
+                    CassandraClient.await(this.pendingWrites.poll());
+                } catch (GroundDBException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
             }
 
-            LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
+            if (failure != null) {
+                // some of the adjacency writes may not have been applied, so none of them are cached
+                this.pendingEdges.clear();
+                throw failure;
+            }
 
-            this.session.execute(statement);
+            for (String[] edge : this.pendingEdges) {
+                CassandraClient.this.adjacencyIndex.addCommittedEdge(edge[0], edge[1]);
+            }
+            this.pendingEdges.clear();
         }
 
-        public QueryResults equalitySelect(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
-            String select = "select ";
-            for (String item : projection) {
-                select += item + ", ";
+        public void scan(String table, int fetchSize, RowHandler handler) throws GroundException {
+            this.flush();
+
+            // the driver fetches the next page as the iteration reaches the end of the current one
+            Statement statement = new SimpleStatement("select * from " + table + ";").setFetchSize(fetchSize);
+            ResultSet resultSet = this.session.execute(statement);
+            ColumnDefinitions columns = resultSet.getColumnDefinitions();
+
+            for (Row result : resultSet) {
+                Map<String, String> row = new LinkedHashMap<>();
+                for (int index = 0; index < columns.size(); index++) {
+                    row.put(columns.getName(index), result.getString(index));
+                }
+
+                handler.handle(row);
             }
+        }
+
+        public void selectIn(String table, String field, Collection<String> values, RowHandler handler) throws GroundException {
+            this.flush();
 
-            select = select.substring(0, select.length() - 2) + " from " + table;
+            PreparedStatement preparedStatement = CassandraClient.this.prepare("select * from " + table + " where " + field + " = ?;");
+            List<String> keys = new ArrayList<>(values);
 
-            if (predicatesAndValues.size() > 0) {
-                select += " where ";
+            // one read per partition, issued in parallel, rather than an IN over many partitions that a single
+            // coordinator has to fan out
+            for (int start = 0; start < keys.size(); start += CassandraClient.MAX_IN_FLIGHT) {
+                List<String> slice = keys.subList(start, Math.min(start + CassandraClient.MAX_IN_FLIGHT, keys.size()));
+                List<ResultSetFuture> futures = new ArrayList<>(slice.size());
 
-                for (DbDataContainer container : predicatesAndValues) {
-                    select += container.getField() + " = ? and ";
+                for (String key : slice) {
+                    futures.add(this.session.executeAsync(new BoundStatement(preparedStatement).bind(key)));
                 }
 
-                select = select.substring(0, select.length() - 4);
+                for (ResultSetFuture future : futures) {
+                    ResultSet resultSet = CassandraClient.await(future);
+                    ColumnDefinitions columns = resultSet.getColumnDefinitions();
+
+                    for (Row result : resultSet) {
+                        Map<String, String> row = new LinkedHashMap<>();
+                        for (int index = 0; index < columns.size(); index++) {
+                            row.put(columns.getName(index), result.getString(index));
+                        }
+
+                        handler.handle(row);
+                    }
+                }
             }
+        }
 
-            BoundStatement statement = new BoundStatement(this.session.prepare(select + ";"));
+        public QueryResults equalitySelect(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            Optional<QueryResults> results = this.equalitySelectIfPresent(table, projection, predicatesAndValues);
+
+            if (!results.isPresent()) {
+                throw new GroundDBException("No results found for query: " + CassandraClient.this.selectCql(table, projection, predicatesAndValues));
+            }
+
+            return results.get();
+        }
+
+        /**
+         * Like equalitySelect, but returns an empty Optional instead of throwing if there are no results.
+         */
+        public Optional<QueryResults> equalitySelectIfPresent(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            this.flush();
+
+            BoundStatement statement = new BoundStatement(CassandraClient.this.prepare(CassandraClient.this.selectCql(table, projection, predicatesAndValues)));
 
             int index = 0;
             for (DbDataContainer container : predicatesAndValues) {
@@ -129,29 +419,53 @@ public class CassandraClient implements DBClient {
                 index++;
             }
 
-            LOGGER.info("Executing query: " + statement.preparedStatement().getQueryString() + ".");
-
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Executing query: " + statement.preparedStatement().getQueryString() + ".");
+            }
 
             ResultSet resultSet = this.session.execute(statement);
 
             if(resultSet == null || resultSet.isExhausted()) {
-                throw new GroundDBException("No results found for query: " + statement.toString());
+                return Optional.empty();
             }
 
-            return new CassandraResults(resultSet);
+            return Optional.of(new CassandraResults(resultSet));
         }
 
         public List<String> transitiveClosure(String nodeVersionId) throws GroundException {
+            this.flush();
 
-            return JGraphTUtils.iterate(this.graph, nodeVersionId);
+            return CassandraClient.this.adjacencyIndex.transitiveClosure(nodeVersionId);
+        }
+
+        public boolean reaches(String fromId, String toId) throws GroundException {
+            this.flush();
+
+            return CassandraClient.this.adjacencyIndex.reaches(fromId, toId);
         }
 
         public void commit() throws GroundDBException {
-            // do nothing; Cassandra doesn't have txns
+            // Cassandra doesn't have txns, but the writes must have been applied before the create returns
+            this.flush();
         }
 
         public void abort() throws GroundDBException {
-            // do nothing; Cassandra doesn't have txns
+            // Cassandra doesn't have txns; wait for the writes already sent so they don't outlive the request, but
+            // leave the caller's exception as the one that is reported
+            try {
+                this.flush();
+            } catch (GroundDBException e) {
+                LOGGER.error("Write failed during abort: " + e.getMessage());
+            }
+        }
+    }
+
+    // waits for a read or write, turning the driver's unchecked exceptions into GroundDBExceptions
+    static ResultSet await(ResultSetFuture future) throws GroundDBException {
+        try {
+            return future.getUninterruptibly();
+        } catch (DriverException e) {
+            throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
         }
     }
 
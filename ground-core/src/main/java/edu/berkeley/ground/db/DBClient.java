@@ -12,11 +12,21 @@ public interface DBClient {
 
     GroundDBConnection getConnection() throws GroundDBException;
 
+    /**
+     * Releases the resources held by the client (connection pools, sessions, open graphs). Called once on shutdown.
+     */
+    void close() throws GroundDBException;
+
     abstract class GroundDBConnection {
         public abstract void commit() throws GroundDBException;
 
         public abstract void abort() throws GroundDBException;
 
         public abstract List<String> transitiveClosure(String nodeVersionId) throws GroundException;
+
+        /**
+         * Returns whether there is a path of edge versions from the node version fromId to the node version toId.
+         */
+        public abstract boolean reaches(String fromId, String toId) throws GroundException;
     }
 }
@@ -1,27 +1,124 @@
 package edu.berkeley.ground.db;
 
+import com.thinkaurelius.titan.diskstorage.locking.PermanentLockingException;
+import com.thinkaurelius.titan.diskstorage.locking.TemporaryLockingException;
 import edu.berkeley.ground.exceptions.GroundDBException;
+import edu.berkeley.ground.exceptions.GroundException;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class GremlinClient implements DBClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GremlinClient.class);
+
+    // attempts at a transaction that keeps conflicting with concurrent ones, and the base of the backoff between them
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BACKOFF_MILLIS = 20;
+
     private Graph graph;
 
-    public GremlinClient() {
-        this.graph = GraphFactory.open("conf/titan-cassandra.properties");
+    public GremlinClient() throws GroundDBException {
+        this(GraphFactory.open("conf/titan-cassandra.properties"));
+
+        GremlinSchema.bootstrap(this.graph);
+    }
+
+    /**
+     * Wraps graph as it is, without declaring the schema.
+     */
+    GremlinClient(Graph graph) {
+        this.graph = graph;
     }
 
+    /**
+     * Returns a connection with a transaction of its own. Titan binds its implicit transaction to the calling thread,
+     * so concurrent requests on pooled threads would otherwise share and commit each other's state; a threaded
+     * transaction belongs to the connection alone. Graphs without threaded transactions fall back to the implicit one.
+     */
     public GremlinConnection getConnection() throws GroundDBException {
+        Graph.Features.GraphFeatures features = this.graph.features().graph();
+
+        if (features.supportsTransactions() && features.supportsThreadedTransactions()) {
+            return new GremlinConnection(this.graph.tx().createThreadedTx());
+        }
+
         return new GremlinConnection(this.graph);
     }
 
+    /**
+     * Runs work on a new connection and returns its result. Work is expected to commit; its transaction is rolled back
+     * if it throws or returns without committing, so that the transaction is always closed. If the transaction failed
+     * because a concurrent one held a conflicting lock, work is run again on a fresh connection after a randomized
+     * backoff, up to MAX_ATTEMPTS times.
+     */
+    public <T> T runInTransaction(TransactionalWork<T> work) throws GroundException {
+        for (int attempt = 1; ; attempt++) {
+            GremlinConnection connection = this.getConnection();
+
+            try {
+                T result = work.run(connection);
+                connection.close();
+
+                return result;
+            } catch (GroundException | RuntimeException e) {
+                connection.close();
+
+                if (attempt == MAX_ATTEMPTS || !GremlinClient.isConflict(e)) {
+                    throw e;
+                }
+
+                LOGGER.info("Retrying transaction after conflict (attempt " + attempt + "): " + e.getMessage());
+                GremlinClient.backoff(attempt);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface TransactionalWork<T> {
+        T run(GremlinConnection connection) throws GroundException;
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TemporaryLockingException || cause instanceof PermanentLockingException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void backoff(int attempt) throws GroundDBException {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new GroundDBException(e);
+        }
+    }
+
+    public void close() throws GroundDBException {
+        try {
+            this.graph.close();
+        } catch (Exception e) {
+            throw new GroundDBException(e);
+        }
+    }
+
     public class GremlinConnection extends GroundDBConnection {
         private Graph graph;
 
@@ -66,6 +163,33 @@ public class GremlinClient implements DBClient {
             return null;
         }
 
+        /**
+         * Retrieves all of the vertices whose field matches one of the given values in a single traversal.
+         */
+        public List<Vertex> getVertices(String field, Collection<?> values) {
+            List<Vertex> result = new ArrayList<>();
+
+            if (!values.isEmpty()) {
+                this.graph.traversal().V().has(field, P.within(values)).forEachRemaining(result::add);
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves all of the vertices with the given label whose field matches one of the given values, leaving out
+         * vertices of other types that happen to share a value.
+         */
+        public List<Vertex> getVertices(String label, String field, Collection<?> values) {
+            List<Vertex> result = new ArrayList<>();
+
+            if (!values.isEmpty()) {
+                this.graph.traversal().V().hasLabel(label).has(field, P.within(values)).forEachRemaining(result::add);
+            }
+
+            return result;
+        }
+
         public Edge getEdge(List<DbDataContainer> predicates) {
             GraphTraversal traversal = this.graph.traversal().E();
 
@@ -80,24 +204,115 @@ public class GremlinClient implements DBClient {
             return null;
         }
 
-        public List<Edge> getDescendantEdgesWithLabel(Vertex vertex, String label) {
+        /**
+         * Returns every edge with the given label that can be reached from vertex by following such edges, each once,
+         * in a single traversal. The dedup() inside repeat() keeps the vertices visited so far, so shared subgraphs
+         * are expanded once and a cycle ends the traversal instead of looping. Edges are read lazily as the iterator
+         * advances, so it must be consumed before the connection commits.
+         */
+        public Iterator<Edge> getDescendantEdgesWithLabel(Vertex vertex, String label) {
+            return this.graph.traversal().V(vertex.id())
+                    .emit()
+                    .repeat(__.out(label).dedup())
+                    .dedup()
+                    .outE(label);
+        }
+
+        /**
+         * Returns a page of the edges with the given label that are at most depth steps from vertex, i.e., that leave
+         * a vertex at most depth - 1 steps away, in breadth-first order.
+         */
+        public List<Edge> getDescendantEdgesWithLabel(Vertex vertex, String label, int depth, int offset, int limit) {
+            List<Object> vertexIds = new ArrayList<>();
+            vertexIds.add(vertex.id());
+            vertexIds.addAll(this.getVertexIdsWithinDepth(vertex.id(), label, Direction.OUT, depth - 1));
+
             List<Edge> result = new ArrayList<>();
-            LinkedList<Vertex> queue = new LinkedList<>();
-            queue.add(vertex);
+            this.graph.traversal().V(vertexIds.toArray())
+                    .outE(label)
+                    .range(offset, (long) offset + limit)
+                    .forEachRemaining(result::add);
+
+            return result;
+        }
 
-            while(!queue.isEmpty()) {
-                Vertex current = queue.pop();
-                Iterator<Edge> currentEdges = current.edges(Direction.OUT, label);
+        /**
+         * Returns a page of the ids of the vertices at most depth steps from the vertex with the given id, following
+         * edges with the given label in the given direction, in breadth-first order. The start vertex and the vertex
+         * with id excludedId are left out.
+         */
+        public List<String> getVertexIdsWithinDepth(String id, String label, Direction direction, int depth, String excludedId, int offset, int limit) {
+            List<String> result = new ArrayList<>();
+            GraphTraversal<Vertex, Object> start = this.graph.traversal().V().has("id", id).id();
+
+            if (!start.hasNext()) {
+                return result;
+            }
+
+            List<Object> vertexIds = this.getVertexIdsWithinDepth(start.next(), label, direction, depth);
+            if (vertexIds.isEmpty()) {
+                return result;
+            }
+
+            this.graph.traversal().V(vertexIds.toArray())
+                    .has("id", P.neq(excludedId))
+                    .range(offset, (long) offset + limit)
+                    .values("id")
+                    .forEachRemaining(value -> result.add((String) value));
+
+            return result;
+        }
 
-                currentEdges.forEachRemaining(edge -> {
-                    queue.add(edge.inVertex());
-                    result.add(edge);
-                });
+        /**
+         * Returns the element ids of the vertices at most depth steps from the vertex with element id startId, other
+         * than that vertex, in breadth-first order. Each step is one traversal from the whole frontier, and a vertex is
+         * expanded only the first time it is reached, so a history with many merges costs one read per vertex instead
+         * of one per path, and every vertex is found at its shortest distance.
+         */
+        private List<Object> getVertexIdsWithinDepth(Object startId, String label, Direction direction, int depth) {
+            Set<Object> visited = new HashSet<>();
+            visited.add(startId);
+
+            List<Object> result = new ArrayList<>();
+            List<Object> frontier = Collections.singletonList(startId);
+
+            for (int step = 0; step < depth && !frontier.isEmpty(); step++) {
+                List<Object> next = new ArrayList<>();
+
+                this.graph.traversal().V(frontier.toArray())
+                        .to(direction, label)
+                        .id()
+                        .forEachRemaining(vertexId -> {
+                            if (visited.add(vertexId)) {
+                                next.add(vertexId);
+                            }
+                        });
+
+                result.addAll(next);
+                frontier = next;
             }
 
             return result;
         }
 
+        public List<Vertex> getOutVerticesByEdgeLabel(Vertex vertex, String edgeLabel) {
+            List<Vertex> result = new ArrayList<>();
+            vertex.vertices(Direction.OUT, edgeLabel).forEachRemaining(result::add);
+
+            return result;
+        }
+
+        /**
+         * Removes the edges with the given label that go from source to destination.
+         */
+        public void removeEdges(String label, Vertex source, Vertex destination) {
+            source.edges(Direction.OUT, label).forEachRemaining(edge -> {
+                if (edge.inVertex().id().equals(destination.id())) {
+                    edge.remove();
+                }
+            });
+        }
+
         public List<Vertex> getAdjacentVerticesByEdgeLabel(Vertex vertex, String edgeLabel) {
             List<Vertex> result = new ArrayList<>();
             vertex.vertices(Direction.BOTH, edgeLabel).forEachRemaining(result::add);
@@ -121,12 +336,42 @@ public class GremlinClient implements DBClient {
             return result;
         }
 
+        public boolean reaches(String fromId, String toId) {
+            // the dedup() keeps the node versions visited so far, so that the traversal ends on cycles
+            return this.graph.traversal().V().has("id", fromId)
+                    .repeat(__.out("EdgeVersionConnection").out("EdgeVersionConnection").dedup())
+                    .emit()
+                    .has("id", toId)
+                    .limit(1)
+                    .hasNext();
+        }
+
         public void commit() throws GroundDBException {
-            this.graph.tx().commit();
+            if (!this.graph.features().graph().supportsTransactions()) {
+                return;
+            }
+
+            try {
+                this.graph.tx().commit();
+            } catch (RuntimeException e) {
+                // a failed commit leaves the transaction open
+                this.close();
+
+                throw new GroundDBException(e);
+            }
         }
 
         public void abort() throws GroundDBException {
-            this.graph.tx().rollback();
+            if (this.graph.features().graph().supportsTransactions()) {
+                this.graph.tx().rollback();
+            }
+        }
+
+        // rolls the transaction back unless it has already been committed or rolled back
+        private void close() {
+            if (this.graph.features().graph().supportsTransactions() && this.graph.tx().isOpen()) {
+                this.graph.tx().rollback();
+            }
         }
     }
 }
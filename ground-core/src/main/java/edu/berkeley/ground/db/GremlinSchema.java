@@ -0,0 +1,203 @@
+package edu.berkeley.ground.db;
+
+import com.thinkaurelius.titan.core.Cardinality;
+import com.thinkaurelius.titan.core.Multiplicity;
+import com.thinkaurelius.titan.core.PropertyKey;
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.schema.ConsistencyModifier;
+import com.thinkaurelius.titan.core.schema.SchemaAction;
+import com.thinkaurelius.titan.core.schema.SchemaStatus;
+import com.thinkaurelius.titan.core.schema.TitanGraphIndex;
+import com.thinkaurelius.titan.core.schema.TitanManagement;
+import com.thinkaurelius.titan.graphdb.database.management.GraphIndexStatusReport;
+import com.thinkaurelius.titan.graphdb.database.management.ManagementSystem;
+import edu.berkeley.ground.exceptions.GroundDBException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Declares the labels, property keys and composite indexes that the gremlin factories rely on, when the server starts.
+ * Every declaration is skipped if it already exists, so this is safe to run against a graph that is in use.
+ *
+ * Each property the factories look elements up by gets a composite index, so that has(key, value) is answered from
+ * the index instead of a scan of the whole graph. An index over a key that already held data starts out INSTALLED; it
+ * is reindexed, which also enables it, before the server accepts requests. Titan is run with query.force-index, so a
+ * lookup that no index covers fails instead of silently scanning.
+ */
+class GremlinSchema {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GremlinSchema.class);
+
+    private static final long INDEX_TIMEOUT_SECONDS = 60;
+
+    private static final List<String> VERTEX_LABELS = Arrays.asList(
+            "Node", "NodeVersion",
+            "GroundEdge", "EdgeVersion",
+            "Graph", "GraphVersion",
+            "LineageEdges", "LineageEdgeVersions",
+            "Structure", "StructureVersion", "StructureVersionItem",
+            "Tag", "RichVersionExternalParameter"
+    );
+
+    private static final Map<String, Multiplicity> EDGE_LABELS = new LinkedHashMap<>();
+
+    static {
+        EDGE_LABELS.put("VersionSuccessor", Multiplicity.SIMPLE);
+        EDGE_LABELS.put("ItemLeaf", Multiplicity.SIMPLE);
+        EDGE_LABELS.put("EdgeVersionConnection", Multiplicity.SIMPLE);
+        EDGE_LABELS.put("LineageEdgeVersionConnection", Multiplicity.SIMPLE);
+        EDGE_LABELS.put("GraphVersionEdge", Multiplicity.SIMPLE);
+        EDGE_LABELS.put("StructureVersionItemConnection", Multiplicity.ONE2MANY);
+        EDGE_LABELS.put("TagConnection", Multiplicity.ONE2MANY);
+        EDGE_LABELS.put("RichVersionExternalParameterConnection", Multiplicity.ONE2MANY);
+    }
+
+    private static final List<IndexDefinition> INDEXES = Arrays.asList(
+            // ids are generated to be globally unique, across items and versions of every type
+            new IndexDefinition("byId", Vertex.class, "id", true),
+            // names are only unique within an item type, so name lookups also filter on the label
+            new IndexDefinition("byName", Vertex.class, "name", false),
+            // Titan only enforces uniqueness on vertex indexes
+            new IndexDefinition("bySuccessorId", Edge.class, "successor_id", false)
+    );
+
+    private GremlinSchema() {
+    }
+
+    static void bootstrap(Graph graph) throws GroundDBException {
+        if (graph instanceof TitanGraph) {
+            GremlinSchema.bootstrapTitan((TitanGraph) graph);
+        } else if (graph instanceof TinkerGraph) {
+            // TinkerGraph has no schema, only per-key indexes, which last as long as the graph
+            for (IndexDefinition definition : INDEXES) {
+                ((TinkerGraph) graph).createIndex(definition.key, definition.elementType);
+            }
+        }
+    }
+
+    private static void bootstrapTitan(TitanGraph graph) throws GroundDBException {
+        TitanManagement management = graph.openManagement();
+
+        try {
+            for (String label : VERTEX_LABELS) {
+                if (!management.containsVertexLabel(label)) {
+                    management.makeVertexLabel(label).make();
+                }
+            }
+
+            for (Map.Entry<String, Multiplicity> label : EDGE_LABELS.entrySet()) {
+                if (!management.containsEdgeLabel(label.getKey())) {
+                    management.makeEdgeLabel(label.getKey()).multiplicity(label.getValue()).make();
+                }
+            }
+
+            for (IndexDefinition definition : INDEXES) {
+                if (management.containsGraphIndex(definition.name)) {
+                    continue;
+                }
+
+                PropertyKey key = management.containsPropertyKey(definition.key)
+                        ? management.getPropertyKey(definition.key)
+                        : management.makePropertyKey(definition.key).dataType(String.class).cardinality(Cardinality.SINGLE).make();
+
+                TitanManagement.IndexBuilder builder = management.buildIndex(definition.name, definition.elementType).addKey(key);
+                if (definition.unique) {
+                    builder = builder.unique();
+                }
+
+                TitanGraphIndex index = builder.buildCompositeIndex();
+
+                // uniqueness is only enforced under locking on an eventually consistent store
+                if (definition.unique) {
+                    management.setConsistency(index, ConsistencyModifier.LOCK);
+                }
+
+                LOGGER.info("Created index " + definition.name + " on " + definition.key + ".");
+            }
+
+            management.commit();
+        } catch (RuntimeException e) {
+            management.rollback();
+
+            throw new GroundDBException(e);
+        }
+
+        for (IndexDefinition definition : INDEXES) {
+            GremlinSchema.enable(graph, definition);
+        }
+    }
+
+    private static void enable(TitanGraph graph, IndexDefinition definition) throws GroundDBException {
+        SchemaStatus status = GremlinSchema.getStatus(graph, definition);
+
+        try {
+            if (status == SchemaStatus.INSTALLED) {
+                GremlinSchema.await(graph, definition, SchemaStatus.REGISTERED);
+                status = SchemaStatus.REGISTERED;
+            }
+
+            if (status == SchemaStatus.REGISTERED) {
+                LOGGER.info("Reindexing " + definition.name + ".");
+
+                TitanManagement management = graph.openManagement();
+                management.updateIndex(management.getGraphIndex(definition.name), SchemaAction.REINDEX).get();
+                management.commit();
+
+                GremlinSchema.await(graph, definition, SchemaStatus.ENABLED);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new GroundDBException(e);
+        }
+
+        if (GremlinSchema.getStatus(graph, definition) != SchemaStatus.ENABLED) {
+            throw new GroundDBException("Index " + definition.name + " is not enabled, so lookups on " + definition.key
+                    + " would scan the whole graph.");
+        }
+    }
+
+    private static SchemaStatus getStatus(TitanGraph graph, IndexDefinition definition) {
+        TitanManagement management = graph.openManagement();
+
+        try {
+            return management.getGraphIndex(definition.name).getIndexStatus(management.getPropertyKey(definition.key));
+        } finally {
+            management.rollback();
+        }
+    }
+
+    private static void await(TitanGraph graph, IndexDefinition definition, SchemaStatus status) throws InterruptedException, GroundDBException {
+        GraphIndexStatusReport report = ManagementSystem.awaitGraphIndexStatus(graph, definition.name)
+                .status(status)
+                .timeout(INDEX_TIMEOUT_SECONDS, ChronoUnit.SECONDS)
+                .call();
+
+        if (!report.getSucceeded()) {
+            throw new GroundDBException("Index " + definition.name + " did not become " + status + ": " + report + ".");
+        }
+    }
+
+    private static class IndexDefinition {
+        private final String name;
+        private final Class<? extends Element> elementType;
+        private final String key;
+        private final boolean unique;
+
+        IndexDefinition(String name, Class<? extends Element> elementType, String key, boolean unique) {
+            this.name = name;
+            this.elementType = elementType;
+            this.key = key;
+            this.unique = unique;
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package edu.berkeley.ground.db;
 
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import edu.berkeley.ground.ClosureTableConfiguration;
+import edu.berkeley.ground.DbPoolConfiguration;
 import edu.berkeley.ground.api.versions.Type;
 import edu.berkeley.ground.exceptions.GroundDBException;
 import edu.berkeley.ground.exceptions.GroundException;
@@ -7,34 +12,171 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class PostgresClient implements DBClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgresClient.class);
 
     private static final String JDBCString = "jdbc:postgresql://%s:%d/%s?stringtype=unspecified";
-    private String connectionString;
-    private String username;
-    private String password;
-
-    public PostgresClient(String host, int port, String dbName, String username, String password) {
-        connectionString = String.format(PostgresClient.JDBCString, host, port, dbName);
-        this.username = username;
-        this.password = password;
+    private static final String POOL_NAME = "postgres";
+
+    private static final String TRANSITIVE_CLOSURE = "with recursive paths(vfrom, vto) as (\n" +
+                                                     "    (select endpoint_one, endpoint_two from edgeversions where endpoint_one = ?)\n" +
+                                                     "    union\n" +
+                                                     "    (select p.vfrom, ev.endpoint_two\n" +
+                                                     "    from paths p, edgeversions ev\n" +
+                                                     "    where p.vto = ev.endpoint_one)\n" +
+                                                     ") select * from paths;";
+
+    private static final String REACHES = "with recursive paths(vto) as (\n" +
+                                          "    (select endpoint_two from edgeversions where endpoint_one = ?)\n" +
+                                          "    union\n" +
+                                          "    (select ev.endpoint_two\n" +
+                                          "    from paths p, edgeversions ev\n" +
+                                          "    where p.vto = ev.endpoint_one)\n" +
+                                          ") select 1 from paths where vto = ? limit 1;";
+
+    private HikariDataSource dataSource;
+
+    // null unless the NodeVersionReachability table is enabled
+    private final PostgresReachabilityIndex reachabilityIndex;
+
+    private final ConcurrentMap<StatementShape, String> insertStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StatementShape, String> selectStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StatementShape, String> deleteStatements = new ConcurrentHashMap<>();
+
+    public PostgresClient(String host, int port, String dbName, String username, String password) throws GroundDBException {
+        this(host, port, dbName, username, password, new DbPoolConfiguration(), new ClosureTableConfiguration(), new MetricRegistry());
+    }
+
+    public PostgresClient(String host, int port, String dbName, String username, String password,
+                          DbPoolConfiguration poolConfiguration, ClosureTableConfiguration closureTable,
+                          MetricRegistry metricRegistry) throws GroundDBException {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(PostgresClient.POOL_NAME);
+        config.setJdbcUrl(String.format(PostgresClient.JDBCString, host, port, dbName));
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setAutoCommit(false);
+
+        // the factories issue a small, fixed set of statement shapes, so they are worth preparing on the server
+        config.addDataSourceProperty("prepareThreshold", String.valueOf(poolConfiguration.getPrepareThreshold()));
+        config.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(poolConfiguration.getPreparedStatementCacheSize()));
+
+        config.setMaximumPoolSize(poolConfiguration.getMaxSize());
+        config.setMinimumIdle(Math.min(poolConfiguration.getMinIdle(), poolConfiguration.getMaxSize()));
+        config.setConnectionTimeout(poolConfiguration.getConnectionTimeout().toMilliseconds());
+        config.setIdleTimeout(poolConfiguration.getIdleTimeout().toMilliseconds());
+        config.setMaxLifetime(poolConfiguration.getMaxLifetime().toMilliseconds());
+        config.setValidationTimeout(poolConfiguration.getValidationTimeout().toMilliseconds());
+
+        if (poolConfiguration.getValidationQuery() != null) {
+            config.setConnectionTestQuery(poolConfiguration.getValidationQuery());
+        }
+
+        // registers the postgres.pool.Wait timer and the ActiveConnections, IdleConnections, PendingConnections and
+        // TotalConnections gauges
+        config.setMetricRegistry(metricRegistry);
+
+        this.dataSource = new HikariDataSource(config);
+
+        this.reachabilityIndex = closureTable.isEnabled() ? new PostgresReachabilityIndex() : null;
+
+        PostgresConnection connection = this.getConnection();
+        try {
+            if (this.reachabilityIndex != null) {
+                this.reachabilityIndex.populate(connection.connection);
+            } else {
+                PostgresReachabilityIndex.invalidate(connection.connection);
+            }
+
+            connection.commit();
+        } catch (GroundDBException e) {
+            connection.abort();
+
+            throw e;
+        }
     }
 
     public PostgresConnection getConnection() throws GroundDBException {
         try {
-            return new PostgresConnection(DriverManager.getConnection(connectionString, username, password));
+            return new PostgresConnection(this.dataSource.getConnection());
         } catch(SQLException e) {
             throw new GroundDBException(e);
         }
     }
 
-    public class PostgresConnection extends GroundDBConnection {
+    public void close() {
+        this.dataSource.close();
+    }
+
+    /**
+     * Returns the SQL text for an insert of the given columns into a table. The text is built once per shape and
+     * reused afterwards, so that pgjdbc's per-connection statement cache sees identical strings and can keep the
+     * server-side prepared statement around.
+     */
+    private String insertSql(String table, List<DbDataContainer> insertValues) {
+        StatementShape shape = new StatementShape(table, StatementShape.fields(insertValues), Collections.emptyList());
+
+        return this.insertStatements.computeIfAbsent(shape, key -> {
+            StringJoiner columns = new StringJoiner(", ", "insert into " + key.table + "(", ")");
+            StringJoiner values = new StringJoiner(", ", " values (", ");");
+
+            for (String column : key.columns) {
+                columns.add(column);
+                values.add("?");
+            }
+
+            return columns.toString() + values.toString();
+        });
+    }
+
+    /**
+     * Returns the SQL text for a select of the given projection from a table filtered by equality predicates, built
+     * once per shape.
+     */
+    private String selectSql(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) {
+        StatementShape shape = new StatementShape(table, projection, StatementShape.fields(predicatesAndValues));
+
+        return this.selectStatements.computeIfAbsent(shape, key -> {
+            StringBuilder select = new StringBuilder("select ")
+                    .append(String.join(", ", key.columns))
+                    .append(" from ")
+                    .append(key.table);
+
+            if (!key.predicates.isEmpty()) {
+                StringJoiner predicates = new StringJoiner(" and ", " where ", "");
+                key.predicates.forEach(predicate -> predicates.add(predicate + " = ?"));
+
+                select.append(predicates.toString());
+            }
+
+            return select.append(";").toString();
+        });
+    }
+
+    /**
+     * Returns the SQL text for a delete from a table filtered by equality predicates, built once per shape.
+     */
+    private String deleteSql(String table, List<DbDataContainer> predicatesAndValues) {
+        StatementShape shape = new StatementShape(table, Collections.emptyList(), StatementShape.fields(predicatesAndValues));
+
+        return this.deleteStatements.computeIfAbsent(shape, key -> {
+            StringJoiner predicates = new StringJoiner(" and ", "delete from " + key.table + " where ", ";");
+            key.predicates.forEach(predicate -> predicates.add(predicate + " = ?"));
+
+            return predicates.toString();
+        });
+    }
+
+    public class PostgresConnection extends GroundDBConnection implements TabularConnection {
         private Connection connection;
 
+        // whether this transaction queued edge versions for the NodeVersionReachability table
+        private boolean queuedEdgeVersions = false;
+
         public PostgresConnection(Connection connection) throws SQLException {
             this.connection = connection;
             this.connection.setAutoCommit(false);
@@ -42,20 +184,9 @@ public class PostgresClient implements DBClient {
 
 
         public void insert(String table, List<DbDataContainer> insertValues) throws GroundDBException {
-            String insertString = "insert into " + table + "(";
-            String valuesString = "values (";
-
-            for (DbDataContainer container : insertValues) {
-                insertString += container.getField() + ", ";
-                valuesString += "?, ";
-            }
-
-            insertString = insertString.substring(0, insertString.length() - 2) + ")";
-            valuesString = valuesString.substring(0, valuesString.length() - 2) + ")";
-
-            try {
-                PreparedStatement preparedStatement = this.connection.prepareStatement(insertString + valuesString + ";");
+            String sql = PostgresClient.this.insertSql(table, insertValues);
 
+            try (PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
                 int index = 1;
                 for (DbDataContainer container : insertValues) {
                     PostgresClient.setValue(preparedStatement, container.getValue(), container.getType(), index);
@@ -63,7 +194,9 @@ public class PostgresClient implements DBClient {
                     index++;
                 }
 
-                LOGGER.info("Executing update: " + preparedStatement.toString() + ".");
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Executing update: " + preparedStatement.toString() + ".");
+                }
 
                 preparedStatement.executeUpdate();
             } catch (SQLException e) {
@@ -72,63 +205,220 @@ public class PostgresClient implements DBClient {
                 throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
             }
 
+            this.trackEdgeVersions(table, Collections.singletonList(insertValues));
         }
 
-        public QueryResults equalitySelect(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
-            String select = "select ";
+        // a JDBC batch has no partitions to respect, so this is the same as insertBatch
+        public void insertRows(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+            this.insertBatch(table, rows);
+        }
+
+        /**
+         * Inserts many rows into a table in one round-trip. Every row must set the same columns in the same order.
+         */
+        public void insertBatch(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            String sql = PostgresClient.this.insertSql(table, rows.get(0));
+
+            try (PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
+                for (List<DbDataContainer> row : rows) {
+                    int index = 1;
+                    for (DbDataContainer container : row) {
+                        PostgresClient.setValue(preparedStatement, container.getValue(), container.getType(), index);
+
+                        index++;
+                    }
+
+                    preparedStatement.addBatch();
+                }
 
-            for (String item : projection) {
-                select += item + ", ";
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Executing batch of " + rows.size() + " updates: " + sql);
+                }
+
+                preparedStatement.executeBatch();
+            } catch (SQLException e) {
+                // the cause of a BatchUpdateException carries the actual error
+                SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+                LOGGER.error("Unexpected error in database batch insertion: " + cause.getMessage());
+
+                throw new GroundDBException(cause.getClass().toString() + ": " + cause.getMessage());
             }
 
-            select = select.substring(0, select.length() - 2) + " from " + table;
+            this.trackEdgeVersions(table, rows);
+        }
 
-            if (predicatesAndValues.size() > 0) {
-                select += " where ";
+        // queues new edge versions for the NodeVersionReachability table, if there is one; commit adds them to it
+        private void trackEdgeVersions(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+            if (PostgresClient.this.reachabilityIndex == null || !table.equals("EdgeVersions")) {
+                return;
+            }
+
+            List<String> edgeVersionIds = new ArrayList<>(rows.size());
+            for (List<DbDataContainer> row : rows) {
+                for (DbDataContainer container : row) {
+                    if (container.getField().equals("id")) {
+                        edgeVersionIds.add(container.getValue().toString());
+                    }
+                }
+            }
 
+            PostgresClient.this.reachabilityIndex.enqueue(this.connection, edgeVersionIds);
+            this.queuedEdgeVersions = true;
+        }
+
+        /**
+         * Deletes the rows of a table that match all of the given equality predicates.
+         */
+        public void delete(String table, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            String sql = PostgresClient.this.deleteSql(table, predicatesAndValues);
+
+            try (PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
+                int index = 1;
                 for (DbDataContainer container : predicatesAndValues) {
-                    select += container.getField() + " = ? and ";
+                    PostgresClient.setValue(preparedStatement, container.getValue(), container.getType(), index);
+
+                    index++;
+                }
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Executing update: " + preparedStatement.toString() + ".");
+                }
+
+                preparedStatement.executeUpdate();
+            } catch (SQLException e) {
+                LOGGER.error("Unexpected error in database deletion: " + e.getMessage());
+
+                throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
+            }
+        }
+
+        public void scan(String table, int fetchSize, RowHandler handler) throws GroundException {
+            // pgjdbc reads through a cursor instead of materializing the result when autocommit is off and a fetch
+            // size is set
+            try (PreparedStatement statement = this.connection.prepareStatement("select * from " + table)) {
+                statement.setFetchSize(fetchSize);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+
+                    while (resultSet.next()) {
+                        Map<String, String> row = new LinkedHashMap<>();
+                        for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                            row.put(metaData.getColumnName(index), resultSet.getString(index));
+                        }
+
+                        handler.handle(row);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new GroundDBException(e);
+            }
+        }
+
+        public void selectIn(String table, String field, Collection<String> values, RowHandler handler) throws GroundException {
+            if (values.isEmpty()) {
+                return;
+            }
+
+            try (PreparedStatement statement = this.connection.prepareStatement("select * from " + table + " where " + field + " = any(?)")) {
+                statement.setArray(1, this.connection.createArrayOf("varchar", values.toArray()));
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+
+                    while (resultSet.next()) {
+                        Map<String, String> row = new LinkedHashMap<>();
+                        for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                            row.put(metaData.getColumnName(index), resultSet.getString(index));
+                        }
+
+                        handler.handle(row);
+                    }
                 }
+            } catch (SQLException e) {
+                throw new GroundDBException(e);
+            }
+        }
 
-                select = select.substring(0, select.length() - 4);
+        public QueryResults equalitySelect(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            return this.query(PostgresClient.this.selectSql(table, projection, predicatesAndValues), predicatesAndValues);
+        }
+
+        /**
+         * Like equalitySelect, but returns an empty Optional instead of throwing if there are no results.
+         */
+        public Optional<QueryResults> equalitySelectIfPresent(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+            return this.queryIfPresent(PostgresClient.this.selectSql(table, projection, predicatesAndValues), predicatesAndValues);
+        }
+
+        /**
+         * Runs a query with one ? placeholder per parameter, for reads that a single-table equality select can't express
+         * (e.g., joins). Like equalitySelect, it throws if there are no results and leaves the cursor on the first row.
+         */
+        public QueryResults query(String sql, List<DbDataContainer> parameters) throws GroundDBException {
+            Optional<QueryResults> results = this.queryIfPresent(sql, parameters);
+
+            if (!results.isPresent()) {
+                throw new GroundDBException("No results found for query: " + sql);
             }
 
+            return results.get();
+        }
+
+        /**
+         * Like query, but returns an empty Optional instead of throwing if there are no results.
+         */
+        public Optional<QueryResults> queryIfPresent(String sql, List<DbDataContainer> parameters) throws GroundDBException {
+            PreparedStatement preparedStatement = null;
+
             try {
-                PreparedStatement preparedStatement = this.connection.prepareStatement(select + ";");
+                preparedStatement = this.connection.prepareStatement(sql);
+
+                // the statement is released along with the result set it produces
+                preparedStatement.closeOnCompletion();
 
                 int index = 1;
-                for (DbDataContainer container : predicatesAndValues) {
+                for (DbDataContainer container : parameters) {
                     PostgresClient.setValue(preparedStatement, container.getValue(), container.getType(), index);
 
                     index++;
                 }
 
-                LOGGER.info("Executing query: " + preparedStatement.toString() + ".");
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Executing query: " + preparedStatement.toString() + ".");
+                }
 
                 ResultSet resultSet = preparedStatement.executeQuery();
                 if (!resultSet.isBeforeFirst()) {
-                    throw new GroundDBException("No results found for query: " + preparedStatement.toString());
+                    resultSet.close();
+
+                    return Optional.empty();
                 }
 
                 // Moves the cursor to the first element so that data can be accessed directly.
                 resultSet.next();
-                return new PostgresResults(resultSet);
+                return Optional.of(new PostgresResults(resultSet));
             } catch (SQLException e) {
                 LOGGER.error("Unexpected error in database query: " + e.getMessage());
 
+                // without a result set, closeOnCompletion never releases the statement
+                PostgresClient.closeQuietly(preparedStatement);
                 throw new GroundDBException(e.getMessage());
             }
         }
 
         public List<String> transitiveClosure(String nodeVersionId) throws GroundException {
-            try {
-                PreparedStatement statement = this.connection.prepareStatement("with recursive paths(vfrom, vto) as (\n" +
-                                                    "    (select endpoint_one, endpoint_two from edgeversions where endpoint_one = ?)\n" +
-                                                    "    union\n" +
-                                                    "    (select p.vfrom, ev.endpoint_two\n" +
-                                                    "    from paths p, edgeversions ev\n" +
-                                                    "    where p.vto = ev.endpoint_one)\n" +
-                                                    ") select * from paths;");
+            PostgresReachabilityIndex reachabilityIndex = PostgresClient.this.reachabilityIndex;
+
+            if (reachabilityIndex != null && !reachabilityIndex.isStale(this.connection)) {
+                return reachabilityIndex.getDescendants(this.connection, nodeVersionId);
+            }
+
+            try (PreparedStatement statement = this.connection.prepareStatement(PostgresClient.TRANSITIVE_CLOSURE)) {
                 statement.setString(1, nodeVersionId);
 
                 ResultSet resultSet = statement.executeQuery();
@@ -144,25 +434,88 @@ public class PostgresClient implements DBClient {
             }
         }
 
+        public boolean reaches(String fromId, String toId) throws GroundException {
+            PostgresReachabilityIndex reachabilityIndex = PostgresClient.this.reachabilityIndex;
+
+            if (reachabilityIndex != null) {
+                if (reachabilityIndex.reaches(this.connection, fromId, toId)) {
+                    return true;
+                }
+
+                if (!reachabilityIndex.isStale(this.connection)) {
+                    return false;
+                }
+            }
+
+            try (PreparedStatement statement = this.connection.prepareStatement(PostgresClient.REACHES)) {
+                statement.setString(1, fromId);
+                statement.setString(2, toId);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next();
+                }
+            } catch (SQLException e) {
+                throw new GroundDBException(e);
+            }
+        }
+
         public void commit() throws GroundDBException {
             try {
                 this.connection.commit();
-                this.connection.close();
+
+                if (this.queuedEdgeVersions) {
+                    PostgresClient.this.reachabilityIndex.drain(this.connection);
+                }
             } catch(SQLException e) {
+                this.rollbackQuietly();
                 throw new GroundDBException(e);
+            } finally {
+                this.release();
             }
         }
 
         public void abort() throws GroundDBException {
+            try {
+                if (!this.connection.isClosed()) {
+                    this.connection.rollback();
+                }
+            } catch (SQLException e) {
+                throw new GroundDBException(e);
+            } finally {
+                this.release();
+            }
+        }
+
+        private void rollbackQuietly() {
             try {
                 this.connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.warn("Unable to roll back failed commit: " + e.getMessage());
+            }
+        }
+
+        // returns the connection to the pool; closing an already closed connection is a no-op
+        private void release() {
+            try {
                 this.connection.close();
             } catch (SQLException e) {
-                throw new GroundDBException(e);
+                LOGGER.warn("Unable to release connection: " + e.getMessage());
             }
         }
     }
 
+    private static void closeQuietly(PreparedStatement preparedStatement) {
+        if (preparedStatement == null) {
+            return;
+        }
+
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close statement: " + e.getMessage());
+        }
+    }
+
     private static void setValue(PreparedStatement preparedStatement, Object value, Type type, int index) throws SQLException {
         switch (type) {
             case STRING:
@@ -0,0 +1,290 @@
+package edu.berkeley.ground.db;
+
+import edu.berkeley.ground.exceptions.GroundDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The transitive closure of the node version graph, stored in the NodeVersionReachability table: one row for every
+ * pair of node versions joined by a path of edge versions, with the length of the shortest such path. Closure and
+ * reachability queries are then index lookups instead of recursive scans of EdgeVersions.
+ *
+ * Adding the edge (from, to) connects from and each of its ancestors to to and each of its descendants. Two edges
+ * added concurrently could each miss the paths that the other one creates, so edges are added to the table one batch
+ * at a time, under a transaction-scoped advisory lock. To keep that lock out of the transactions that write edge
+ * versions, they only queue the new edge versions in NodeVersionReachabilityPending; once they have committed, the
+ * writer drains the queue in a short transaction of its own, applying whatever is queued, including the edges of
+ * writers that are still waiting for the lock. While anything is queued, queries fall back to the recursive ones.
+ *
+ * NodeVersionReachabilityState records whether the table covers every edge version. A server that runs without the
+ * table marks it stale when it starts, since it won't queue the edge versions it writes; the next server that starts
+ * with the table enabled rebuilds it from EdgeVersions. Queries fall back to the recursive ones while it is stale.
+ */
+class PostgresReachabilityIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresReachabilityIndex.class);
+
+    // advisory lock keys are shared by the whole database; this one is only used here
+    private static final long LOCK_KEY = 0x47524f554e44L;
+    private static final String LOCK = "select pg_advisory_xact_lock(?);";
+
+    private static final String ADD_EDGE = "insert into NodeVersionReachability (ancestor, descendant, depth)\n" +
+                                           "select a.ancestor, d.descendant, min(a.depth + 1 + d.depth)\n" +
+                                           "from (select ?::varchar as ancestor, 0 as depth\n" +
+                                           "      union all\n" +
+                                           "      select ancestor, depth from NodeVersionReachability where descendant = ?) a,\n" +
+                                           "     (select ?::varchar as descendant, 0 as depth\n" +
+                                           "      union all\n" +
+                                           "      select descendant, depth from NodeVersionReachability where ancestor = ?) d\n" +
+                                           "group by a.ancestor, d.descendant\n" +
+                                           "on conflict (ancestor, descendant)\n" +
+                                           "do update set depth = least(NodeVersionReachability.depth, excluded.depth);";
+
+    private static final String ENQUEUE = "insert into NodeVersionReachabilityPending (edge_version_id) values (?);";
+    private static final String PENDING = "select p.edge_version_id, e.endpoint_one, e.endpoint_two from NodeVersionReachabilityPending p " +
+                                          "join EdgeVersions e on e.id = p.edge_version_id;";
+    private static final String DEQUEUE = "delete from NodeVersionReachabilityPending where edge_version_id = ?;";
+
+    // whether the table is missing paths, i.e., whether queries have to fall back to the recursive ones
+    private static final String STALE = "select exists (select 1 from NodeVersionReachabilityPending) " +
+                                        "or not exists (select 1 from NodeVersionReachabilityState where complete);";
+
+    private static final String INVALIDATE = "update NodeVersionReachabilityState set complete = false where complete;";
+    private static final String IS_COMPLETE = "select exists (select 1 from NodeVersionReachabilityState where complete);";
+    private static final String CLEAR = "delete from NodeVersionReachability;";
+    private static final String CLEAR_PENDING = "delete from NodeVersionReachabilityPending;";
+    private static final String MARK_COMPLETE = "update NodeVersionReachabilityState set complete = true;";
+
+    private static final String DESCENDANTS = "select descendant from NodeVersionReachability where ancestor = ? order by depth, descendant;";
+    private static final String REACHES = "select 1 from NodeVersionReachability where ancestor = ? and descendant = ?;";
+
+    private static final String ALL_EDGES = "select endpoint_one, endpoint_two from EdgeVersions;";
+
+    private static final int POPULATE_BATCH_SIZE = 1000;
+
+    // the SQLState of a reference to a table that doesn't exist
+    private static final String UNDEFINED_TABLE = "42P01";
+
+    /**
+     * Queues edge versions, by id, to be added to the table once the caller has committed and calls drain.
+     */
+    void enqueue(Connection connection, List<String> edgeVersionIds) throws GroundDBException {
+        try (PreparedStatement statement = connection.prepareStatement(ENQUEUE)) {
+            for (String edgeVersionId : edgeVersionIds) {
+                statement.setString(1, edgeVersionId);
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+            LOGGER.error("Unexpected error in reachability update: " + cause.getMessage());
+
+            throw new GroundDBException(cause);
+        }
+    }
+
+    /**
+     * Adds the queued edge versions to the table and commits. The edge versions themselves have been committed
+     * already, so a failure is logged rather than thrown; the edges stay queued for the next drain, and queries fall
+     * back to the recursive ones until then.
+     */
+    void drain(Connection connection) {
+        try {
+            PostgresReachabilityIndex.lock(connection);
+
+            List<String> applied = new ArrayList<>();
+            try (PreparedStatement pending = connection.prepareStatement(PENDING);
+                 PreparedStatement statement = connection.prepareStatement(ADD_EDGE);
+                 ResultSet resultSet = pending.executeQuery()) {
+                while (resultSet.next()) {
+                    applied.add(resultSet.getString(1));
+
+                    PostgresReachabilityIndex.bindEdge(statement, resultSet.getString(2), resultSet.getString(3));
+                    statement.addBatch();
+                }
+
+                // the writers that queued these may still be waiting for the lock; they'll find nothing left to do
+                if (!applied.isEmpty()) {
+                    statement.executeBatch();
+                }
+            }
+
+            if (!applied.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(DEQUEUE)) {
+                    for (String edgeVersionId : applied) {
+                        statement.setString(1, edgeVersionId);
+                        statement.addBatch();
+                    }
+
+                    statement.executeBatch();
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+            LOGGER.warn("Unable to apply queued edge versions to NodeVersionReachability: " + cause.getMessage());
+
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                LOGGER.warn("Unable to roll back failed reachability update: " + rollbackException.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the table may be missing paths, because edge versions are queued or because it is stale.
+     */
+    boolean isStale(Connection connection) throws GroundDBException {
+        try (PreparedStatement statement = connection.prepareStatement(STALE);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+
+            return resultSet.getBoolean(1);
+        } catch (SQLException e) {
+            throw new GroundDBException(e);
+        }
+    }
+
+    /**
+     * Returns the node versions reachable from start, closest first.
+     */
+    List<String> getDescendants(Connection connection, String start) throws GroundDBException {
+        try (PreparedStatement statement = connection.prepareStatement(DESCENDANTS)) {
+            statement.setString(1, start);
+
+            List<String> result = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.add(resultSet.getString(1));
+                }
+            }
+
+            return result;
+        } catch (SQLException e) {
+            throw new GroundDBException(e);
+        }
+    }
+
+    /**
+     * Returns whether the table has a path from fromId to toId. Paths are never removed, so a true answer holds even
+     * while the table is stale.
+     */
+    boolean reaches(Connection connection, String fromId, String toId) throws GroundDBException {
+        try (PreparedStatement statement = connection.prepareStatement(REACHES)) {
+            statement.setString(1, fromId);
+            statement.setString(2, toId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            throw new GroundDBException(e);
+        }
+    }
+
+    /**
+     * Rebuilds the table from EdgeVersions if it is stale, and otherwise applies any edge versions left queued, e.g.,
+     * by a server that stopped before it could drain. The caller commits.
+     */
+    void populate(Connection connection) throws GroundDBException {
+        try {
+            PostgresReachabilityIndex.lock(connection);
+
+            boolean complete;
+            try (PreparedStatement check = connection.prepareStatement(IS_COMPLETE);
+                 ResultSet resultSet = check.executeQuery()) {
+                resultSet.next();
+                complete = resultSet.getBoolean(1);
+            }
+
+            if (complete) {
+                connection.commit();
+                this.drain(connection);
+
+                return;
+            }
+
+            LOGGER.info("Rebuilding NodeVersionReachability from EdgeVersions.");
+
+            // deletes rather than truncates, so that servers that are still running keep reading while it rebuilds
+            try (PreparedStatement clear = connection.prepareStatement(CLEAR);
+                 PreparedStatement clearPending = connection.prepareStatement(CLEAR_PENDING)) {
+                clear.executeUpdate();
+                clearPending.executeUpdate();
+            }
+
+            int count = 0;
+            try (PreparedStatement edges = connection.prepareStatement(ALL_EDGES);
+                 PreparedStatement statement = connection.prepareStatement(ADD_EDGE)) {
+                // read through a cursor rather than materializing EdgeVersions
+                edges.setFetchSize(POPULATE_BATCH_SIZE);
+
+                try (ResultSet resultSet = edges.executeQuery()) {
+                    while (resultSet.next()) {
+                        PostgresReachabilityIndex.bindEdge(statement, resultSet.getString(1), resultSet.getString(2));
+                        statement.addBatch();
+
+                        if (++count % POPULATE_BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                }
+
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement markComplete = connection.prepareStatement(MARK_COMPLETE)) {
+                markComplete.executeUpdate();
+            }
+
+            LOGGER.info("Rebuilt NodeVersionReachability from " + count + " edge versions.");
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+
+            throw new GroundDBException(cause);
+        }
+    }
+
+    /**
+     * Marks the table stale, for servers that run without it and so won't queue the edge versions they write. A
+     * database without the table has nothing to mark. The caller commits.
+     */
+    static void invalidate(Connection connection) throws GroundDBException {
+        try (PreparedStatement statement = connection.prepareStatement(INVALIDATE)) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            if (!UNDEFINED_TABLE.equals(e.getSQLState())) {
+                throw new GroundDBException(e);
+            }
+
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                throw new GroundDBException(rollbackException);
+            }
+        }
+    }
+
+    private static void lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LOCK)) {
+            statement.setLong(1, LOCK_KEY);
+            statement.executeQuery().close();
+        }
+    }
+
+    private static void bindEdge(PreparedStatement statement, String fromId, String toId) throws SQLException {
+        statement.setString(1, fromId);
+        statement.setString(2, fromId);
+        statement.setString(3, toId);
+        statement.setString(4, toId);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.berkeley.ground.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The table, columns and predicate fields that determine the text of a statement, so that clients can build the text
+ * once per shape and reuse it.
+ */
+final class StatementShape {
+    final String table;
+    final List<String> columns;
+    final List<String> predicates;
+    private final int hashCode;
+
+    StatementShape(String table, List<String> columns, List<String> predicates) {
+        this.table = table;
+        this.columns = columns;
+        this.predicates = predicates;
+        this.hashCode = Objects.hash(table, columns, predicates);
+    }
+
+    static List<String> fields(List<DbDataContainer> containers) {
+        List<String> fields = new ArrayList<>(containers.size());
+        for (DbDataContainer container : containers) {
+            fields.add(container.getField());
+        }
+
+        return fields;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof StatementShape)) {
+            return false;
+        }
+
+        StatementShape otherShape = (StatementShape) other;
+        return this.table.equals(otherShape.table) && this.columns.equals(otherShape.columns)
+                && this.predicates.equals(otherShape.predicates);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+}
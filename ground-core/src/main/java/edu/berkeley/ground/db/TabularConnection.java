@@ -0,0 +1,37 @@
+package edu.berkeley.ground.db;
+
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A connection to a backend that stores Ground's metadata in the relational layout of the setup scripts (one table per
+ * concept, every column a string). Used to move whole tables in and out of the database.
+ */
+public interface TabularConnection {
+    interface RowHandler {
+        void handle(Map<String, String> row) throws GroundException;
+    }
+
+    /**
+     * Passes every row of a table to the handler, keyed by column name. Rows are fetched fetchSize at a time, so the
+     * table is never held in memory.
+     */
+    void scan(String table, int fetchSize, RowHandler handler) throws GroundException;
+
+    /**
+     * Passes every row of a table whose field has one of the given values to the handler, keyed by column name. The
+     * rows for all of the values are read with a single set-based query where the backend has one.
+     */
+    void selectIn(String table, String field, Collection<String> values, RowHandler handler) throws GroundException;
+
+    void insertBatch(String table, List<List<DbDataContainer>> rows) throws GroundException;
+
+    /**
+     * Inserts many rows into a table, like insertBatch, but without assuming they share anything beyond their columns;
+     * on backends where batches are only efficient within a partition, the rows are written one at a time instead.
+     */
+    void insertRows(String table, List<List<DbDataContainer>> rows) throws GroundException;
+}
@@ -8,6 +8,7 @@ public class GroundException extends Exception {
     }
 
     public GroundException(Exception e) {
+        super(e);
         this.message = e.getClass() + ": " + e.getMessage();
     }
 
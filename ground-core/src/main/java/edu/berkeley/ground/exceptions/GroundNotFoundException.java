@@ -0,0 +1,10 @@
+package edu.berkeley.ground.exceptions;
+
+/**
+ * Thrown when a request names something that doesn't exist where it is looked up; answered with a 404.
+ */
+public class GroundNotFoundException extends GroundException {
+    public GroundNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,90 @@
+package edu.berkeley.ground.resources;
+
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the factory calls behind the resources on a bounded pool of backend threads, so that a request doesn't hold a
+ * Jetty thread while it waits on the database. When the pool and its queue are full, requests are rejected with a 503
+ * right away instead of piling up, and a request that isn't answered within the timeout gets a 503 as well; its call is
+ * cancelled if it hasn't started yet.
+ */
+public class BackendExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackendExecutor.class);
+
+    // seconds clients are asked to wait before retrying a rejected request
+    private static final long RETRY_AFTER = 1;
+
+    interface Call<T> {
+        T call() throws GroundException;
+    }
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public BackendExecutor(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Resumes the response with the result of call, or with the exception it throws, once a backend thread has run it.
+     * Calls that time out are answered with a 503 that asks the client to retry, so call must be safe to repeat.
+     */
+    <T> void submit(AsyncResponse response, Call<T> call) {
+        this.submit(response, call, true);
+    }
+
+    /**
+     * Like submit, for calls that write. A write that times out while it runs may still commit, so the client isn't
+     * asked to retry it, which could create the same items and versions twice.
+     */
+    <T> void submitWrite(AsyncResponse response, Call<T> call) {
+        this.submit(response, call, false);
+    }
+
+    private <T> void submit(AsyncResponse response, Call<T> call, boolean retryable) {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                response.resume(call.call());
+            } catch (GroundNotFoundException e) {
+                response.resume(new NotFoundException(e.getMessage()));
+            } catch (Throwable e) {
+                // errors are passed on too, so that the response isn't left hanging until it times out
+                response.resume(e);
+            }
+        }, null);
+
+        response.setTimeoutHandler(timedOut -> {
+            // a call that is still queued never starts; one that is already running can't be stopped safely
+            task.cancel(false);
+
+            if (retryable) {
+                timedOut.resume(new ServiceUnavailableException("Timed out waiting for the database.", RETRY_AFTER));
+            } else {
+                timedOut.resume(new ServiceUnavailableException("Timed out waiting for the database; the write may still complete."));
+            }
+        });
+        response.setTimeout(this.timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Rejected request: all backend threads are busy and the queue is full.");
+
+            // the call never ran, so it can be retried whether or not it writes
+            response.resume(new ServiceUnavailableException("The server is overloaded.", RETRY_AFTER));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.berkeley.ground.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.jackson.Jackson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JSON array of versions from a request body without holding the whole array in memory, creates them a chunk
+ * at a time and streams the ids of the created versions back as a JSON array.
+ *
+ * Each chunk is written in its own transaction. If a chunk fails, the chunks before it stay committed, their ids have
+ * already been sent, and the response is cut off; clients should treat a truncated array as a partial failure.
+ */
+final class BatchIngestion {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchIngestion.class);
+
+    private static final ObjectMapper MAPPER = Jackson.newObjectMapper();
+
+    static final int CHUNK_SIZE = 1000;
+
+    interface ChunkWriter<T> {
+        List<String> write(List<T> chunk, Map<String, StructureVersion> structureVersions) throws GroundException;
+    }
+
+    private BatchIngestion() {
+    }
+
+    static <T> StreamingOutput createInChunks(InputStream input, Class<T> type, ChunkWriter<T> writer) {
+        return output -> {
+            // structure versions are immutable, so one lookup per distinct id serves the whole request
+            Map<String, StructureVersion> structureVersions = new HashMap<>();
+
+            try (JsonParser parser = MAPPER.getFactory().createParser(input);
+                 JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new WebApplicationException("Expected a JSON array of versions.", Response.Status.BAD_REQUEST);
+                }
+
+                generator.writeStartArray();
+
+                List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+                int created = 0;
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    chunk.add(MAPPER.readValue(parser, type));
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        created += BatchIngestion.writeChunk(chunk, structureVersions, writer, generator);
+                    }
+                }
+
+                if (parser.getCurrentToken() != JsonToken.END_ARRAY) {
+                    throw new WebApplicationException("Expected a JSON array of versions.", Response.Status.BAD_REQUEST);
+                }
+
+                created += BatchIngestion.writeChunk(chunk, structureVersions, writer, generator);
+                generator.writeEndArray();
+
+                LOGGER.info("Created " + created + " versions in batch.");
+            }
+        };
+    }
+
+    private static <T> int writeChunk(List<T> chunk,
+                                      Map<String, StructureVersion> structureVersions,
+                                      ChunkWriter<T> writer,
+                                      JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids;
+        try {
+            ids = writer.write(chunk, structureVersions);
+        } catch (GroundException e) {
+            LOGGER.error("Batch creation failed: " + e.getMessage());
+
+            throw new WebApplicationException(e);
+        }
+
+        for (String id : ids) {
+            generator.writeString(id);
+        }
+
+        // hand the ids of this chunk to the client before reading the next one
+        generator.flush();
+        chunk.clear();
+
+        return ids.size();
+    }
+}
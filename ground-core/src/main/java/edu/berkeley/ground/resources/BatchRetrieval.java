@@ -0,0 +1,98 @@
+package edu.berkeley.ground.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.jackson.Jackson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a JSON array of version ids from a request body, retrieves the versions a chunk of ids at a time and streams
+ * them back as a JSON array in the order of the ids. Ids that don't exist are left out of the response.
+ */
+final class BatchRetrieval {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchRetrieval.class);
+
+    private static final ObjectMapper MAPPER = Jackson.newObjectMapper();
+
+    static final int CHUNK_SIZE = 1000;
+
+    interface ChunkReader<T> {
+        List<T> read(List<String> ids) throws GroundException;
+    }
+
+    private BatchRetrieval() {
+    }
+
+    static <T> StreamingOutput retrieveInChunks(InputStream input, ChunkReader<T> reader) {
+        return output -> {
+            try (JsonParser parser = MAPPER.getFactory().createParser(input);
+                 JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new WebApplicationException("Expected a JSON array of version ids.", Response.Status.BAD_REQUEST);
+                }
+
+                generator.writeStartArray();
+
+                List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+                int requested = 0;
+                int retrieved = 0;
+
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    chunk.add(parser.getText());
+                    requested++;
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        retrieved += BatchRetrieval.readChunk(chunk, reader, generator);
+                    }
+                }
+
+                if (parser.getCurrentToken() != JsonToken.END_ARRAY) {
+                    throw new WebApplicationException("Expected a JSON array of version ids.", Response.Status.BAD_REQUEST);
+                }
+
+                retrieved += BatchRetrieval.readChunk(chunk, reader, generator);
+                generator.writeEndArray();
+
+                LOGGER.info("Retrieved " + retrieved + " of " + requested + " versions in batch.");
+            }
+        };
+    }
+
+    private static <T> int readChunk(List<String> chunk, ChunkReader<T> reader, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<T> versions;
+        try {
+            versions = reader.read(chunk);
+        } catch (GroundException e) {
+            LOGGER.error("Batch retrieval failed: " + e.getMessage());
+
+            throw new WebApplicationException(e);
+        }
+
+        for (T version : versions) {
+            MAPPER.writeValue(generator, version);
+        }
+
+        // hand this chunk to the client before reading the next one
+        generator.flush();
+        chunk.clear();
+
+        return versions.size();
+    }
+}
@@ -1,11 +1,9 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import edu.berkeley.ground.api.models.Edge;
 import edu.berkeley.ground.api.models.EdgeFactory;
 import edu.berkeley.ground.api.models.EdgeVersion;
 import edu.berkeley.ground.api.models.EdgeVersionFactory;
-import edu.berkeley.ground.exceptions.GroundException;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
 import org.hibernate.validator.valuehandling.UnwrapValidatedValue;
 import org.slf4j.Logger;
@@ -13,7 +11,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
 
 @Path("/edges")
 @Produces(MediaType.APPLICATION_JSON)
@@ -22,48 +23,68 @@ public class EdgesResource {
 
     private EdgeFactory edgeFactory;
     private EdgeVersionFactory edgeVersionFactory;
+    private BackendExecutor backendExecutor;
 
-    public EdgesResource(EdgeFactory edgeFactory, EdgeVersionFactory edgeVersionFactory) {
+    public EdgesResource(EdgeFactory edgeFactory, EdgeVersionFactory edgeVersionFactory, BackendExecutor backendExecutor) {
         this.edgeFactory = edgeFactory;
         this.edgeVersionFactory = edgeVersionFactory;
+        this.backendExecutor = backendExecutor;
     }
 
     @GET
     @Timed
     @Path("/{name}")
-    public Edge getEdge(@PathParam("name") String name) throws GroundException {
+    public void getEdge(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving edge " + name + ".");
-        return this.edgeFactory.retrieveFromDatabase(name);
+        this.backendExecutor.submit(response, () -> this.edgeFactory.retrieveFromDatabase(name));
     }
 
     @GET
     @Timed
     @Path("/versions/{id}")
-    public EdgeVersion getEdgeVersion(@PathParam("id") String id) throws GroundException {
+    public void getEdgeVersion(@PathParam("id") String id, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving edge version " + id + ".");
-        return this.edgeVersionFactory.retrieveFromDatabase(id);
+        this.backendExecutor.submit(response, () -> this.edgeVersionFactory.retrieveFromDatabase(id));
     }
 
     @POST
     @Timed
     @Path("/{name}")
-    public Edge createEdge(@PathParam("name") String name) throws GroundException {
+    public void createEdge(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Creating edge " + name + ".");
-        return this.edgeFactory.create(name);
+        this.backendExecutor.submitWrite(response, () -> this.edgeFactory.create(name));
     }
 
     @POST
     @Timed
     @Path("/versions")
-    public EdgeVersion createEdgeVersion(@Valid EdgeVersion edgeVersion, @QueryParam("parent") @UnwrapValidatedValue NonEmptyStringParam parentId) throws GroundException {
+    public void createEdgeVersion(@Valid EdgeVersion edgeVersion, @QueryParam("parent") @UnwrapValidatedValue NonEmptyStringParam parentId, @Suspended AsyncResponse response) {
         LOGGER.info("Creating edge version in edge " + edgeVersion.getEdgeId() + ".");
-        return this.edgeVersionFactory.create(edgeVersion.getTags(),
-                                              edgeVersion.getStructureVersionId(),
-                                              edgeVersion.getReference(),
-                                              edgeVersion.getParameters(),
-                                              edgeVersion.getEdgeId(),
-                                              edgeVersion.getFromId(),
-                                              edgeVersion.getToId(),
-                                              parentId.get());
+        this.backendExecutor.submitWrite(response, () -> this.edgeVersionFactory.create(edgeVersion.getTags(),
+                                                                                   edgeVersion.getStructureVersionId(),
+                                                                                   edgeVersion.getReference(),
+                                                                                   edgeVersion.getParameters(),
+                                                                                   edgeVersion.getEdgeId(),
+                                                                                   edgeVersion.getFromId(),
+                                                                                   edgeVersion.getToId(),
+                                                                                   parentId.get()));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void createEdgeVersions(InputStream edgeVersions, @Suspended AsyncResponse response) {
+        LOGGER.info("Creating edge versions in batch.");
+        this.backendExecutor.submitWrite(response, () -> BatchIngestion.createInChunks(edgeVersions, EdgeVersion.class, this.edgeVersionFactory::createBatch));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/_mget")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void getEdgeVersions(InputStream ids, @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving edge versions in batch.");
+        this.backendExecutor.submit(response, () -> BatchRetrieval.retrieveInChunks(ids, this.edgeVersionFactory::retrieveFromDatabase));
     }
 }
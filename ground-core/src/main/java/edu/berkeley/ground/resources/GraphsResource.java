@@ -1,18 +1,19 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import edu.berkeley.ground.api.models.Graph;
 import edu.berkeley.ground.api.models.GraphFactory;
 import edu.berkeley.ground.api.models.GraphVersion;
 import edu.berkeley.ground.api.models.GraphVersionFactory;
-import edu.berkeley.ground.exceptions.GroundException;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
 
 @Path("/graphs")
 @Produces(MediaType.APPLICATION_JSON)
@@ -21,47 +22,67 @@ public class GraphsResource {
 
     private GraphFactory graphFactory;
     private GraphVersionFactory graphVersionFactory;
+    private BackendExecutor backendExecutor;
 
-    public GraphsResource(GraphFactory graphFactory, GraphVersionFactory graphVersionFactory) {
+    public GraphsResource(GraphFactory graphFactory, GraphVersionFactory graphVersionFactory, BackendExecutor backendExecutor) {
         this.graphFactory = graphFactory;
         this.graphVersionFactory = graphVersionFactory;
+        this.backendExecutor = backendExecutor;
     }
 
     @GET
     @Timed
     @Path("/{name}")
-    public Graph getGraph(@PathParam("name") String name) throws GroundException {
+    public void getGraph(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving graph " + name + ".");
-        return this.graphFactory.retrieveFromDatabase(name);
+        this.backendExecutor.submit(response, () -> this.graphFactory.retrieveFromDatabase(name));
     }
 
     @GET
     @Timed
     @Path("/versions/{id}")
-    public GraphVersion getGraphVersion(@PathParam("id") String id) throws GroundException {
+    public void getGraphVersion(@PathParam("id") String id, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving graph version " + id + ".");
-        return this.graphVersionFactory.retrieveFromDatabase(id);
+        this.backendExecutor.submit(response, () -> this.graphVersionFactory.retrieveFromDatabase(id));
     }
 
     @POST
     @Timed
     @Path("/{name}")
-    public Graph createGraph(@PathParam("name") String name) throws GroundException {
+    public void createGraph(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Creating graph " + name + ".");
-        return this.graphFactory.create(name);
+        this.backendExecutor.submitWrite(response, () -> this.graphFactory.create(name));
     }
 
     @POST
     @Timed
     @Path("/versions")
-    public GraphVersion createGraphVersion(@Valid GraphVersion graphVersion, @QueryParam("parent")NonEmptyStringParam parentId) throws GroundException {
+    public void createGraphVersion(@Valid GraphVersion graphVersion, @QueryParam("parent")NonEmptyStringParam parentId, @Suspended AsyncResponse response) {
         LOGGER.info("Creating graph version in graph " + graphVersion.getGraphId() + ".");
-        return this.graphVersionFactory.create(graphVersion.getTags(),
-                                               graphVersion.getStructureVersionId(),
-                                               graphVersion.getReference(),
-                                               graphVersion.getParameters(),
-                                               graphVersion.getGraphId(),
-                                               graphVersion.getEdgeVersionIds(),
-                                               parentId.get());
+        this.backendExecutor.submitWrite(response, () -> this.graphVersionFactory.create(graphVersion.getTags(),
+                                                                                    graphVersion.getStructureVersionId(),
+                                                                                    graphVersion.getReference(),
+                                                                                    graphVersion.getParameters(),
+                                                                                    graphVersion.getGraphId(),
+                                                                                    graphVersion.getEdgeVersionIds(),
+                                                                                    parentId.get()));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void createGraphVersions(InputStream graphVersions, @Suspended AsyncResponse response) {
+        LOGGER.info("Creating graph versions in batch.");
+        this.backendExecutor.submitWrite(response, () -> BatchIngestion.createInChunks(graphVersions, GraphVersion.class, this.graphVersionFactory::createBatch));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/_mget")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void getGraphVersions(InputStream ids, @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving graph versions in batch.");
+        this.backendExecutor.submit(response, () -> BatchRetrieval.retrieveInChunks(ids, this.graphVersionFactory::retrieveFromDatabase));
     }
 }
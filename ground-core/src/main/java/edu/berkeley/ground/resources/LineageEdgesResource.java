@@ -1,18 +1,19 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import edu.berkeley.ground.api.usage.LineageEdge;
 import edu.berkeley.ground.api.usage.LineageEdgeFactory;
 import edu.berkeley.ground.api.usage.LineageEdgeVersion;
 import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
-import edu.berkeley.ground.exceptions.GroundException;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
 
 @Path("/lineage")
 @Produces(MediaType.APPLICATION_JSON)
@@ -21,48 +22,59 @@ public class LineageEdgesResource {
 
     private LineageEdgeFactory lineageEdgeFactory;
     private LineageEdgeVersionFactory lineageEdgeVersionFactory;
+    private BackendExecutor backendExecutor;
 
-    public LineageEdgesResource(LineageEdgeFactory lineageEdgeFactory, LineageEdgeVersionFactory lineageEdgeVersionFactory) {
+    public LineageEdgesResource(LineageEdgeFactory lineageEdgeFactory, LineageEdgeVersionFactory lineageEdgeVersionFactory, BackendExecutor backendExecutor) {
         this.lineageEdgeFactory = lineageEdgeFactory;
         this.lineageEdgeVersionFactory = lineageEdgeVersionFactory;
+        this.backendExecutor = backendExecutor;
     }
 
     @GET
     @Timed
     @Path("/{name}")
-    public LineageEdge getLineageEdge(@PathParam("name") String name) throws GroundException {
+    public void getLineageEdge(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving lineage edge " + name + ".");
-        return this.lineageEdgeFactory.retrieveFromDatabase(name);
+        this.backendExecutor.submit(response, () -> this.lineageEdgeFactory.retrieveFromDatabase(name));
     }
 
     @GET
     @Timed
     @Path("/versions/{id}")
-    public LineageEdgeVersion getLineageEdgeVersion(@PathParam("id") String id) throws GroundException {
+    public void getLineageEdgeVersion(@PathParam("id") String id, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving lineage edge version " + id + ".");
-        return this.lineageEdgeVersionFactory.retrieveFromDatabase(id);
+        this.backendExecutor.submit(response, () -> this.lineageEdgeVersionFactory.retrieveFromDatabase(id));
     }
 
     @POST
     @Timed
     @Path("/{name}")
-    public LineageEdge createLineageEdge(@PathParam("name") String name) throws GroundException {
+    public void createLineageEdge(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Creating lineage edge " + name + ".");
-        return this.lineageEdgeFactory.create(name);
+        this.backendExecutor.submitWrite(response, () -> this.lineageEdgeFactory.create(name));
     }
 
     @POST
     @Timed
     @Path("/versions")
-    public LineageEdgeVersion createLineageEdgeVersion(@Valid LineageEdgeVersion lineageEdgeVersion, @QueryParam("parent") NonEmptyStringParam parentId) throws GroundException {
+    public void createLineageEdgeVersion(@Valid LineageEdgeVersion lineageEdgeVersion, @QueryParam("parent") NonEmptyStringParam parentId, @Suspended AsyncResponse response) {
         LOGGER.info("Creating lineage edge version in lineage edge " + lineageEdgeVersion.getLineageEdgeId() + ".");
-        return this.lineageEdgeVersionFactory.create(lineageEdgeVersion.getTags(),
-                                                     lineageEdgeVersion.getStructureVersionId(),
-                                                     lineageEdgeVersion.getReference(),
-                                                     lineageEdgeVersion.getParameters(),
-                                                     lineageEdgeVersion.getFromId(),
-                                                     lineageEdgeVersion.getToId(),
-                                                     lineageEdgeVersion.getLineageEdgeId(),
-                                                     parentId.get());
+        this.backendExecutor.submitWrite(response, () -> this.lineageEdgeVersionFactory.create(lineageEdgeVersion.getTags(),
+                                                                                          lineageEdgeVersion.getStructureVersionId(),
+                                                                                          lineageEdgeVersion.getReference(),
+                                                                                          lineageEdgeVersion.getParameters(),
+                                                                                          lineageEdgeVersion.getFromId(),
+                                                                                          lineageEdgeVersion.getToId(),
+                                                                                          lineageEdgeVersion.getLineageEdgeId(),
+                                                                                          parentId.get()));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/_mget")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void getLineageEdgeVersions(InputStream ids, @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving lineage edge versions in batch.");
+        this.backendExecutor.submit(response, () -> BatchRetrieval.retrieveInChunks(ids, this.lineageEdgeVersionFactory::retrieveFromDatabase));
     }
 }
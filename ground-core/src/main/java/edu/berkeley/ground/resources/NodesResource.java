@@ -1,19 +1,23 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import edu.berkeley.ground.api.models.Node;
 import edu.berkeley.ground.api.models.NodeFactory;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.NodeVersionFactory;
-import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.api.versions.VersionHistoryDAGFactory;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
-import java.util.List;
+import javax.ws.rs.core.Response;
+import java.io.InputStream;
 
 @Path("/nodes")
 @Produces(MediaType.APPLICATION_JSON)
@@ -21,57 +25,143 @@ import java.util.List;
 public class NodesResource {
     private static final Logger LOGGER = LoggerFactory.getLogger(NodesResource.class);
 
+    // bounds on the history queries, so that a single request can't walk an arbitrarily large history
+    private static final int MAX_DEPTH = VersionHistoryDAGFactory.MAX_DEPTH;
+    private static final int MAX_LIMIT = 1000;
+
     private NodeFactory nodeFactory;
     private NodeVersionFactory nodeVersionFactory;
+    private BackendExecutor backendExecutor;
 
-    public NodesResource(NodeFactory nodeFactory, NodeVersionFactory nodeVersionFactory) {
+    public NodesResource(NodeFactory nodeFactory, NodeVersionFactory nodeVersionFactory, BackendExecutor backendExecutor) {
         this.nodeFactory = nodeFactory;
         this.nodeVersionFactory = nodeVersionFactory;
+        this.backendExecutor = backendExecutor;
     }
 
     @GET
     @Timed
     @Path("/{name}")
-    public Node getNode(@PathParam("name") String name) throws GroundException {
+    public void getNode(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving node " + name + ".");
-        return this.nodeFactory.retrieveFromDatabase(name);
+        this.backendExecutor.submit(response, () -> this.nodeFactory.retrieveFromDatabase(name));
     }
 
     @GET
     @Timed
     @Path("/versions/{id}")
-    public NodeVersion getNodeVersion(@PathParam("id") String id) throws GroundException {
+    public void getNodeVersion(@PathParam("id") String id, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving node version " + id + ".");
-        return this.nodeVersionFactory.retrieveFromDatabase(id);
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.retrieveFromDatabase(id));
     }
 
     @POST
     @Timed
     @Path("/{name}")
-    public Node createNode(@PathParam("name") String name) throws GroundException {
+    public void createNode(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Creating node " + name + ".");
-        return this.nodeFactory.create(name);
+        this.backendExecutor.submitWrite(response, () -> this.nodeFactory.create(name));
     }
 
     @POST
     @Timed
     @Path("/versions")
-    public NodeVersion createNodeVersion(@Valid NodeVersion nodeVersion, @QueryParam("parent") NonEmptyStringParam parentId) throws GroundException {
+    public void createNodeVersion(@Valid NodeVersion nodeVersion, @QueryParam("parent") NonEmptyStringParam parentId, @Suspended AsyncResponse response) {
         LOGGER.info("Creating node version in node " + nodeVersion.getNodeId() + ".");
-        return this.nodeVersionFactory.create(nodeVersion.getTags(),
-                                              nodeVersion.getStructureVersionId(),
-                                              nodeVersion.getReference(),
-                                              nodeVersion.getParameters(),
-                                              nodeVersion.getNodeId(),
-                                              parentId.get());
+        this.backendExecutor.submitWrite(response, () -> this.nodeVersionFactory.create(nodeVersion.getTags(),
+                                                                                   nodeVersion.getStructureVersionId(),
+                                                                                   nodeVersion.getReference(),
+                                                                                   nodeVersion.getParameters(),
+                                                                                   nodeVersion.getNodeId(),
+                                                                                   parentId.get()));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/batch")
+    public void createNodeVersions(InputStream nodeVersions, @Suspended AsyncResponse response) {
+        LOGGER.info("Creating node versions in batch.");
+        this.backendExecutor.submitWrite(response, () -> BatchIngestion.createInChunks(nodeVersions, NodeVersion.class, this.nodeVersionFactory::createBatch));
+    }
+
+    @POST
+    @Timed
+    @Path("/versions/_mget")
+    public void getNodeVersions(InputStream ids, @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving node versions in batch.");
+        this.backendExecutor.submit(response, () -> BatchRetrieval.retrieveInChunks(ids, this.nodeVersionFactory::retrieveFromDatabase));
     }
 
     @GET
     @Timed
     @Path("/closure/{id}")
-    public List<String> transitiveClosure(@PathParam("id") String nodeVersionId) throws GroundException {
+    public void transitiveClosure(@PathParam("id") String nodeVersionId, @Suspended AsyncResponse response) {
         LOGGER.info("Running transitive closure on node version  " + nodeVersionId + ".");
 
-        return this.nodeVersionFactory.getTransitiveClosure(nodeVersionId);
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.getTransitiveClosure(nodeVersionId));
+    }
+
+    @GET
+    @Timed
+    @Path("/versions/{from}/reaches/{to}")
+    public void reaches(@PathParam("from") String fromId, @PathParam("to") String toId, @Suspended AsyncResponse response) {
+        LOGGER.info("Checking whether node version " + fromId + " reaches node version " + toId + ".");
+
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.reaches(fromId, toId));
+    }
+
+    @GET
+    @Timed
+    @Path("/{name}/history")
+    public void getHistory(@PathParam("name") String name,
+                           @QueryParam("from") NonEmptyStringParam from,
+                           @QueryParam("depth") @DefaultValue("100") @Min(1) @Max(MAX_DEPTH) int depth,
+                           @QueryParam("offset") @DefaultValue("0") @Min(0) int offset,
+                           @QueryParam("limit") @DefaultValue("100") @Min(1) @Max(MAX_LIMIT) int limit,
+                           @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving the history of node " + name + ".");
+
+        this.backendExecutor.submit(response, () -> {
+            String nodeId = this.nodeFactory.retrieveFromDatabase(name).getId();
+            return this.nodeVersionFactory.getHistory(nodeId, from.get(), depth, offset, limit);
+        });
+    }
+
+    @GET
+    @Timed
+    @Path("/versions/{id}/ancestors")
+    public void getAncestors(@PathParam("id") String id,
+                             @QueryParam("depth") @DefaultValue("100") @Min(1) @Max(MAX_DEPTH) int depth,
+                             @QueryParam("offset") @DefaultValue("0") @Min(0) int offset,
+                             @QueryParam("limit") @DefaultValue("100") @Min(1) @Max(MAX_LIMIT) int limit,
+                             @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving the ancestors of node version " + id + ".");
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.getAncestors(id, depth, offset, limit));
+    }
+
+    @GET
+    @Timed
+    @Path("/versions/{id}/descendants")
+    public void getDescendants(@PathParam("id") String id,
+                               @QueryParam("depth") @DefaultValue("100") @Min(1) @Max(MAX_DEPTH) int depth,
+                               @QueryParam("offset") @DefaultValue("0") @Min(0) int offset,
+                               @QueryParam("limit") @DefaultValue("100") @Min(1) @Max(MAX_LIMIT) int limit,
+                               @Suspended AsyncResponse response) {
+        LOGGER.info("Retrieving the descendants of node version " + id + ".");
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.getDescendants(id, depth, offset, limit));
+    }
+
+    @GET
+    @Timed
+    @Path("/versions/lca")
+    public void getLowestCommonAncestor(@QueryParam("a") NonEmptyStringParam firstId,
+                                        @QueryParam("b") NonEmptyStringParam secondId,
+                                        @Suspended AsyncResponse response) {
+        if (!firstId.get().isPresent() || !secondId.get().isPresent()) {
+            throw new WebApplicationException("Both a and b must be given.", Response.Status.BAD_REQUEST);
+        }
+
+        LOGGER.info("Retrieving the lowest common ancestor of node versions " + firstId.get().get() + " and " + secondId.get().get() + ".");
+        this.backendExecutor.submit(response, () -> this.nodeVersionFactory.getLowestCommonAncestor(firstId.get().get(), secondId.get().get()));
     }
 }
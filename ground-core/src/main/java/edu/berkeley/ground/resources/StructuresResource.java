@@ -1,17 +1,17 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import edu.berkeley.ground.api.models.Structure;
 import edu.berkeley.ground.api.models.StructureFactory;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.StructureVersionFactory;
-import edu.berkeley.ground.exceptions.GroundException;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 
 @Path("/structures")
@@ -21,43 +21,45 @@ public class StructuresResource {
 
     private StructureFactory structureFactory;
     private StructureVersionFactory structureVersionFactory;
+    private BackendExecutor backendExecutor;
 
-    public StructuresResource(StructureFactory structureFactory, StructureVersionFactory structureVersionFactory) {
+    public StructuresResource(StructureFactory structureFactory, StructureVersionFactory structureVersionFactory, BackendExecutor backendExecutor) {
         this.structureFactory = structureFactory;
         this.structureVersionFactory = structureVersionFactory;
+        this.backendExecutor = backendExecutor;
     }
 
     @GET
     @Timed
     @Path("/{name}")
-    public Structure getStructure(@PathParam("name") String name) throws GroundException {
+    public void getStructure(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving structure " + name + ".");
-        return this.structureFactory.retrieveFromDatabase(name);
+        this.backendExecutor.submit(response, () -> this.structureFactory.retrieveFromDatabase(name));
     }
 
     @GET
     @Timed
     @Path("/versions/{id}")
-    public StructureVersion getStructureVersion(@PathParam("id") String id) throws GroundException {
+    public void getStructureVersion(@PathParam("id") String id, @Suspended AsyncResponse response) {
         LOGGER.info("Retrieving structure version " + id + ".");
-        return this.structureVersionFactory.retrieveFromDatabase(id);
+        this.backendExecutor.submit(response, () -> this.structureVersionFactory.retrieveFromDatabase(id));
     }
 
     @POST
     @Timed
     @Path("/{name}")
-    public Structure createStructure(@PathParam("name") String name) throws GroundException {
+    public void createStructure(@PathParam("name") String name, @Suspended AsyncResponse response) {
         LOGGER.info("Creating structure " + name + ".");
-        return this.structureFactory.create(name);
+        this.backendExecutor.submitWrite(response, () -> this.structureFactory.create(name));
     }
 
     @POST
     @Timed
     @Path("/versions")
-    public StructureVersion createStructureVersion(@Valid StructureVersion structureVersion, @QueryParam("parent") NonEmptyStringParam parentId) throws GroundException {
+    public void createStructureVersion(@Valid StructureVersion structureVersion, @QueryParam("parent") NonEmptyStringParam parentId, @Suspended AsyncResponse response) {
         LOGGER.info("Creating structure version in structure " + structureVersion.getStructureId() + ".");
-        return this.structureVersionFactory.create(structureVersion.getStructureId(),
-                                                   structureVersion.getAttributes(),
-                                                   parentId.get());
+        this.backendExecutor.submitWrite(response, () -> this.structureVersionFactory.create(structureVersion.getStructureId(),
+                                                                                        structureVersion.getAttributes(),
+                                                                                        parentId.get()));
     }
 }
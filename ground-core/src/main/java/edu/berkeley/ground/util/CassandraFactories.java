@@ -34,13 +34,13 @@ public class CassandraFactories {
         this.structureFactory = new CassandraStructureFactory(itemFactory, cassandraClient);
         this.structureVersionFactory = new CassandraStructureVersionFactory(this.structureFactory, versionFactory, cassandraClient);
         CassandraTagFactory tagFactory = new CassandraTagFactory();
-        CassandraRichVersionFactory richVersionFactory = new CassandraRichVersionFactory(versionFactory, structureVersionFactory, tagFactory);
+        CassandraRichVersionFactory richVersionFactory = new CassandraRichVersionFactory(versionFactory, structureVersionFactory, tagFactory, new StructureSchemaCache());
         this.edgeFactory = new CassandraEdgeFactory(itemFactory, cassandraClient);
         this.edgeVersionFactory = new CassandraEdgeVersionFactory(this.edgeFactory, richVersionFactory, cassandraClient);
         this.graphFactory = new CassandraGraphFactory(itemFactory, cassandraClient);
         this.graphVersionFactory = new CassandraGraphVersionFactory(this.graphFactory, richVersionFactory, cassandraClient);
         this.nodeFactory = new CassandraNodeFactory(itemFactory, cassandraClient);
-        this.nodeVersionFactory = new CassandraNodeVersionFactory(this.nodeFactory, richVersionFactory, cassandraClient);
+        this.nodeVersionFactory = new CassandraNodeVersionFactory(this.nodeFactory, richVersionFactory, versionHistoryDAGFactory, cassandraClient);
 
         this.lineageEdgeFactory = new CassandraLineageEdgeFactory(itemFactory, cassandraClient);
         this.lineageEdgeVersionFactory = new CassandraLineageEdgeVersionFactory(this.lineageEdgeFactory, richVersionFactory, cassandraClient);
@@ -0,0 +1,320 @@
+package edu.berkeley.ground.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * A directed graph over string ids that stores its structure in primitive arrays. Every id is interned once into a
+ * dense int, and edges are kept in compressed sparse row form: the targets of vertex v are
+ * csrTargets[csrOffsets[v] .. csrOffsets[v + 1]). Edges added after the last compaction go into an append-only delta
+ * segment of per-vertex linked lists, which is merged into the CSR arrays once it grows past a fraction of them.
+ *
+ * Duplicate edges are ignored. The graph is safe for concurrent use; reads share a lock and writes take it exclusively.
+ */
+public class CompactGraph {
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private int vertexCount = 0;
+
+    // compacted edges of the vertices [0, csrVertexCount)
+    private int[] csrOffsets = new int[1];
+    private int[] csrTargets = new int[0];
+    private int csrVertexCount = 0;
+
+    // edges added since the last compaction; deltaHead[v] is the first delta edge of v, or -1
+    private int[] deltaHead = new int[16];
+    private int[] deltaTarget = new int[16];
+    private int[] deltaNext = new int[16];
+    private int deltaCount = 0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // reused across traversals on the same thread, cleared bit by bit after each one
+    private final ThreadLocal<BitSet> visitedSets = ThreadLocal.withInitial(BitSet::new);
+
+    public CompactGraph() {
+        Arrays.fill(this.deltaHead, -1);
+    }
+
+    /**
+     * Returns the dense id of a vertex, adding the vertex if it has not been seen before.
+     */
+    public int addVertex(String id) {
+        this.lock.readLock().lock();
+        try {
+            Integer vertex = this.ids.get(id);
+            if (vertex != null) {
+                return vertex;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            return this.intern(id);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the dense id of a vertex, or -1 if it is not in the graph.
+     */
+    public int getVertex(String id) {
+        this.lock.readLock().lock();
+        try {
+            return this.ids.getOrDefault(id, -1);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public String getName(int vertex) {
+        this.lock.readLock().lock();
+        try {
+            return this.names[vertex];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getVertexCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.vertexCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public void addEdge(String source, String target) {
+        this.lock.writeLock().lock();
+        try {
+            this.addEdge(this.intern(source), this.intern(target));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void addEdges(String source, Collection<String> targets) {
+        this.lock.writeLock().lock();
+        try {
+            int sourceVertex = this.intern(source);
+
+            for (String target : targets) {
+                this.addEdge(sourceVertex, this.intern(target));
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Passes every target of the vertex's outgoing edges to the consumer. The consumer runs under the graph's read lock
+     * and must not modify the graph.
+     */
+    public void forEachSuccessor(int vertex, IntConsumer consumer) {
+        this.lock.readLock().lock();
+        try {
+            this.successors(vertex, consumer);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getSuccessors(String id) {
+        List<String> result = new ArrayList<>();
+
+        this.lock.readLock().lock();
+        try {
+            Integer vertex = this.ids.get(id);
+
+            if (vertex != null) {
+                this.successors(vertex, target -> result.add(this.names[target]));
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the ids of the vertices reachable from start, including start itself, in depth-first order. Returns an
+     * empty list if start is not in the graph.
+     */
+    public List<String> reachable(String start) {
+        this.lock.readLock().lock();
+        try {
+            Integer startVertex = this.ids.get(start);
+            if (startVertex == null) {
+                return new ArrayList<>();
+            }
+
+            BitSet visited = this.visitedSets.get();
+            int[] order = new int[16];
+            int visitedCount = 0;
+            int[] stack = new int[16];
+            int stackSize = 0;
+
+            visited.set(startVertex);
+            stack[stackSize++] = startVertex;
+
+            while (stackSize > 0) {
+                int vertex = stack[--stackSize];
+
+                if (visitedCount == order.length) {
+                    order = Arrays.copyOf(order, order.length * 2);
+                }
+                order[visitedCount++] = vertex;
+
+                for (int index = this.csrStart(vertex); index < this.csrEnd(vertex); index++) {
+                    int target = this.csrTargets[index];
+
+                    if (!visited.get(target)) {
+                        visited.set(target);
+
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[stackSize++] = target;
+                    }
+                }
+
+                for (int edge = this.deltaHead[vertex]; edge != -1; edge = this.deltaNext[edge]) {
+                    int target = this.deltaTarget[edge];
+
+                    if (!visited.get(target)) {
+                        visited.set(target);
+
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[stackSize++] = target;
+                    }
+                }
+            }
+
+            List<String> result = new ArrayList<>(visitedCount);
+            for (int index = 0; index < visitedCount; index++) {
+                result.add(this.names[order[index]]);
+                visited.clear(order[index]);
+            }
+
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // callers must hold the write lock
+    private int intern(String id) {
+        Integer existing = this.ids.get(id);
+        if (existing != null) {
+            return existing;
+        }
+
+        int vertex = this.vertexCount++;
+
+        if (vertex == this.names.length) {
+            this.names = Arrays.copyOf(this.names, this.names.length * 2);
+
+            int oldLength = this.deltaHead.length;
+            this.deltaHead = Arrays.copyOf(this.deltaHead, this.names.length);
+            Arrays.fill(this.deltaHead, oldLength, this.deltaHead.length, -1);
+        }
+
+        this.names[vertex] = id;
+        this.ids.put(id, vertex);
+
+        return vertex;
+    }
+
+    // callers must hold the write lock
+    private void addEdge(int source, int target) {
+        for (int index = this.csrStart(source); index < this.csrEnd(source); index++) {
+            if (this.csrTargets[index] == target) {
+                return;
+            }
+        }
+
+        for (int edge = this.deltaHead[source]; edge != -1; edge = this.deltaNext[edge]) {
+            if (this.deltaTarget[edge] == target) {
+                return;
+            }
+        }
+
+        if (this.deltaCount == this.deltaTarget.length) {
+            this.deltaTarget = Arrays.copyOf(this.deltaTarget, this.deltaTarget.length * 2);
+            this.deltaNext = Arrays.copyOf(this.deltaNext, this.deltaNext.length * 2);
+        }
+
+        int edge = this.deltaCount++;
+        this.deltaTarget[edge] = target;
+        this.deltaNext[edge] = this.deltaHead[source];
+        this.deltaHead[source] = edge;
+
+        if (this.deltaCount >= Math.max(MIN_COMPACTION_SIZE, this.csrTargets.length / 4)) {
+            this.compact();
+        }
+    }
+
+    // merges the delta segment into the CSR arrays; callers must hold the write lock
+    private void compact() {
+        int[] offsets = new int[this.vertexCount + 1];
+
+        for (int vertex = 0; vertex < this.vertexCount; vertex++) {
+            int degree = this.csrEnd(vertex) - this.csrStart(vertex);
+            for (int edge = this.deltaHead[vertex]; edge != -1; edge = this.deltaNext[edge]) {
+                degree++;
+            }
+
+            offsets[vertex + 1] = offsets[vertex] + degree;
+        }
+
+        int[] targets = new int[offsets[this.vertexCount]];
+
+        for (int vertex = 0; vertex < this.vertexCount; vertex++) {
+            int position = offsets[vertex];
+
+            for (int index = this.csrStart(vertex); index < this.csrEnd(vertex); index++) {
+                targets[position++] = this.csrTargets[index];
+            }
+
+            for (int edge = this.deltaHead[vertex]; edge != -1; edge = this.deltaNext[edge]) {
+                targets[position++] = this.deltaTarget[edge];
+            }
+        }
+
+        this.csrOffsets = offsets;
+        this.csrTargets = targets;
+        this.csrVertexCount = this.vertexCount;
+
+        Arrays.fill(this.deltaHead, -1);
+        this.deltaCount = 0;
+    }
+
+    // callers must hold a lock
+    private void successors(int vertex, IntConsumer consumer) {
+        for (int index = this.csrStart(vertex); index < this.csrEnd(vertex); index++) {
+            consumer.accept(this.csrTargets[index]);
+        }
+
+        for (int edge = this.deltaHead[vertex]; edge != -1; edge = this.deltaNext[edge]) {
+            consumer.accept(this.deltaTarget[edge]);
+        }
+    }
+
+    private int csrStart(int vertex) {
+        return vertex < this.csrVertexCount ? this.csrOffsets[vertex] : 0;
+    }
+
+    private int csrEnd(int vertex) {
+        return vertex < this.csrVertexCount ? this.csrOffsets[vertex + 1] : 0;
+    }
+}
@@ -32,13 +32,13 @@ public class GremlinFactories {
         this.structureFactory = new GremlinStructureFactory(itemFactory, cassandraClient);
         this.structureVersionFactory = new GremlinStructureVersionFactory(this.structureFactory, cassandraClient);
         GremlinTagFactory tagFactory = new GremlinTagFactory();
-        GremlinRichVersionFactory richVersionFactory = new GremlinRichVersionFactory(structureVersionFactory, tagFactory);
+        GremlinRichVersionFactory richVersionFactory = new GremlinRichVersionFactory(structureVersionFactory, tagFactory, new StructureSchemaCache());
         this.edgeFactory = new GremlinEdgeFactory(itemFactory, cassandraClient);
         this.edgeVersionFactory = new GremlinEdgeVersionFactory(this.edgeFactory, richVersionFactory, cassandraClient);
         this.graphFactory = new GremlinGraphFactory(itemFactory, cassandraClient);
         this.graphVersionFactory = new GremlinGraphVersionFactory(this.graphFactory, richVersionFactory, cassandraClient);
         this.nodeFactory = new GremlinNodeFactory(itemFactory, cassandraClient);
-        this.nodeVersionFactory = new GremlinNodeVersionFactory(this.nodeFactory, richVersionFactory, cassandraClient);
+        this.nodeVersionFactory = new GremlinNodeVersionFactory(this.nodeFactory, richVersionFactory, versionHistoryDAGFactory, cassandraClient);
 
         this.lineageEdgeFactory = new GremlinLineageEdgeFactory(itemFactory, cassandraClient);
         this.lineageEdgeVersionFactory = new GremlinLineageEdgeVersionFactory(this.lineageEdgeFactory, richVersionFactory, cassandraClient);
@@ -1,36 +1,64 @@
 package edu.berkeley.ground.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generates 40 character hex ids as the SHA-1 of an instance component, a sequence number and the base id.
+ *
+ * The instance component is drawn from SecureRandom when the class is loaded, so servers sharing a database never
+ * hash the same input, and the sequence number is unique within the instance. The generator takes no locks: the
+ * sequence is an AtomicLong and every thread keeps its own MessageDigest.
+ */
 public class IdGenerator {
-    private static int counter = 0;
+    private static final int INSTANCE_BYTES = 16;
+    private static final byte[] INSTANCE = IdGenerator.instance();
 
-    private static int numBytes = 20;
-    private static final String SEED = byteArrayToString(new SecureRandom().generateSeed(numBytes));
+    private static final AtomicLong SEQUENCE = new AtomicLong();
 
-    public static String generateId(String baseId) {
-
-        return SHA1(SEED + counter++ + baseId);
-    }
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
-    private static String SHA1(String str) {
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA1");
-            return byteArrayToString(md.digest(str.getBytes()));
+            return MessageDigest.getInstance("SHA1");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("FATAL ERROR: No SHA1 algorithm found in MessageDigest.");
         }
+    });
+
+    // generateSeed can block on the system's entropy source and stall class loading on a headless server; nextBytes
+    // doesn't
+    private static byte[] instance() {
+        byte[] instance = new byte[INSTANCE_BYTES];
+        new SecureRandom().nextBytes(instance);
+
+        return instance;
+    }
+
+    public static String generateId(String baseId) {
+        long sequence = SEQUENCE.getAndIncrement();
+
+        MessageDigest md = DIGESTS.get();
+        md.update(INSTANCE);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            md.update((byte) (sequence >>> shift));
+        }
+        md.update(baseId.getBytes(StandardCharsets.UTF_8));
+
+        return toHex(md.digest());
     }
 
-    private static String byteArrayToString(byte[] array) {
-        StringBuilder sb = new StringBuilder();
+    private static String toHex(byte[] array) {
+        char[] chars = new char[array.length * 2];
 
-        for (byte b : array) {
-            sb.append(Integer.toString(b & 0xff + 0x100, 16).substring(1));
+        for (int index = 0; index < array.length; index++) {
+            chars[index * 2] = HEX[(array[index] >> 4) & 0xf];
+            chars[index * 2 + 1] = HEX[array[index] & 0xf];
         }
 
-        return sb.toString();
+        return new String(chars);
     }
 }
@@ -34,13 +34,13 @@ public class PostgresFactories {
         this.structureFactory = new PostgresStructureFactory(itemFactory, postgresClient);
         this.structureVersionFactory = new PostgresStructureVersionFactory(this.structureFactory, versionFactory, postgresClient);
         PostgresTagFactory tagFactory = new PostgresTagFactory();
-        PostgresRichVersionFactory richVersionFactory = new PostgresRichVersionFactory(versionFactory, structureVersionFactory, tagFactory);
+        PostgresRichVersionFactory richVersionFactory = new PostgresRichVersionFactory(versionFactory, structureVersionFactory, tagFactory, new StructureSchemaCache());
         this.edgeFactory = new PostgresEdgeFactory(itemFactory, postgresClient);
         this.edgeVersionFactory = new PostgresEdgeVersionFactory(this.edgeFactory, richVersionFactory, postgresClient);
         this.graphFactory = new PostgresGraphFactory(itemFactory, postgresClient);
         this.graphVersionFactory = new PostgresGraphVersionFactory(this.graphFactory, richVersionFactory, postgresClient);
         this.nodeFactory = new PostgresNodeFactory(itemFactory, postgresClient);
-        this.nodeVersionFactory = new PostgresNodeVersionFactory(this.nodeFactory, richVersionFactory, postgresClient);
+        this.nodeVersionFactory = new PostgresNodeVersionFactory(this.nodeFactory, richVersionFactory, versionHistoryDAGFactory, postgresClient);
 
         this.lineageEdgeFactory = new PostgresLineageEdgeFactory(itemFactory, postgresClient);
         this.lineageEdgeVersionFactory = new PostgresLineageEdgeVersionFactory(this.lineageEdgeFactory, richVersionFactory, postgresClient);
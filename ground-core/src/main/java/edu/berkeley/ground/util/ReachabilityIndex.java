@@ -0,0 +1,401 @@
+package edu.berkeley.ground.util;
+
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Answers whether one vertex of a directed graph reaches another from pruned landmark labels, without traversing the
+ * graph.
+ *
+ * Vertices are ranked by degree, and every vertex v gets two labels: the ranks of the landmarks v reaches, and the
+ * ranks of the landmarks that reach v. The labels are built with a forward and a backward breadth-first search from
+ * each vertex in rank order, where a search is pruned at any vertex that the labels built so far already connect to
+ * its landmark. Then s reaches t exactly when the first label of s and the second label of t share a landmark, which is
+ * a merge of two short sorted arrays.
+ *
+ * Added edges are patched in by resuming the searches of the landmarks they newly connect. Patched labels are larger
+ * than rebuilt ones would be and edges added elsewhere are missed, so the owner rebuilds the index periodically; edges
+ * added while a rebuild is loading are replayed onto the new labels before they replace the old ones.
+ *
+ * The index records when the edges of its last rebuild were read. Every edge this server adds since then is patched
+ * in, so a negative answer can only be wrong because of edges added elsewhere after that time; isFresh lets the owner
+ * decide how long it trusts negative answers for.
+ *
+ * The index is safe for concurrent use; queries share a lock and updates take it exclusively.
+ */
+public class ReachabilityIndex {
+    private Labels labels = new Labels();
+
+    // edges added since the running rebuild started loading, or null when no rebuild is running
+    private List<String[]> pendingEdges = null;
+
+    // when the edges of the current labels were read, in milliseconds since the epoch, or -1 before the first rebuild
+    private long snapshotTime = -1;
+
+    // edges patched into the current labels since they were read
+    private long addedSinceSnapshot = 0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @FunctionalInterface
+    public interface EdgeLoader {
+        void load(BiConsumer<String, String> edges) throws GroundException;
+    }
+
+    /**
+     * Returns whether the vertex is in the index, i.e., whether it had an edge when the index was last built or has
+     * had one added since.
+     */
+    public boolean contains(String id) {
+        this.lock.readLock().lock();
+        try {
+            return this.labels.ids.containsKey(id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether there is a path of at least one edge from fromId to toId. Vertices that are not in the index
+     * reach nothing.
+     */
+    public boolean reaches(String fromId, String toId) {
+        this.lock.readLock().lock();
+        try {
+            Integer from = this.labels.ids.get(fromId);
+            Integer to = this.labels.ids.get(toId);
+
+            return from != null && to != null && this.labels.reachesByPath(from, to);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public void addEdge(String fromId, String toId) {
+        this.lock.writeLock().lock();
+        try {
+            this.labels.addEdge(this.labels.intern(fromId), this.labels.intern(toId));
+            this.addedSinceSnapshot++;
+
+            if (this.pendingEdges != null) {
+                this.pendingEdges.add(new String[] {fromId, toId});
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the labels with ones built from the edges that the loader passes on. Queries keep being answered from
+     * the old labels until the new ones are ready. Rebuilds must not run concurrently with each other.
+     */
+    public void rebuild(EdgeLoader loader) throws GroundException {
+        this.lock.writeLock().lock();
+        try {
+            this.pendingEdges = new ArrayList<>();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        Labels rebuilt = new Labels();
+        long started = System.currentTimeMillis();
+
+        try {
+            loader.load((fromId, toId) -> rebuilt.addAdjacency(rebuilt.intern(fromId), rebuilt.intern(toId)));
+            rebuilt.build();
+        } catch (GroundException | RuntimeException e) {
+            this.lock.writeLock().lock();
+            try {
+                this.pendingEdges = null;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            throw e;
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            for (String[] edge : this.pendingEdges) {
+                rebuilt.addEdge(rebuilt.intern(edge[0]), rebuilt.intern(edge[1]));
+            }
+
+            this.labels = rebuilt;
+            this.snapshotTime = started;
+            this.addedSinceSnapshot = this.pendingEdges.size();
+            this.pendingEdges = null;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the index has been built from edges read at most maxStaleness milliseconds ago, i.e., whether
+     * edges added through other servers can have been missed for at most that long.
+     */
+    public boolean isFresh(long maxStaleness) {
+        this.lock.readLock().lock();
+        try {
+            return this.snapshotTime >= 0 && System.currentTimeMillis() - this.snapshotTime <= maxStaleness;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of edges this server has patched into the index since its last rebuild read its edges.
+     */
+    public long getEdgesAddedSinceRebuild() {
+        this.lock.readLock().lock();
+        try {
+            return this.addedSinceSnapshot;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getVertexCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.labels.vertexCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of landmarks in all of the labels, which bounds the memory the index uses.
+     */
+    public long getLabelSize() {
+        this.lock.readLock().lock();
+        try {
+            long size = 0;
+            for (int vertex = 0; vertex < this.labels.vertexCount; vertex++) {
+                size += this.labels.reached[vertex].size + this.labels.reachedBy[vertex].size;
+            }
+
+            return size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The adjacency lists and labels of one build. Vertices are interned into dense ints; landmarks are stored by
+     * rank, with 0 the highest, and the labels are kept sorted so that they can be merged.
+     */
+    private static final class Labels {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private int vertexCount = 0;
+
+        private IntList[] successors = new IntList[16];
+        private IntList[] predecessors = new IntList[16];
+
+        private int[] rank = new int[16];
+        private int[] byRank = new int[16];
+
+        // reached[v] holds the landmarks that v reaches, reachedBy[v] the landmarks that reach v
+        private IntList[] reached = new IntList[16];
+        private IntList[] reachedBy = new IntList[16];
+
+        // marks the vertices visited by the current search, which are exactly those with visited[v] == visitStamp
+        private int[] visited = new int[16];
+        private int visitStamp = 0;
+
+        private final IntList queue = new IntList();
+
+        int intern(String id) {
+            Integer vertex = this.ids.get(id);
+            if (vertex != null) {
+                return vertex;
+            }
+
+            if (this.vertexCount == this.successors.length) {
+                int capacity = this.vertexCount * 2;
+
+                this.successors = Arrays.copyOf(this.successors, capacity);
+                this.predecessors = Arrays.copyOf(this.predecessors, capacity);
+                this.rank = Arrays.copyOf(this.rank, capacity);
+                this.byRank = Arrays.copyOf(this.byRank, capacity);
+                this.reached = Arrays.copyOf(this.reached, capacity);
+                this.reachedBy = Arrays.copyOf(this.reachedBy, capacity);
+                this.visited = Arrays.copyOf(this.visited, capacity);
+            }
+
+            int created = this.vertexCount++;
+            this.ids.put(id, created);
+            this.successors[created] = new IntList();
+            this.predecessors[created] = new IntList();
+            this.reached[created] = new IntList();
+            this.reachedBy[created] = new IntList();
+
+            // vertices added after a build rank below all others and are their own only landmark
+            this.rank[created] = created;
+            this.byRank[created] = created;
+            this.reached[created].add(created);
+            this.reachedBy[created].add(created);
+
+            return created;
+        }
+
+        void addAdjacency(int from, int to) {
+            this.successors[from].add(to);
+            this.predecessors[to].add(from);
+        }
+
+        /**
+         * Ranks the vertices by degree and computes every label from scratch.
+         */
+        void build() {
+            Integer[] order = new Integer[this.vertexCount];
+            for (int vertex = 0; vertex < this.vertexCount; vertex++) {
+                order[vertex] = vertex;
+
+                this.reached[vertex].clear();
+                this.reachedBy[vertex].clear();
+            }
+
+            // vertices that many paths go through cover many pairs, so they make the best landmarks
+            Arrays.sort(order, Comparator.comparingLong((Integer vertex) ->
+                    (long) (this.successors[vertex].size + 1) * (this.predecessors[vertex].size + 1)).reversed());
+
+            for (int index = 0; index < this.vertexCount; index++) {
+                this.rank[order[index]] = index;
+                this.byRank[index] = order[index];
+            }
+
+            for (int index = 0; index < this.vertexCount; index++) {
+                this.search(order[index], order[index], true);
+                this.search(order[index], order[index], false);
+            }
+        }
+
+        void addEdge(int from, int to) {
+            boolean connected = this.connected(from, to);
+            this.addAdjacency(from, to);
+
+            // every path the edge creates goes through from and to, so it is covered once the landmarks that reach
+            // from are carried forward from to and the landmarks that to reaches are carried back from from
+            if (!connected) {
+                for (int landmarkRank : this.reachedBy[from].toArray()) {
+                    this.search(this.byRank[landmarkRank], to, true);
+                }
+
+                for (int landmarkRank : this.reached[to].toArray()) {
+                    this.search(this.byRank[landmarkRank], from, false);
+                }
+            }
+        }
+
+        /**
+         * Runs a pruned breadth-first search on behalf of landmark, from start, forward along successors or backward
+         * along predecessors, adding the landmark to the labels of the vertices it visits.
+         */
+        private void search(int landmark, int start, boolean forward) {
+            int landmarkRank = this.rank[landmark];
+
+            this.visitStamp++;
+            this.queue.clear();
+            this.queue.add(start);
+            this.visited[start] = this.visitStamp;
+
+            for (int head = 0; head < this.queue.size; head++) {
+                int vertex = this.queue.values[head];
+
+                // a landmark is always in its own labels, so it is never pruned
+                if (vertex != landmark && (forward ? this.connected(landmark, vertex) : this.connected(vertex, landmark))) {
+                    continue;
+                }
+
+                (forward ? this.reachedBy[vertex] : this.reached[vertex]).insertSorted(landmarkRank);
+
+                IntList next = forward ? this.successors[vertex] : this.predecessors[vertex];
+                for (int index = 0; index < next.size; index++) {
+                    int neighbor = next.values[index];
+
+                    if (this.visited[neighbor] != this.visitStamp) {
+                        this.visited[neighbor] = this.visitStamp;
+                        this.queue.add(neighbor);
+                    }
+                }
+            }
+        }
+
+        // whether from reaches to by a path of any length, including none
+        private boolean connected(int from, int to) {
+            IntList out = this.reached[from];
+            IntList in = this.reachedBy[to];
+
+            int outIndex = 0;
+            int inIndex = 0;
+            while (outIndex < out.size && inIndex < in.size) {
+                int outRank = out.values[outIndex];
+                int inRank = in.values[inIndex];
+
+                if (outRank == inRank) {
+                    return true;
+                } else if (outRank < inRank) {
+                    outIndex++;
+                } else {
+                    inIndex++;
+                }
+            }
+
+            return false;
+        }
+
+        // whether from reaches to by a path of at least one edge; a vertex only reaches itself through a cycle
+        private boolean reachesByPath(int from, int to) {
+            if (from != to) {
+                return this.connected(from, to);
+            }
+
+            IntList next = this.successors[from];
+            for (int index = 0; index < next.size; index++) {
+                if (this.connected(next.values[index], from)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[2];
+        private int size = 0;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+
+            this.values[this.size++] = value;
+        }
+
+        // inserts value in sorted position unless it is present already
+        void insertSorted(int value) {
+            int position = Arrays.binarySearch(this.values, 0, this.size, value);
+            if (position >= 0) {
+                return;
+            }
+
+            position = -position - 1;
+            this.add(value);
+            System.arraycopy(this.values, position, this.values, position + 1, this.size - 1 - position);
+            this.values[position] = value;
+        }
+
+        void clear() {
+            this.size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package edu.berkeley.ground.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.berkeley.ground.api.models.GraphVersion;
+import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.versions.Version;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A read-through cache of versions by type and id, shared by every version type so that they are bounded together.
+ * Entries are keyed by type as well as id so that an id looked up as the wrong type is a miss, which the backend then
+ * answers as not found, rather than a version of another type. Versions are immutable, so an entry stays valid until it
+ * is evicted. Eviction is by weight: a version weighs one plus the number of its tags, parameters, attributes and edge
+ * versions, so a few very large versions can't crowd out many small ones without being accounted for.
+ */
+public class VersionCache {
+    private final Cache<Key, Version> versions;
+
+    public VersionCache(long maxWeight, MetricRegistry metricRegistry) {
+        this.versions = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Version version) -> VersionCache.weigh(version))
+                .recordStats()
+                .build();
+
+        metricRegistry.register(MetricRegistry.name(VersionCache.class, "hits"), (Gauge<Long>) () -> this.versions.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name(VersionCache.class, "misses"), (Gauge<Long>) () -> this.versions.stats().missCount());
+        metricRegistry.register(MetricRegistry.name(VersionCache.class, "evictions"), (Gauge<Long>) () -> this.versions.stats().evictionCount());
+        metricRegistry.register(MetricRegistry.name(VersionCache.class, "size"), (Gauge<Long>) this.versions::size);
+        metricRegistry.register(MetricRegistry.name(VersionCache.class, "hit-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                CacheStats stats = versions.stats();
+                return Ratio.of(stats.hitCount(), stats.requestCount());
+            }
+        });
+    }
+
+    /**
+     * Returns the version of the given type with the given id, calling loader to read it from the database if it isn't
+     * cached. Failed loads are not cached.
+     */
+    public <T extends Version> T get(Class<T> type, String id, Callable<T> loader) throws GroundException {
+        try {
+            return type.cast(this.versions.get(new Key(type, id), loader));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof GroundException) {
+                throw (GroundException) e.getCause();
+            }
+
+            throw new GroundException(e.getCause().getClass().toString() + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Returns the versions of the given type with the given ids in the order of the ids, calling loader once for all of
+     * the ids that aren't cached. Ids that loader doesn't return a version for are left out.
+     */
+    public <T extends Version> List<T> getAll(Class<T> type, List<String> ids, BatchLoader<T> loader) throws GroundException {
+        Map<String, T> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String id : ids) {
+            Version version = this.versions.getIfPresent(new Key(type, id));
+
+            if (version != null) {
+                found.put(id, type.cast(version));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (T version : loader.load(new ArrayList<>(missing))) {
+                this.versions.put(new Key(type, version.getId()), version);
+                found.put(version.getId(), version);
+            }
+        }
+
+        List<T> result = new ArrayList<>();
+        for (String id : ids) {
+            T version = found.get(id);
+
+            if (version != null) {
+                result.add(version);
+            }
+        }
+
+        return result;
+    }
+
+    public CacheStats getStats() {
+        return this.versions.stats();
+    }
+
+    static int weigh(Version version) {
+        int weight = 1;
+
+        if (version instanceof RichVersion) {
+            RichVersion richVersion = (RichVersion) version;
+
+            weight += richVersion.getTags().map(tags -> tags.size()).orElse(0);
+            weight += richVersion.getParameters().map(parameters -> parameters.size()).orElse(0);
+        }
+
+        if (version instanceof GraphVersion) {
+            weight += ((GraphVersion) version).getEdgeVersionIds().size();
+        }
+
+        if (version instanceof StructureVersion) {
+            weight += ((StructureVersion) version).getAttributes().size();
+        }
+
+        return weight;
+    }
+
+    @FunctionalInterface
+    public interface BatchLoader<T extends Version> {
+        List<T> load(List<String> ids) throws GroundException;
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final String id;
+
+        Key(Class<?> type, String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) other;
+            return this.type.equals(key.type) && this.id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.type.hashCode() + this.id.hashCode();
+        }
+    }
+}
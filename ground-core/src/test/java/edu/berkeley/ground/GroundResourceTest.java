@@ -1,16 +1,29 @@
 package edu.berkeley.ground;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import edu.berkeley.ground.db.CassandraClient;
+import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.GremlinClient;
 import edu.berkeley.ground.exceptions.GroundDBException;
+import edu.berkeley.ground.exceptions.GroundException;
 import edu.berkeley.ground.resources.*;
 import edu.berkeley.ground.util.CassandraFactories;
 import edu.berkeley.ground.util.PostgresFactories;
 import edu.berkeley.ground.util.GremlinFactories;
+import io.dropwizard.util.Duration;
+import org.junit.After;
 import org.junit.Before;
 
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
 import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 
 public class GroundResourceTest {
@@ -23,24 +36,19 @@ public class GroundResourceTest {
     protected LineageEdgesResource lineageEdgesResource;
     protected StructuresResource structuresResource;
 
+    protected DBClient dbClient;
+
+    // runs every call on the calling thread, so the response has been resumed by the time the resource method returns
+    protected BackendExecutor backendExecutor = new BackendExecutor(MoreExecutors.newDirectExecutorService(), Duration.seconds(30));
+
     @Before
     public void setUp() {
         try {
             switch (BACKING_STORE_TYPE) {
-                case "postgres": {
-                    setBackingStore();
-
-                    Process p = Runtime.getRuntime().exec("python2.7 postgres_setup.py test " + TEST_DB_NAME, null, new File("scripts/postgres/"));
-                    p.waitFor();
-
-                    break;
-                }
-
+                case "postgres":
                 case "cassandra": {
                     setBackingStore();
-
-                    Process p = Runtime.getRuntime().exec("python2.7 cassandra_setup.py " + TEST_DB_NAME, null, new File("scripts/cassandra/"));
-                    p.waitFor();
+                    resetDatabase();
 
                     break;
                 }
@@ -59,45 +67,172 @@ public class GroundResourceTest {
         }
     }
 
+    @After
+    public void tearDown() throws GroundDBException {
+        if (this.dbClient != null) {
+            this.dbClient.close();
+        }
+    }
+
+    /**
+     * Recreates the tables of the test database from the setup scripts, leaving it empty.
+     */
+    protected void resetDatabase() throws Exception {
+        switch (BACKING_STORE_TYPE) {
+            case "postgres": {
+                Process p = Runtime.getRuntime().exec("python2.7 postgres_setup.py test " + TEST_DB_NAME, null, new File("scripts/postgres/"));
+                p.waitFor();
+
+                break;
+            }
+
+            case "cassandra": {
+                Process p = Runtime.getRuntime().exec("python2.7 cassandra_setup.py " + TEST_DB_NAME, null, new File("scripts/cassandra/"));
+                p.waitFor();
+
+                break;
+            }
+        }
+    }
+
     private void setBackingStore() throws GroundDBException {
         switch (BACKING_STORE_TYPE) {
             case "postgres": {
                 PostgresClient dbClient = new PostgresClient("localhost", 5432, "test", "test", "");
+                this.dbClient = dbClient;
                 PostgresFactories factoryGenerator = new PostgresFactories(dbClient);
 
-                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory());
-                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory());
-                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory());
-                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory());
-                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory());
+                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory(), backendExecutor);
+                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory(), backendExecutor);
+                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory(), backendExecutor);
+                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory(), backendExecutor);
+                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory(), backendExecutor);
                 break;
             }
 
             case "cassandra": {
                 CassandraClient dbClient = new CassandraClient("localhost", 9160, "test", "test", "");
+                this.dbClient = dbClient;
                 CassandraFactories factoryGenerator = new CassandraFactories(dbClient);
 
-                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory());
-                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory());
-                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory());
-                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory());
-                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory());
+                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory(), backendExecutor);
+                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory(), backendExecutor);
+                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory(), backendExecutor);
+                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory(), backendExecutor);
+                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory(), backendExecutor);
                 break;
             }
 
             case "grermlin": {
                 GremlinClient dbClient = new GremlinClient();
+                this.dbClient = dbClient;
                 GremlinFactories factoryGenerator = new GremlinFactories(dbClient);
 
-                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory());
-                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory());
-                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory());
-                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory());
-                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory());
+                nodesResource = new NodesResource(factoryGenerator.getNodeFactory(), factoryGenerator.getNodeVersionFactory(), backendExecutor);
+                edgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(), factoryGenerator.getEdgeVersionFactory(), backendExecutor);
+                graphsResource = new GraphsResource(factoryGenerator.getGraphFactory(), factoryGenerator.getGraphVersionFactory(), backendExecutor);
+                lineageEdgesResource = new LineageEdgesResource(factoryGenerator.getLineageEdgeFactory(), factoryGenerator.getLineageEdgeVersionFactory(), backendExecutor);
+                structuresResource = new StructuresResource(factoryGenerator.getStructureFactory(), factoryGenerator.getStructureVersionFactory(), backendExecutor);
 
                 break;
             }
 
         }
     }
+
+    /**
+     * Calls an asynchronous resource method and returns the entity it resumed its response with, rethrowing the
+     * GroundException it resumed with instead.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> T await(Consumer<AsyncResponse> call) throws GroundException {
+        CapturingAsyncResponse response = new CapturingAsyncResponse();
+        call.accept(response);
+
+        if (response.result instanceof GroundException) {
+            throw (GroundException) response.result;
+        }
+
+        if (response.result instanceof RuntimeException) {
+            throw (RuntimeException) response.result;
+        }
+
+        return (T) response.result;
+    }
+
+    private static class CapturingAsyncResponse implements AsyncResponse {
+        private Object result;
+        private boolean done = false;
+
+        @Override
+        public boolean resume(Object response) {
+            this.result = response;
+            this.done = true;
+            return true;
+        }
+
+        @Override
+        public boolean resume(Throwable response) {
+            return this.resume((Object) response);
+        }
+
+        @Override
+        public boolean cancel() {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(int retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(Date retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return !this.done;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.done;
+        }
+
+        @Override
+        public boolean setTimeout(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void setTimeoutHandler(TimeoutHandler handler) {
+        }
+
+        @Override
+        public Collection<Class<?>> register(Class<?> callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Collection<Class<?>> register(Object callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+            return Collections.emptyMap();
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package edu.berkeley.ground.api.models;
+
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.exceptions.GroundException;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class StructureSchemaTest {
+
+    @Test
+    public void acceptsMatchingTags() throws GroundException {
+        StructureSchema schema = StructureSchema.compile(structureVersion());
+
+        Map<String, Tag> tags = new HashMap<>();
+        tags.put("tag1", new Tag("abcd", "tag1", Optional.of(1), Optional.of(Type.INTEGER)));
+        tags.put("tag2", new Tag("abcd", "tag2", Optional.of("value"), Optional.of(Type.STRING)));
+        tags.put("tag3", new Tag("abcd", "tag3", Optional.empty(), Optional.empty()));
+
+        schema.check(Optional.of(tags));
+    }
+
+    @Test
+    public void rejectsMissingAndMistypedTags() {
+        StructureSchema schema = StructureSchema.compile(structureVersion());
+
+        Map<String, Tag> tags = new HashMap<>();
+        tags.put("tag1", new Tag("abcd", "tag1", Optional.of(1), Optional.of(Type.INTEGER)));
+        assertRejected(schema, Optional.of(tags), "No tag with key tag2 was specified.");
+
+        tags.put("tag2", new Tag("abcd", "tag2", Optional.of(1), Optional.of(Type.INTEGER)));
+        assertRejected(schema, Optional.of(tags), "Tag with key tag2 did not have a value of the correct type.");
+
+        assertRejected(schema, Optional.empty(), "No tags were specified");
+    }
+
+    @Test
+    public void compilesEachStructureVersionOnce() throws GroundException {
+        StructureSchemaCache cache = new StructureSchemaCache();
+        AtomicInteger retrievals = new AtomicInteger();
+
+        for (int index = 0; index < 3; index++) {
+            StructureSchema schema = cache.get("abcd", () -> {
+                retrievals.incrementAndGet();
+                return structureVersion();
+            });
+
+            assertThat(schema.getStructureVersionId()).isEqualTo("abcd");
+        }
+
+        assertThat(retrievals.get()).isEqualTo(1);
+    }
+
+    private static void assertRejected(StructureSchema schema, Optional<Map<String, Tag>> tags, String message) {
+        try {
+            schema.check(tags);
+            fail("the tags should have been rejected");
+        } catch (GroundException e) {
+            assertThat(e.getMessage()).isEqualTo(message);
+        }
+    }
+
+    private static StructureVersion structureVersion() {
+        Map<String, Type> attributes = new HashMap<>();
+        attributes.put("tag1", Type.INTEGER);
+        attributes.put("tag2", Type.STRING);
+
+        return new StructureVersion("abcd", "Structures.test", attributes);
+    }
+}
@@ -0,0 +1,116 @@
+package edu.berkeley.ground.api.versions;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionHistoryDAGTest {
+
+    @Test
+    public void keepsEveryChildOfABranch() {
+        VersionHistoryDAG<Version> dag = new VersionHistoryDAG<>("Nodes.test", new ArrayList<>());
+        dag.addEdge("EMPTY", "a", "s1");
+        dag.addEdge("a", "b", "s2");
+        dag.addEdge("a", "c", "s3");
+
+        assertThat(dag.getChildren("a")).containsExactly("b", "c");
+        assertThat(dag.getParents("b")).containsExactly("a");
+        assertThat(dag.getLeaves()).containsOnly("b", "c");
+        assertThat(dag.getEdgeIds()).containsExactly("s1", "s2", "s3");
+    }
+
+    @Test
+    public void maintainsLeavesAcrossMerges() {
+        VersionHistoryDAG<Version> dag = new VersionHistoryDAG<>("Nodes.test", new ArrayList<>());
+        dag.addEdge("EMPTY", "a", "s1");
+        dag.addEdge("a", "b", "s2");
+        dag.addEdge("a", "c", "s3");
+        dag.addEdge("b", "d", "s4");
+        dag.addEdge("c", "d", "s5");
+
+        assertThat(dag.getLeaves()).containsExactly("d");
+        assertThat(dag.getParents("d")).containsExactly("b", "c");
+    }
+
+    @Test
+    public void checksMembership() {
+        VersionSuccessor<Version> edge = new VersionSuccessor<>("s1", "EMPTY", "a");
+        VersionHistoryDAG<Version> dag = new VersionHistoryDAG<>("Nodes.test", Arrays.asList(edge));
+
+        assertThat(dag.checkItemInDag("a")).isTrue();
+        assertThat(dag.checkItemInDag("EMPTY")).isTrue();
+        assertThat(dag.checkItemInDag("b")).isFalse();
+        assertThat(dag.getChildren("b")).isEmpty();
+    }
+
+    @Test
+    public void handlesLongHistories() {
+        List<VersionSuccessor<Version>> edges = new ArrayList<>();
+        String parentId = "EMPTY";
+
+        for (int index = 0; index < 200000; index++) {
+            String childId = "v" + index;
+            edges.add(new VersionSuccessor<>("s" + index, parentId, childId));
+            parentId = childId;
+        }
+
+        VersionHistoryDAG<Version> dag = new VersionHistoryDAG<>("Nodes.test", edges);
+
+        assertThat(dag.getLeaves()).containsExactly("v199999");
+        assertThat(dag.checkItemInDag("v0")).isTrue();
+        assertThat(dag.checkItemInDag("v199999")).isTrue();
+    }
+
+    @Test
+    public void walksHistoryByDistance() {
+        VersionHistoryDAG<Version> dag = diamond();
+
+        List<String> all = dag.getHistory(Optional.empty(), 10).stream()
+                .map(VersionSuccessor::getId)
+                .collect(Collectors.toList());
+        List<String> fromA = dag.getHistory(Optional.of("a"), 1).stream()
+                .map(VersionSuccessor::getId)
+                .collect(Collectors.toList());
+
+        assertThat(all).containsExactly("s1", "s2", "s3", "s4", "s5");
+        assertThat(fromA).containsExactly("s2", "s3");
+    }
+
+    @Test
+    public void findsAncestorsAndDescendants() {
+        VersionHistoryDAG<Version> dag = diamond();
+
+        assertThat(dag.getAncestors("d", 10)).containsExactly("b", "c", "a");
+        assertThat(dag.getAncestors("d", 1)).containsExactly("b", "c");
+        assertThat(dag.getDescendants("a", 10)).containsExactly("b", "c", "d");
+        assertThat(dag.getDescendants("d", 10)).isEmpty();
+    }
+
+    @Test
+    public void findsLowestCommonAncestor() {
+        VersionHistoryDAG<Version> dag = diamond();
+        dag.addEdge("EMPTY", "x", "s6");
+
+        assertThat(dag.getLowestCommonAncestor("b", "c")).contains("a");
+        assertThat(dag.getLowestCommonAncestor("b", "d")).contains("b");
+        assertThat(dag.getLowestCommonAncestor("d", "d")).contains("d");
+        assertThat(dag.getLowestCommonAncestor("a", "x")).isEmpty();
+    }
+
+    private static VersionHistoryDAG<Version> diamond() {
+        VersionHistoryDAG<Version> dag = new VersionHistoryDAG<>("Nodes.test", new ArrayList<>());
+        dag.addEdge("EMPTY", "a", "s1");
+        dag.addEdge("a", "b", "s2");
+        dag.addEdge("a", "c", "s3");
+        dag.addEdge("b", "d", "s4");
+        dag.addEdge("c", "d", "s5");
+
+        return dag;
+    }
+}
@@ -0,0 +1,80 @@
+package edu.berkeley.ground.api.versions.postgres;
+
+import edu.berkeley.ground.GroundResourceTest;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
+import edu.berkeley.ground.api.models.Node;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.db.PostgresClient;
+import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
+import io.dropwizard.jersey.params.NonEmptyStringParam;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class PostgresVersionHistoryDAGFactoryTest extends GroundResourceTest {
+    private final PostgresVersionHistoryDAGFactory versionHistoryDAGFactory = new PostgresVersionHistoryDAGFactory(new PostgresVersionSuccessorFactory());
+
+    @Test
+    public void walksTheHistoryOfTheItem() throws GroundException {
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion first = this.createNodeVersion(node.getId(), null);
+        NodeVersion second = this.createNodeVersion(node.getId(), first.getId());
+        NodeVersion third = this.createNodeVersion(node.getId(), first.getId());
+
+        PostgresConnection connection = ((PostgresClient) this.dbClient).getConnection();
+        try {
+            assertThat(this.versionHistoryDAGFactory.getAncestors(connection, node.getId(), second.getId(), 10, 0, 10)).containsExactly(first.getId());
+            assertThat(this.versionHistoryDAGFactory.getDescendants(connection, node.getId(), first.getId(), 10, 0, 10)).containsOnly(second.getId(), third.getId());
+            assertThat(this.versionHistoryDAGFactory.getLowestCommonAncestor(connection, node.getId(), second.getId(), third.getId())).contains(first.getId());
+        } finally {
+            connection.abort();
+        }
+    }
+
+    @Test
+    public void rejectsVersionsOfOtherItems() throws GroundException {
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion first = this.createNodeVersion(node.getId(), null);
+        NodeVersion second = this.createNodeVersion(node.getId(), first.getId());
+
+        Node other = await(response -> nodesResource.createNode("other", response));
+        NodeVersion otherVersion = this.createNodeVersion(other.getId(), null);
+
+        PostgresConnection connection = ((PostgresClient) this.dbClient).getConnection();
+        try {
+            try {
+                this.versionHistoryDAGFactory.getAncestors(connection, node.getId(), otherVersion.getId(), 10, 0, 10);
+                fail("ancestors of a version of another item");
+            } catch (GroundNotFoundException e) {
+                assertThat(e.getMessage()).contains(otherVersion.getId());
+            }
+
+            try {
+                this.versionHistoryDAGFactory.getDescendants(connection, node.getId(), otherVersion.getId(), 10, 0, 10);
+                fail("descendants of a version of another item");
+            } catch (GroundNotFoundException e) {
+                assertThat(e.getMessage()).contains(otherVersion.getId());
+            }
+
+            try {
+                this.versionHistoryDAGFactory.getLowestCommonAncestor(connection, node.getId(), second.getId(), otherVersion.getId());
+                fail("lowest common ancestor with a version of another item");
+            } catch (GroundNotFoundException e) {
+                assertThat(e.getMessage()).contains(otherVersion.getId());
+            }
+        } finally {
+            connection.abort();
+        }
+    }
+
+    private NodeVersion createNodeVersion(String nodeId, String parentId) throws GroundException {
+        return await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), nodeId), new NonEmptyStringParam(parentId), response));
+    }
+}
@@ -0,0 +1,87 @@
+package edu.berkeley.ground.commands;
+
+import edu.berkeley.ground.GroundResourceTest;
+import edu.berkeley.ground.GroundServer;
+import edu.berkeley.ground.GroundServerConfiguration;
+import edu.berkeley.ground.api.models.Edge;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
+import edu.berkeley.ground.api.models.Node;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.versions.Type;
+import io.dropwizard.jersey.params.NonEmptyStringParam;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DumpCommandTest extends GroundResourceTest {
+
+    @Test
+    public void importRestoresExport() throws Exception {
+        Node node = await(response -> nodesResource.createNode("test", response));
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+
+        Map<String, Tag> tags = new HashMap<>();
+        tags.put("owner", new Tag(null, "owner", Optional.of("ground"), Optional.of(Type.STRING)));
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("http", "GET");
+
+        NodeVersion first = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.of(tags), Optional.<String>empty(), Optional.of("http://www.google.com"), Optional.of(parameters), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion second = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(first.getId()), response));
+        await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), first.getId(), second.getId()), new NonEmptyStringParam(null), response));
+
+        Path exported = Files.createTempFile("ground-export", ".ndjson");
+        Path reexported = Files.createTempFile("ground-reexport", ".ndjson");
+
+        try {
+            new ExportCommand().run(DumpCommandTest.bootstrap(), DumpCommandTest.namespace(exported), DumpCommandTest.configuration());
+
+            this.resetDatabase();
+            new ImportCommand().run(DumpCommandTest.bootstrap(), DumpCommandTest.namespace(exported), DumpCommandTest.configuration());
+
+            new ExportCommand().run(DumpCommandTest.bootstrap(), DumpCommandTest.namespace(reexported), DumpCommandTest.configuration());
+
+            // tables are scanned in no particular order, so only the sets of rows are compared
+            List<String> expected = Files.readAllLines(exported, StandardCharsets.UTF_8);
+            List<String> actual = Files.readAllLines(reexported, StandardCharsets.UTF_8);
+
+            assertThat(expected).isNotEmpty();
+            assertThat(actual).containsExactlyInAnyOrder(expected.toArray(new String[expected.size()]));
+        } finally {
+            Files.deleteIfExists(exported);
+            Files.deleteIfExists(reexported);
+        }
+    }
+
+    private static Bootstrap<GroundServerConfiguration> bootstrap() {
+        return new Bootstrap<>(new GroundServer());
+    }
+
+    private static Namespace namespace(Path dump) {
+        return new Namespace(Collections.<String, Object>singletonMap("dump", dump.toString()));
+    }
+
+    // the test database, as GroundResourceTest connects to it
+    private static GroundServerConfiguration configuration() {
+        GroundServerConfiguration configuration = new GroundServerConfiguration();
+        configuration.setDbType("postgres");
+        configuration.setDbHost("localhost");
+        configuration.setDbPort(5432);
+        configuration.setDbName("test");
+        configuration.setDbUser("test");
+        configuration.setDbPassword("");
+
+        return configuration;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.berkeley.ground.db;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GremlinClientTest {
+    // enough merges that walking every path instead of every vertex would not finish
+    private static final int DIAMOND_COUNT = 40;
+
+    private GremlinClient client;
+    private GremlinConnection connection;
+
+    @Before
+    public void setUp() throws GroundException {
+        // the graph is only read within the connection's transaction, which is never committed, so Titan's default
+        // schema is enough
+        this.client = new GremlinClient(TitanFactory.build().set("storage.backend", "inmemory").open());
+        this.connection = this.client.getConnection();
+
+        // v0 -> {a0, b0} -> v1 -> {a1, b1} -> v2 ..., and a shortcut v0 -> a2 that makes v3 two steps from v0
+        Vertex previous = this.addVertex("v0");
+        Vertex first = previous;
+        Vertex shortcut = null;
+
+        for (int index = 0; index < DIAMOND_COUNT; index++) {
+            Vertex left = this.addVertex("a" + index);
+            Vertex right = this.addVertex("b" + index);
+            Vertex merge = this.addVertex("v" + (index + 1));
+
+            this.addEdge(previous, left);
+            this.addEdge(previous, right);
+            this.addEdge(left, merge);
+            this.addEdge(right, merge);
+
+            if (index == 2) {
+                shortcut = left;
+            }
+
+            previous = merge;
+        }
+
+        this.addEdge(first, shortcut);
+    }
+
+    @After
+    public void tearDown() throws GroundException {
+        this.connection.abort();
+        this.client.close();
+    }
+
+    @Test
+    public void findsVerticesAtTheirShortestDistance() {
+        assertThat(this.connection.getVertexIdsWithinDepth("v0", "VersionSuccessor", Direction.OUT, 1, "none", 0, 100))
+                .containsOnly("a0", "b0", "a2");
+        assertThat(this.connection.getVertexIdsWithinDepth("v0", "VersionSuccessor", Direction.OUT, 2, "none", 0, 100))
+                .containsOnly("a0", "b0", "a2", "v1", "v3");
+        assertThat(this.connection.getVertexIdsWithinDepth("v2", "VersionSuccessor", Direction.IN, 2, "v0", 0, 100))
+                .containsOnly("a1", "b1", "v1");
+
+        // every vertex but the start and the left out one, each once
+        List<String> descendants = this.connection.getVertexIdsWithinDepth("v0", "VersionSuccessor", Direction.OUT, 1000, "v1", 0, 1000);
+        assertThat(descendants).hasSize(3 * DIAMOND_COUNT - 1).doesNotContain("v0", "v1");
+        assertThat(new HashSet<>(descendants)).hasSize(descendants.size());
+
+        assertThat(this.connection.getVertexIdsWithinDepth("missing", "VersionSuccessor", Direction.OUT, 1000, "none", 0, 100)).isEmpty();
+    }
+
+    @Test
+    public void pagesThroughEdgesWithinDepth() {
+        Vertex start = this.connection.getVertex(Collections.singletonList(this.idContainer("v0")));
+
+        // the edges out of v0, and out of a0, b0 and a2
+        assertThat(this.connection.getDescendantEdgesWithLabel(start, "VersionSuccessor", 2, 0, 100)).hasSize(6);
+
+        Set<Edge> edges = new HashSet<>();
+        for (int offset = 0; offset < 4 * DIAMOND_COUNT + 1; offset += 7) {
+            List<Edge> page = this.connection.getDescendantEdgesWithLabel(start, "VersionSuccessor", 1000, offset, 7);
+            assertThat(page).hasSize(Math.min(7, 4 * DIAMOND_COUNT + 1 - offset));
+
+            edges.addAll(page);
+        }
+
+        assertThat(edges).hasSize(4 * DIAMOND_COUNT + 1);
+    }
+
+    private Vertex addVertex(String id) {
+        return this.connection.addVertex("NodeVersion", Collections.singletonList(this.idContainer(id)));
+    }
+
+    private void addEdge(Vertex from, Vertex to) {
+        this.connection.addEdge("VersionSuccessor", from, to, Collections.emptyList());
+    }
+
+    private DbDataContainer idContainer(String id) {
+        try {
+            return new DbDataContainer("id", Type.STRING, id);
+        } catch (GroundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.berkeley.ground.db;
+
+import com.codahale.metrics.MetricRegistry;
+import edu.berkeley.ground.ClosureTableConfiguration;
+import edu.berkeley.ground.DbPoolConfiguration;
+import edu.berkeley.ground.GroundResourceTest;
+import edu.berkeley.ground.api.models.Edge;
+import edu.berkeley.ground.api.models.EdgeVersionFactory;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
+import edu.berkeley.ground.api.models.Node;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.PostgresFactories;
+import io.dropwizard.jersey.params.NonEmptyStringParam;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the answers of the NodeVersionReachability table with those of the recursive queries over EdgeVersions,
+ * which the client from GroundResourceTest runs since it is created with the table disabled.
+ */
+public class PostgresReachabilityIndexTest extends GroundResourceTest {
+    private static final int NODE_VERSION_COUNT = 12;
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void matchesRecursiveQueries() throws GroundException {
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+        List<String> nodeVersionIds = this.createNodeVersions();
+
+        // edge versions written before the table is enabled are picked up when it is built
+        EdgeVersionFactory recursiveEdgeVersions = new PostgresFactories((PostgresClient) this.dbClient).getEdgeVersionFactory();
+        this.createEdgeVersions(recursiveEdgeVersions, edge.getId(), nodeVersionIds, 10);
+
+        PostgresClient indexed = PostgresReachabilityIndexTest.createClient(true);
+        try {
+            // and edge versions written afterwards are added as they are committed, cycles included
+            EdgeVersionFactory indexedEdgeVersions = new PostgresFactories(indexed).getEdgeVersionFactory();
+            this.createEdgeVersions(indexedEdgeVersions, edge.getId(), nodeVersionIds, 15);
+
+            assertThat(PostgresReachabilityIndexTest.isCurrent(indexed)).isTrue();
+            this.assertMatchesRecursiveQueries(indexed, nodeVersionIds);
+        } finally {
+            indexed.close();
+        }
+    }
+
+    @Test
+    public void rebuildsAfterRunningWithoutIt() throws GroundException {
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+        List<String> nodeVersionIds = this.createNodeVersions();
+
+        PostgresClient indexed = PostgresReachabilityIndexTest.createClient(true);
+        try {
+            this.createEdgeVersions(new PostgresFactories(indexed).getEdgeVersionFactory(), edge.getId(), nodeVersionIds, 8);
+            assertThat(PostgresReachabilityIndexTest.isCurrent(indexed)).isTrue();
+
+            // a server without the table writes edge versions that the table doesn't know about
+            PostgresClient unindexed = PostgresReachabilityIndexTest.createClient(false);
+            try {
+                this.createEdgeVersions(new PostgresFactories(unindexed).getEdgeVersionFactory(), edge.getId(), nodeVersionIds, 8);
+            } finally {
+                unindexed.close();
+            }
+
+            // so servers with the table answer from the recursive queries until it is rebuilt
+            assertThat(PostgresReachabilityIndexTest.isCurrent(indexed)).isFalse();
+            this.assertMatchesRecursiveQueries(indexed, nodeVersionIds);
+        } finally {
+            indexed.close();
+        }
+
+        PostgresClient rebuilt = PostgresReachabilityIndexTest.createClient(true);
+        try {
+            assertThat(PostgresReachabilityIndexTest.isCurrent(rebuilt)).isTrue();
+            this.assertMatchesRecursiveQueries(rebuilt, nodeVersionIds);
+        } finally {
+            rebuilt.close();
+        }
+    }
+
+    private List<String> createNodeVersions() throws GroundException {
+        Node node = await(response -> nodesResource.createNode("test", response));
+
+        List<String> nodeVersionIds = new ArrayList<>();
+        for (int index = 0; index < NODE_VERSION_COUNT; index++) {
+            NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+            nodeVersionIds.add(nodeVersion.getId());
+        }
+
+        return nodeVersionIds;
+    }
+
+    private void createEdgeVersions(EdgeVersionFactory edgeVersionFactory, String edgeId, List<String> nodeVersionIds, int count) throws GroundException {
+        for (int index = 0; index < count; index++) {
+            String fromId = nodeVersionIds.get(this.random.nextInt(nodeVersionIds.size()));
+            String toId = nodeVersionIds.get(this.random.nextInt(nodeVersionIds.size()));
+
+            edgeVersionFactory.create(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), edgeId, fromId, toId, Optional.empty());
+        }
+    }
+
+    private void assertMatchesRecursiveQueries(PostgresClient indexed, List<String> nodeVersionIds) throws GroundException {
+        PostgresConnection expected = ((PostgresClient) this.dbClient).getConnection();
+        PostgresConnection actual = indexed.getConnection();
+
+        try {
+            for (String fromId : nodeVersionIds) {
+                assertThat(new HashSet<>(actual.transitiveClosure(fromId)))
+                        .as("descendants of " + fromId)
+                        .isEqualTo(new HashSet<>(expected.transitiveClosure(fromId)));
+
+                for (String toId : nodeVersionIds) {
+                    assertThat(actual.reaches(fromId, toId))
+                            .as(fromId + " reaches " + toId)
+                            .isEqualTo(expected.reaches(fromId, toId));
+                }
+            }
+        } finally {
+            expected.abort();
+            actual.abort();
+        }
+    }
+
+    // whether the table covers every edge version, so that queries are answered from it
+    private static boolean isCurrent(PostgresClient client) throws GroundException {
+        PostgresConnection connection = client.getConnection();
+
+        try {
+            QueryResults resultSet = connection.query("select exists (select 1 from NodeVersionReachabilityState where complete) " +
+                    "and not exists (select 1 from NodeVersionReachabilityPending);", Collections.emptyList());
+
+            return resultSet.getBoolean(1);
+        } finally {
+            connection.abort();
+        }
+    }
+
+    private static PostgresClient createClient(boolean closureTableEnabled) throws GroundException {
+        ClosureTableConfiguration closureTable = new ClosureTableConfiguration();
+        closureTable.setEnabled(closureTableEnabled);
+
+        return new PostgresClient("localhost", 5432, "test", "test", "", new DbPoolConfiguration(), closureTable, new MetricRegistry());
+    }
+}
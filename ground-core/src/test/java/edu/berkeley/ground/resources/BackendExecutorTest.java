@@ -0,0 +1,190 @@
+package edu.berkeley.ground.resources;
+
+import edu.berkeley.ground.exceptions.GroundNotFoundException;
+import io.dropwizard.util.Duration;
+import org.junit.Test;
+
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackendExecutorTest {
+
+    @Test
+    public void cancelsQueuedWritesThatTimeOut() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BackendExecutor backendExecutor = new BackendExecutor(executor, Duration.seconds(30));
+
+        // occupy the only backend thread so that the write stays queued
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        AtomicBoolean ran = new AtomicBoolean(false);
+        RecordingAsyncResponse response = new RecordingAsyncResponse();
+        backendExecutor.submitWrite(response, () -> ran.getAndSet(true));
+
+        response.timeoutHandler.handleTimeout(response);
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran.get()).isFalse();
+
+        assertThat(response.result).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(((ServiceUnavailableException) response.result).getResponse().getHeaderString(HttpHeaders.RETRY_AFTER)).isNull();
+    }
+
+    @Test
+    public void asksClientsToRetryReadsThatTimeOut() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BackendExecutor backendExecutor = new BackendExecutor(executor, Duration.seconds(30));
+
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        RecordingAsyncResponse response = new RecordingAsyncResponse();
+        backendExecutor.submit(response, () -> "read");
+        response.timeoutHandler.handleTimeout(response);
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(response.result).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(((ServiceUnavailableException) response.result).getResponse().getHeaderString(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    public void resumesWithErrors() throws InterruptedException {
+        RecordingAsyncResponse response = new RecordingAsyncResponse();
+        Error error = new AssertionError("test");
+
+        new BackendExecutor(Executors.newSingleThreadExecutor(), Duration.seconds(30)).submit(response, () -> {
+            throw error;
+        });
+
+        assertThat(response.resumed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(response.result).isSameAs(error);
+    }
+
+    @Test
+    public void answersMissingVersionsWithNotFound() throws InterruptedException {
+        RecordingAsyncResponse response = new RecordingAsyncResponse();
+
+        new BackendExecutor(Executors.newSingleThreadExecutor(), Duration.seconds(30)).submit(response, () -> {
+            throw new GroundNotFoundException("missing");
+        });
+
+        assertThat(response.resumed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(response.result).isInstanceOf(NotFoundException.class);
+        assertThat(((NotFoundException) response.result).getResponse().getStatus()).isEqualTo(404);
+    }
+
+    // keeps the first result it is resumed with, like a real response, and the timeout handler it was given
+    private static class RecordingAsyncResponse implements AsyncResponse {
+        private volatile Object result;
+        private volatile TimeoutHandler timeoutHandler;
+        private final CountDownLatch resumed = new CountDownLatch(1);
+
+        @Override
+        public synchronized boolean resume(Object response) {
+            if (this.result != null) {
+                return false;
+            }
+
+            this.result = response;
+            this.resumed.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean resume(Throwable response) {
+            return this.resume((Object) response);
+        }
+
+        @Override
+        public boolean cancel() {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(int retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(Date retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return this.result == null;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.result != null;
+        }
+
+        @Override
+        public boolean setTimeout(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void setTimeoutHandler(TimeoutHandler handler) {
+            this.timeoutHandler = handler;
+        }
+
+        @Override
+        public Collection<Class<?>> register(Class<?> callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Collection<Class<?>> register(Object callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+            return Collections.emptyMap();
+        }
+    }
+}
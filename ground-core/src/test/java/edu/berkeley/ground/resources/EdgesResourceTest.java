@@ -14,12 +14,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class EdgesResourceTest extends GroundResourceTest {
     @Test
     public void createEdgeVersion() throws GroundException {
-        Node node = nodesResource.createNode("test");
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null));
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
 
-        Edge edge = edgesResource.createEdge("test");
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
         assertThat(edge.getName()).isEqualTo("test");
-        EdgeVersion edgeVersion = edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null));
+        EdgeVersion edgeVersion = await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null), response));
 
         assertThat(edgeVersion.getEdgeId()).isEqualTo(edge.getId());
         assertThat(edgeVersion.getFromId()).isEqualTo(nodeVersion.getId());
@@ -16,18 +16,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class GraphsResourceTest extends GroundResourceTest {
     @Test
     public void createGraphVersion() throws GroundException {
-        Node node = nodesResource.createNode("test");
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null));
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
 
-        Edge edge = edgesResource.createEdge("test");
-        EdgeVersion edgeVersion = edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null));
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+        EdgeVersion edgeVersion = await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null), response));
 
-        Graph graph = graphsResource.createGraph("test");
+        Graph graph = await(response -> graphsResource.createGraph("test", response));
         assertThat(graph.getName()).isEqualTo("test");
         List<String> edgeVersionIds = new ArrayList<>();
         edgeVersionIds.add(edgeVersion.getId());
 
-        GraphVersion graphVersion = graphsResource.createGraphVersion(ModelCreateUtils.getGraphVersion("id", graph.getId(), edgeVersionIds), new NonEmptyStringParam(null));
+        GraphVersion graphVersion = await(response -> graphsResource.createGraphVersion(ModelCreateUtils.getGraphVersion("id", graph.getId(), edgeVersionIds), new NonEmptyStringParam(null), response));
         assertThat(graphVersion.getGraphId()).isEqualTo(graph.getId());
         assertThat(graphVersion.getEdgeVersionIds().size()).isEqualTo(1);
         assertThat(graphVersion.getEdgeVersionIds().get(0)).isEqualTo(edgeVersion.getId());
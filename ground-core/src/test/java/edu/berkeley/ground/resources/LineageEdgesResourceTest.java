@@ -17,14 +17,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class LineageEdgesResourceTest extends GroundResourceTest {
     @Test
     public void createLineageEdge() throws GroundException {
-        Node node = nodesResource.createNode("test");
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null));
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
 
-        Edge edge = edgesResource.createEdge("test");
-        EdgeVersion edgeVersion = edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null));
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+        EdgeVersion edgeVersion = await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), nodeVersion.getId(), nodeVersion.getId()), new NonEmptyStringParam(null), response));
 
-        LineageEdge lineageEdge = lineageEdgesResource.createLineageEdge("test");
-        LineageEdgeVersion lineageEdgeVersion = lineageEdgesResource.createLineageEdgeVersion(UsageCreateUtils.getLineageEdgeVersion("id", lineageEdge.getId(), nodeVersion.getId(), edgeVersion.getId()), new NonEmptyStringParam(null));
+        LineageEdge lineageEdge = await(response -> lineageEdgesResource.createLineageEdge("test", response));
+        LineageEdgeVersion lineageEdgeVersion = await(response -> lineageEdgesResource.createLineageEdgeVersion(UsageCreateUtils.getLineageEdgeVersion("id", lineageEdge.getId(), nodeVersion.getId(), edgeVersion.getId()), new NonEmptyStringParam(null), response));
         assertThat(lineageEdgeVersion.getLineageEdgeId()).isEqualTo(lineageEdge.getId());
         assertThat(lineageEdgeVersion.getFromId()).isEqualTo(nodeVersion.getId());
         assertThat(lineageEdgeVersion.getToId()).isEqualTo(edgeVersion.getId());
@@ -1,27 +1,43 @@
 package edu.berkeley.ground.resources;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import edu.berkeley.ground.GroundResourceTest;
+import edu.berkeley.ground.api.models.Edge;
 import edu.berkeley.ground.api.models.ModelCreateUtils;
 import edu.berkeley.ground.api.models.Node;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.models.indexed.IndexedEdgeVersionFactory;
+import edu.berkeley.ground.api.models.indexed.IndexedNodeVersionFactory;
+import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.exceptions.GroundException;
+import edu.berkeley.ground.util.PostgresFactories;
+import edu.berkeley.ground.util.ReachabilityIndex;
+import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.params.NonEmptyStringParam;
+import io.dropwizard.util.Duration;
 import org.junit.Test;
 
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 public class NodesResourceTest extends GroundResourceTest {
     @Test
     public void createNodeVersion() throws GroundException {
-        Node node = nodesResource.createNode("test");
+        Node node = await(response -> nodesResource.createNode("test", response));
         assertThat(node.getName()).isEqualTo("test");
 
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
         assertThat(nodeVersion.getNodeId()).isEqualTo(node.getId());
 
         assertThat(nodeVersion.getParameters()).isEmpty();
@@ -32,7 +48,7 @@ public class NodesResourceTest extends GroundResourceTest {
 
     @Test
     public void testReferences() throws GroundException {
-        Node node = nodesResource.createNode("test");
+        Node node = await(response -> nodesResource.createNode("test", response));
 
         Optional<String> reference = Optional.of("http://www.google.com");
 
@@ -40,7 +56,7 @@ public class NodesResourceTest extends GroundResourceTest {
         parametersMap.put("http", "GET");
         Optional<Map<String, String>> parameters = Optional.of(parametersMap);
 
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), reference, parameters, node.getId()), new NonEmptyStringParam(null));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), reference, parameters, node.getId()), new NonEmptyStringParam(null), response));
         assertThat(nodeVersion.getNodeId()).isEqualTo(node.getId());
 
         assertThat(nodeVersion.getReference()).isPresent();
@@ -52,4 +68,110 @@ public class NodesResourceTest extends GroundResourceTest {
         assertThat(nodeVersion.getParameters().get().get("http")).isEqualTo("GET");
 
     }
+
+    @Test
+    public void reachesFollowsEdgeVersions() throws GroundException {
+        Node node = await(response -> nodesResource.createNode("test", response));
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+
+        NodeVersion first = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion second = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion third = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+
+        await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), first.getId(), second.getId()), new NonEmptyStringParam(null), response));
+        await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), second.getId(), third.getId()), new NonEmptyStringParam(null), response));
+
+        assertThat((Boolean) await(response -> nodesResource.reaches(first.getId(), third.getId(), response))).isTrue();
+        assertThat((Boolean) await(response -> nodesResource.reaches(third.getId(), first.getId(), response))).isFalse();
+        assertThat((Boolean) await(response -> nodesResource.reaches(first.getId(), first.getId(), response))).isFalse();
+    }
+
+    @Test
+    public void reachesFallsBackWhenTheIndexHasNoPath() throws GroundException {
+        PostgresFactories factoryGenerator = new PostgresFactories((PostgresClient) this.dbClient);
+        ReachabilityIndex reachabilityIndex = new ReachabilityIndex();
+
+        NodesResource indexedNodesResource = new NodesResource(factoryGenerator.getNodeFactory(),
+                new IndexedNodeVersionFactory(factoryGenerator.getNodeVersionFactory(), reachabilityIndex, Duration.minutes(15)), backendExecutor);
+        EdgesResource indexedEdgesResource = new EdgesResource(factoryGenerator.getEdgeFactory(),
+                new IndexedEdgeVersionFactory(factoryGenerator.getEdgeVersionFactory(), reachabilityIndex), backendExecutor);
+
+        Node node = await(response -> nodesResource.createNode("test", response));
+        Edge edge = await(response -> edgesResource.createEdge("test", response));
+
+        NodeVersion first = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion second = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion third = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+
+        // the index sees the first edge version, but the second one is written as if through another server
+        await(response -> indexedEdgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), first.getId(), second.getId()), new NonEmptyStringParam(null), response));
+        await(response -> edgesResource.createEdgeVersion(ModelCreateUtils.getEdgeVersion("id", edge.getId(), second.getId(), third.getId()), new NonEmptyStringParam(null), response));
+
+        // the index has never been rebuilt, so its negative answers are checked against the database
+        assertThat(reachabilityIndex.reaches(first.getId(), third.getId())).isFalse();
+
+        assertThat((Boolean) await(response -> indexedNodesResource.reaches(first.getId(), second.getId(), response))).isTrue();
+        assertThat((Boolean) await(response -> indexedNodesResource.reaches(first.getId(), third.getId(), response))).isTrue();
+        assertThat((Boolean) await(response -> indexedNodesResource.reaches(third.getId(), first.getId(), response))).isFalse();
+    }
+
+    @Test
+    public void unknownNodeVersionsAreNotFound() throws GroundException {
+        try {
+            await(response -> nodesResource.getAncestors("missing", 10, 0, 10, response));
+            fail("ancestors of a node version that does not exist");
+        } catch (NotFoundException e) {
+            assertThat(e.getMessage()).contains("missing");
+        }
+
+        try {
+            await(response -> nodesResource.getDescendants("missing", 10, 0, 10, response));
+            fail("descendants of a node version that does not exist");
+        } catch (NotFoundException e) {
+            assertThat(e.getMessage()).contains("missing");
+        }
+    }
+
+    @Test
+    public void createNodeVersionsInBatch() throws Exception {
+        Node node = await(response -> nodesResource.createNode("test", response));
+
+        String nodeVersions = "[{\"id\": \"a\", \"nodeId\": \"" + node.getId() + "\"}, "
+                + "{\"id\": \"b\", \"nodeId\": \"" + node.getId() + "\", \"reference\": \"http://www.google.com\"}]";
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingOutput created = await(response -> nodesResource.createNodeVersions(new ByteArrayInputStream(nodeVersions.getBytes(StandardCharsets.UTF_8)), response));
+        created.write(output);
+
+        List<String> ids = Jackson.newObjectMapper().readValue(output.toByteArray(), new TypeReference<List<String>>() {});
+        assertThat(ids.size()).isEqualTo(2);
+
+        NodeVersion first = await(response -> nodesResource.getNodeVersion(ids.get(0), response));
+        assertThat(first.getNodeId()).isEqualTo(node.getId());
+        assertThat(first.getReference()).isEmpty();
+
+        NodeVersion second = await(response -> nodesResource.getNodeVersion(ids.get(1), response));
+        assertThat(second.getNodeId()).isEqualTo(node.getId());
+        assertThat(second.getReference().get()).isEqualTo("http://www.google.com");
+    }
+
+    @Test
+    public void getNodeVersionsInBatch() throws Exception {
+        Node node = await(response -> nodesResource.createNode("test", response));
+
+        NodeVersion first = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+        NodeVersion second = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.<Map<String, Tag>>empty(), Optional.<String>empty(), Optional.of("http://www.google.com"), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
+
+        // missing ids are left out, and duplicated ones are returned each time they are asked for
+        String ids = "[\"" + first.getId() + "\", \"missing\", \"" + second.getId() + "\", \"" + first.getId() + "\"]";
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingOutput retrieved = await(response -> nodesResource.getNodeVersions(new ByteArrayInputStream(ids.getBytes(StandardCharsets.UTF_8)), response));
+        retrieved.write(output);
+
+        List<NodeVersion> nodeVersions = Jackson.newObjectMapper().readValue(output.toByteArray(), new TypeReference<List<NodeVersion>>() {});
+        assertThat(nodeVersions).extracting(NodeVersion::getId).containsExactly(first.getId(), second.getId(), first.getId());
+        assertThat(nodeVersions.get(0).getNodeId()).isEqualTo(node.getId());
+        assertThat(nodeVersions.get(1).getReference().get()).isEqualTo("http://www.google.com");
+    }
 }
@@ -16,11 +16,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class StructuresResourceTest extends GroundResourceTest {
     @Test
     public void createStructure() throws GroundException {
-        Structure structure = structuresResource.createStructure("test");
+        Structure structure = await(response -> structuresResource.createStructure("test", response));
         Map<String, Type> attributes = new HashMap<>();
         attributes.put("test", Type.STRING);
 
-        StructureVersion structureVersion = structuresResource.createStructureVersion(ModelCreateUtils.getStructureVersion("id", structure.getId(), attributes), new NonEmptyStringParam(null));
+        StructureVersion structureVersion = await(response -> structuresResource.createStructureVersion(ModelCreateUtils.getStructureVersion("id", structure.getId(), attributes), new NonEmptyStringParam(null), response));
 
         assertThat(structureVersion.getStructureId()).isEqualTo(structure.getId());
         assertThat(structureVersion.getAttributes().size()).isEqualTo(1);
@@ -30,17 +30,17 @@ public class StructuresResourceTest extends GroundResourceTest {
 
     @Test
     public void checkStructureAttributesArePresent() throws GroundException {
-        Structure structure = structuresResource.createStructure("test");
+        Structure structure = await(response -> structuresResource.createStructure("test", response));
         Map<String, Type> attributes = new HashMap<>();
         attributes.put("test", Type.STRING);
 
-        StructureVersion structureVersion = structuresResource.createStructureVersion(ModelCreateUtils.getStructureVersion("id", structure.getId(), attributes), new NonEmptyStringParam(null));
+        StructureVersion structureVersion = await(response -> structuresResource.createStructureVersion(ModelCreateUtils.getStructureVersion("id", structure.getId(), attributes), new NonEmptyStringParam(null), response));
 
         Map<String, Tag> tagsMap = new HashMap<>();
         tagsMap.put("test", new Tag(null, "test", Optional.of("a"), Optional.of(Type.STRING)));
 
-        Node node = nodesResource.createNode("test");
-        NodeVersion nodeVersion = nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.of(tagsMap), Optional.of(structureVersion.getId()), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null));
+        Node node = await(response -> nodesResource.createNode("test", response));
+        NodeVersion nodeVersion = await(response -> nodesResource.createNodeVersion(ModelCreateUtils.getNodeVersion("id", Optional.of(tagsMap), Optional.of(structureVersion.getId()), Optional.<String>empty(), Optional.<Map<String, String>>empty(), node.getId()), new NonEmptyStringParam(null), response));
 
         assertThat(nodeVersion.getStructureVersionId()).isPresent();
         assertThat(nodeVersion.getStructureVersionId().get()).isEqualTo(structureVersion.getId());
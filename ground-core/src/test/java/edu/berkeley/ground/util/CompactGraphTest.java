@@ -0,0 +1,59 @@
+package edu.berkeley.ground.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactGraphTest {
+
+    @Test
+    public void reachableIncludesStart() {
+        CompactGraph graph = new CompactGraph();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("d", "a");
+
+        assertThat(graph.reachable("a")).containsOnly("a", "b", "c");
+        assertThat(graph.reachable("c")).containsOnly("c");
+        assertThat(graph.reachable("missing")).isEmpty();
+    }
+
+    @Test
+    public void ignoresDuplicateEdges() {
+        CompactGraph graph = new CompactGraph();
+        graph.addEdge("a", "b");
+        graph.addEdges("a", Arrays.asList("b", "c", "b"));
+
+        assertThat(graph.getSuccessors("a")).containsOnly("b", "c").hasSize(2);
+        assertThat(graph.getVertexCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void reachableHandlesCycles() {
+        CompactGraph graph = new CompactGraph();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "a");
+
+        assertThat(graph.reachable("a")).containsOnly("a", "b");
+        // the visited set is reused, so a second traversal must start clean
+        assertThat(graph.reachable("b")).containsOnly("a", "b");
+    }
+
+    @Test
+    public void keepsEdgesAcrossCompaction() {
+        CompactGraph graph = new CompactGraph();
+
+        // a chain long enough to be compacted several times, with edges added to compacted vertices afterwards
+        for (int index = 0; index < 5000; index++) {
+            graph.addEdge("v" + index, "v" + (index + 1));
+        }
+        graph.addEdge("v0", "w");
+        graph.addEdge("v0", "v1");
+
+        assertThat(graph.reachable("v0")).hasSize(5002);
+        assertThat(graph.reachable("v4999")).containsOnly("v4999", "v5000");
+        assertThat(graph.getSuccessors("v0")).containsOnly("v1", "w").hasSize(2);
+    }
+}
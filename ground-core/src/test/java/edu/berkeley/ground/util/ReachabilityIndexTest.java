@@ -0,0 +1,156 @@
+package edu.berkeley.ground.util;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReachabilityIndexTest {
+
+    @Test
+    public void answersFromBuiltLabels() throws Exception {
+        ReachabilityIndex index = new ReachabilityIndex();
+        index.rebuild(edges -> {
+            // a diamond a -> {b, c} -> d, and e -> a
+            edges.accept("a", "b");
+            edges.accept("a", "c");
+            edges.accept("b", "d");
+            edges.accept("c", "d");
+            edges.accept("e", "a");
+        });
+
+        assertThat(index.reaches("a", "d")).isTrue();
+        assertThat(index.reaches("e", "d")).isTrue();
+        assertThat(index.reaches("b", "c")).isFalse();
+        assertThat(index.reaches("d", "a")).isFalse();
+
+        // a vertex only reaches itself through a cycle
+        assertThat(index.reaches("a", "a")).isFalse();
+        assertThat(index.reaches("a", "missing")).isFalse();
+        assertThat(index.contains("missing")).isFalse();
+    }
+
+    @Test
+    public void patchesAddedEdges() throws Exception {
+        ReachabilityIndex index = new ReachabilityIndex();
+        index.rebuild(edges -> {
+            edges.accept("a", "b");
+            edges.accept("c", "d");
+        });
+
+        assertThat(index.reaches("a", "d")).isFalse();
+
+        index.addEdge("b", "c");
+        assertThat(index.reaches("a", "d")).isTrue();
+
+        // edges to new vertices, and edges that close a cycle
+        index.addEdge("d", "e");
+        index.addEdge("e", "a");
+        assertThat(index.contains("e")).isTrue();
+        assertThat(index.reaches("a", "e")).isTrue();
+        assertThat(index.reaches("d", "b")).isTrue();
+        assertThat(index.reaches("a", "a")).isTrue();
+    }
+
+    @Test
+    public void keepsEdgesAddedDuringRebuild() throws Exception {
+        ReachabilityIndex index = new ReachabilityIndex();
+
+        index.rebuild(edges -> {
+            edges.accept("a", "b");
+
+            // an edge committed while the rebuild is reading the old ones
+            index.addEdge("b", "c");
+        });
+
+        assertThat(index.reaches("a", "c")).isTrue();
+    }
+
+    @Test
+    public void isFreshOnlyAfterARecentRebuild() throws Exception {
+        ReachabilityIndex index = new ReachabilityIndex();
+        assertThat(index.isFresh(Long.MAX_VALUE)).isFalse();
+
+        index.rebuild(edges -> {
+            edges.accept("a", "b");
+            index.addEdge("b", "c");
+        });
+        index.addEdge("c", "d");
+
+        assertThat(index.isFresh(60000)).isTrue();
+        assertThat(index.getEdgesAddedSinceRebuild()).isEqualTo(2);
+
+        Thread.sleep(5);
+        assertThat(index.isFresh(0)).isFalse();
+    }
+
+    @Test
+    public void failedRebuildKeepsTheLastSnapshot() throws Exception {
+        ReachabilityIndex index = new ReachabilityIndex();
+
+        try {
+            index.rebuild(edges -> {
+                throw new IllegalStateException("unavailable");
+            });
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertThat(index.isFresh(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    public void matchesBreadthFirstSearch() throws Exception {
+        Random random = new Random(0);
+
+        for (int trial = 0; trial < 200; trial++) {
+            int vertexCount = 2 + random.nextInt(20);
+            Map<Integer, List<Integer>> successors = new HashMap<>();
+            ReachabilityIndex index = new ReachabilityIndex();
+
+            List<int[]> built = new ArrayList<>();
+            int builtCount = random.nextInt(30);
+            for (int edge = 0; edge < builtCount; edge++) {
+                built.add(new int[] {random.nextInt(vertexCount), random.nextInt(vertexCount)});
+            }
+
+            index.rebuild(edges -> built.forEach(edge -> edges.accept("v" + edge[0], "v" + edge[1])));
+            built.forEach(edge -> successors.computeIfAbsent(edge[0], key -> new ArrayList<>()).add(edge[1]));
+
+            int addedCount = random.nextInt(30);
+            for (int edge = 0; edge < addedCount; edge++) {
+                int from = random.nextInt(vertexCount);
+                int to = random.nextInt(vertexCount);
+
+                index.addEdge("v" + from, "v" + to);
+                successors.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            }
+
+            for (int from = 0; from < vertexCount; from++) {
+                Set<Integer> reachable = ReachabilityIndexTest.reachable(successors, from);
+
+                for (int to = 0; to < vertexCount; to++) {
+                    assertThat(index.reaches("v" + from, "v" + to)).isEqualTo(reachable.contains(to));
+                }
+            }
+        }
+    }
+
+    // the vertices at the end of paths of at least one edge from start
+    private static Set<Integer> reachable(Map<Integer, List<Integer>> successors, int start) {
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            for (int next : successors.getOrDefault(queue.poll(), Collections.emptyList())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        return visited;
+    }
+}
@@ -0,0 +1,129 @@
+package edu.berkeley.ground.util;
+
+import com.codahale.metrics.MetricRegistry;
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.versions.Type;
+import edu.berkeley.ground.exceptions.GroundException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class VersionCacheTest {
+
+    @Test
+    public void loadsEachVersionOnce() throws GroundException {
+        VersionCache cache = new VersionCache(100, new MetricRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int index = 0; index < 3; index++) {
+            NodeVersion version = cache.get(NodeVersion.class, "a", () -> {
+                loads.incrementAndGet();
+                return nodeVersion("a", 0);
+            });
+
+            assertThat(version.getId()).isEqualTo("a");
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getStats().hitCount()).isEqualTo(2);
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void weighsVersionsByTheirTags() {
+        assertThat(VersionCache.weigh(nodeVersion("a", 0))).isEqualTo(1);
+        assertThat(VersionCache.weigh(nodeVersion("a", 10))).isEqualTo(11);
+    }
+
+    @Test
+    public void doesNotCacheFailedLoads() throws GroundException {
+        VersionCache cache = new VersionCache(100, new MetricRegistry());
+
+        try {
+            cache.get(NodeVersion.class, "a", () -> {
+                throw new GroundException("No results found for query: a");
+            });
+            fail("the loader's exception should have been thrown");
+        } catch (GroundException e) {
+            assertThat(e.getMessage()).contains("No results found for query:");
+        }
+
+        NodeVersion version = cache.get(NodeVersion.class, "a", () -> nodeVersion("a", 0));
+        assertThat(version.getId()).isEqualTo("a");
+    }
+
+    @Test
+    public void loadsOnlyMissingVersionsInBatch() throws GroundException {
+        VersionCache cache = new VersionCache(100, new MetricRegistry());
+        cache.get(NodeVersion.class, "b", () -> nodeVersion("b", 0));
+
+        List<List<String>> loaded = new ArrayList<>();
+        List<NodeVersion> versions = cache.getAll(NodeVersion.class, Arrays.asList("c", "b", "missing", "a", "c"), ids -> {
+            loaded.add(ids);
+
+            List<NodeVersion> result = new ArrayList<>();
+            for (String id : ids) {
+                if (!id.equals("missing")) {
+                    result.add(nodeVersion(id, 0));
+                }
+            }
+
+            return result;
+        });
+
+        assertThat(loaded).containsExactly(Arrays.asList("c", "missing", "a"));
+        assertThat(versions).extracting(NodeVersion::getId).containsExactly("c", "b", "a", "c");
+    }
+
+    @Test
+    public void missesVersionsCachedAsAnotherType() throws GroundException {
+        VersionCache cache = new VersionCache(100, new MetricRegistry());
+        cache.get(EdgeVersion.class, "a", () -> ModelCreateUtils.getEdgeVersion("a", "edge", "from", "to"));
+
+        try {
+            cache.get(NodeVersion.class, "a", () -> {
+                throw new GroundException("No results found for query: a");
+            });
+            fail("an edge version should not have been returned as a node version");
+        } catch (GroundException e) {
+            assertThat(e.getMessage()).contains("No results found for query:");
+        }
+
+        List<List<String>> loaded = new ArrayList<>();
+        List<NodeVersion> versions = cache.getAll(NodeVersion.class, Arrays.asList("a", "b"), ids -> {
+            loaded.add(ids);
+            return Collections.singletonList(nodeVersion("b", 0));
+        });
+
+        assertThat(loaded).containsExactly(Arrays.asList("a", "b"));
+        assertThat(versions).extracting(NodeVersion::getId).containsExactly("b");
+
+        EdgeVersion edgeVersion = cache.get(EdgeVersion.class, "a", () -> {
+            throw new GroundException("the edge version should still be cached");
+        });
+        assertThat(edgeVersion.getFromId()).isEqualTo("from");
+    }
+
+    private static NodeVersion nodeVersion(String id, int tagCount) {
+        Map<String, Tag> tags = new HashMap<>();
+        for (int index = 0; index < tagCount; index++) {
+            tags.put("key" + index, new Tag(id, "key" + index, Optional.of(index), Optional.of(Type.INTEGER)));
+        }
+
+        return NodeVersionFactory.construct(id, Optional.of(tags), Optional.empty(), Optional.empty(), Optional.empty(), "Nodes.test");
+    }
+}